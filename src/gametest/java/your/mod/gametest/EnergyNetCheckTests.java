@@ -0,0 +1,555 @@
+package your.mod.gametest;
+
+import com.gregtechceu.gtceu.api.GTValues;
+import com.gregtechceu.gtceu.api.capability.GTCapabilityHelper;
+import com.gregtechceu.gtceu.api.capability.IEnergyContainer;
+import com.gregtechceu.gtceu.common.blockentity.CableBlockEntity;
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyNet;
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyRoutePath;
+import com.gregtechceu.gtceu.common.pipelike.cable.LevelEnergyNet;
+import com.mojang.logging.LogUtils;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BarrelBlockEntity;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.ForgeCapabilities;
+import net.minecraftforge.common.capabilities.ICapabilityProvider;
+import net.minecraftforge.common.util.LazyOptional;
+import net.minecraftforge.energy.EnergyStorage;
+import net.minecraftforge.energy.IEnergyStorage;
+import net.minecraftforge.event.AttachCapabilitiesEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+import org.slf4j.Logger;
+import your.mod.config.HotfixConfig;
+import your.mod.energy.HandlerCache;
+import your.mod.energy.IEnergyNetHotfix;
+import your.mod.energy.LazyRouteList;
+import your.mod.energy.RegionGraph;
+import your.mod.energy.SinkCache;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Functional checks of the hotfix delivery path on live GTCEu nets (run with {@code ./gradlew runGameTestServer}).
+ *
+ * {@link #steadyDeliveryAllocation}: once a net is warm, producer calls through {@code NetDeliveryAdapter}
+ * (sink states from {@link SinkCache}, handlers from {@link HandlerCache}) must not allocate per call. The
+ * server thread's allocated-bytes counter is read around each producer call. On the following tick the same
+ * sinks are fed once each directly, which measures what the GTCEu containers themselves allocate when they
+ * accept energy; what the producer call allocates beyond that is the delivery path's own share and must stay
+ * near zero.
+ *
+ * {@link #regionWalkMatchesCableWalk}: on a net spanning several chunk sections, the lazy route walk over the
+ * {@link RegionGraph} ({@link HotfixConfig#regionRouting}) emits the same routes as the cable-by-cable walk:
+ * endpoint, face, loss and cable path, in the same order. Every sink sits at its own distance from the producer.
+ * {@link #regionWalkOrdersEqualLossRoutes} feeds pairs of sinks at equal loss and length (either side of the
+ * producer, and both sides of one cable), which both walks must order the same way.
+ *
+ * {@link #wrenchCutStopsDelivery}: a connection cut the way the wrench and wire cutter cut it
+ * ({@code setConnection(side, false, false)}) stops delivery across the cut on the next tick, although the
+ * debounced rebuild ({@link HotfixConfig#topologyDebounceTicks}) keeps the old routes serving for a while.
+ *
+ * {@link #feSinkWakesIdleNet}: a net whose only sink is a Forge Energy buffer ({@link FeSinks}) stays full for
+ * longer than {@link HotfixConfig#sleepAfterTicks}; once the buffer is emptied outside the energy net, the next
+ * offer must be accepted. FE storage does not notify the net, so it must not have fallen asleep.
+ */
+@GameTestHolder("gtceuenergynethotfix")
+@PrefixGameTestTemplate(false)
+public final class EnergyNetCheckTests {
+
+    private EnergyNetCheckTests() {}
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static final String TEMPLATE = "empty";
+    private static final int Y = 1;
+
+    private static final long VOLTAGE = GTValues.V[GTValues.EV];
+    private static final long PRODUCER_AMPS = 16;
+
+    private static final int ALLOC_WARMUP_TICKS = 200;
+    private static final int ALLOC_MEASURE_TICKS = 200;
+    private static final int ALLOC_ROW = 48;
+    /** EU drained from every sink per tick: demand stays above the producer's offer and the baseline calls. */
+    private static final long ALLOC_DRAIN = 512;
+    /**
+     * Average bytes one warm producer call may allocate beyond the sinks' own share: room for amortized map
+     * growth, while a single 24-byte allocation per fed route exceeds it.
+     */
+    private static final long MAX_ALLOC_BYTES_PER_CALL = 16;
+
+    private static final int REGION_ROWS = 4;
+    private static final int REGION_ROW_LEN = 48;
+    private static final int REGION_ROW_GAP = 3;
+
+    private static final int CUT_ROW = 16;
+    /** The cut is made on the east face of this cable; every sink is past it. */
+    private static final int CUT_AT = 5;
+    private static final int CUT_WARMUP_TICKS = 20;
+
+    private static final int FE_ROW = 8;
+    private static final int FE_CAPACITY = 40_000;
+    /** Ticks to build the net and fill the sink, then ticks the full sink is kept past the sleep threshold. */
+    private static final int FE_FILL_TICKS = 10;
+    private static final int FE_IDLE_MARGIN_TICKS = 20;
+    private static final int FE_TIMEOUT_TICKS = 400;
+
+    @GameTest(template = TEMPLATE, batch = "check_alloc",
+            timeoutTicks = ALLOC_WARMUP_TICKS + ALLOC_MEASURE_TICKS + 100)
+    public static void steadyDeliveryAllocation(GameTestHelper helper) {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean)
+                || !bean.isThreadAllocatedMemorySupported()) {
+            helper.fail("needs a JVM with per-thread allocation counters (com.sun.management.ThreadMXBean)");
+            return;
+        }
+        if (!bean.isThreadAllocatedMemoryEnabled()) bean.setThreadAllocatedMemoryEnabled(true);
+
+        final ServerLevel level = helper.getLevel();
+        final BlockState cable = EnergyNetPerfTests.cableState();
+        final BlockState machine = EnergyNetPerfTests.machineState();
+        // One cable row with a machine on both sides of every cable, fed from its x=0 end.
+        final List<BlockPos> cables = new ArrayList<>();
+        final List<BlockPos> sinks = new ArrayList<>();
+        final List<Direction> sides = new ArrayList<>();
+        for (int x = 0; x < ALLOC_ROW; x++) {
+            helper.setBlock(new BlockPos(x, Y, 1), cable);
+            cables.add(helper.absolutePos(new BlockPos(x, Y, 1)));
+            for (int z = 0; z <= 2; z += 2) {
+                helper.setBlock(new BlockPos(x, Y, z), machine);
+                final BlockPos abs = helper.absolutePos(new BlockPos(x, Y, z));
+                EnergyNetPerfTests.faceUp(level, abs);
+                sinks.add(abs);
+                // The side of the sink that faces the cable row.
+                sides.add((z == 0) ? Direction.SOUTH : Direction.NORTH);
+            }
+        }
+        for (BlockPos pos : cables) {
+            EnergyNetPerfTests.connect(level, pos);
+        }
+
+        final AllocRun run = new AllocRun(level, bean, helper.absolutePos(new BlockPos(0, Y, 1)), sinks, sides);
+        helper.onEachTick(run::tick);
+        helper.runAfterDelay(ALLOC_WARMUP_TICKS, () -> run.measuring = true);
+        helper.runAfterDelay(ALLOC_WARMUP_TICKS + ALLOC_MEASURE_TICKS, () -> {
+            run.measuring = false;
+            run.check(helper);
+            helper.succeed();
+        });
+    }
+
+    @GameTest(template = TEMPLATE, batch = "check_regions", timeoutTicks = 100)
+    public static void regionWalkMatchesCableWalk(GameTestHelper helper) {
+        final ServerLevel level = helper.getLevel();
+        final BlockState cable = EnergyNetPerfTests.cableState();
+        final BlockState machine = EnergyNetPerfTests.machineState();
+        // Serpentine of REGION_ROWS rows joined at alternating ends (one path to every sink), with a machine
+        // beside every 4th cable of a row; rows are REGION_ROW_GAP apart and sinks stay clear of the joins, so no
+        // sink touches two cables.
+        final List<BlockPos> cables = new ArrayList<>();
+        int placed = 0;
+        for (int r = 0; r < REGION_ROWS; r++) {
+            final int z = REGION_ROW_GAP * r;
+            for (int x = 0; x < REGION_ROW_LEN; x++) {
+                helper.setBlock(new BlockPos(x, Y, z), cable);
+                cables.add(helper.absolutePos(new BlockPos(x, Y, z)));
+                if (x % 4 == 2 && x + 2 < REGION_ROW_LEN) {
+                    helper.setBlock(new BlockPos(x, Y, z + 1), machine);
+                    EnergyNetPerfTests.faceUp(level, helper.absolutePos(new BlockPos(x, Y, z + 1)));
+                    placed++;
+                }
+            }
+            if (r + 1 < REGION_ROWS) {
+                final int joinX = (r % 2 == 0) ? REGION_ROW_LEN - 1 : 0;
+                for (int dz = 1; dz < REGION_ROW_GAP; dz++) {
+                    helper.setBlock(new BlockPos(joinX, Y, z + dz), cable);
+                    cables.add(helper.absolutePos(new BlockPos(joinX, Y, z + dz)));
+                }
+            }
+        }
+        for (BlockPos pos : cables) {
+            EnergyNetPerfTests.connect(level, pos);
+        }
+        final BlockPos producer = helper.absolutePos(new BlockPos(0, Y, 0));
+        final int sinks = placed;
+        helper.runAfterDelay(5, () -> compareWalks(helper, level, producer, sinks, false));
+    }
+
+    @GameTest(template = TEMPLATE, batch = "check_regions", timeoutTicks = 100)
+    public static void regionWalkOrdersEqualLossRoutes(GameTestHelper helper) {
+        final ServerLevel level = helper.getLevel();
+        final BlockState cable = EnergyNetPerfTests.cableState();
+        final BlockState machine = EnergyNetPerfTests.machineState();
+        // One row fed from its middle, with sinks in pairs at the same distance on either side of the producer,
+        // and one cable with a sink on both of its sides.
+        final int mid = REGION_ROW_LEN / 2;
+        final List<BlockPos> cables = new ArrayList<>();
+        for (int x = 0; x < REGION_ROW_LEN; x++) {
+            helper.setBlock(new BlockPos(x, Y, 1), cable);
+            cables.add(helper.absolutePos(new BlockPos(x, Y, 1)));
+        }
+        int placed = 0;
+        for (int d = 3; d < mid; d += 6) {
+            for (int x : new int[] {mid - d, mid + d}) {
+                helper.setBlock(new BlockPos(x, Y, 0), machine);
+                EnergyNetPerfTests.faceUp(level, helper.absolutePos(new BlockPos(x, Y, 0)));
+                placed++;
+            }
+        }
+        helper.setBlock(new BlockPos(mid - 3, Y, 2), machine);
+        EnergyNetPerfTests.faceUp(level, helper.absolutePos(new BlockPos(mid - 3, Y, 2)));
+        placed++;
+        for (BlockPos pos : cables) {
+            EnergyNetPerfTests.connect(level, pos);
+        }
+        final BlockPos producer = helper.absolutePos(new BlockPos(mid, Y, 1));
+        final int sinks = placed;
+        helper.runAfterDelay(5, () -> compareWalks(helper, level, producer, sinks, true));
+    }
+
+    /**
+     * Walk every route of {@code producer} cable by cable and over regions, and require the same routes in the
+     * same order; with {@code ties}, the list must also contain routes of equal loss and length.
+     */
+    private static void compareWalks(GameTestHelper helper, ServerLevel level, BlockPos producer, int sinks,
+                                     boolean ties) {
+        final EnergyNet net = LevelEnergyNet.getOrCreate(level).getNetFromPos(producer);
+        if (net == null) {
+            helper.fail("no energy net at the producer cable");
+            return;
+        }
+        final boolean regionRouting = HotfixConfig.regionRouting;
+        final List<EnergyRoutePath> cableWalk;
+        final List<EnergyRoutePath> regionWalk;
+        try {
+            HotfixConfig.regionRouting = false;
+            cableWalk = walk(net, producer);
+            HotfixConfig.regionRouting = true;
+            regionWalk = walk(net, producer);
+        } finally {
+            HotfixConfig.regionRouting = regionRouting;
+        }
+        final int regions = RegionGraph.regionCount(net);
+        LOGGER.info("[check] region walk: {} routes over {} regions, cable walk: {} routes",
+                regionWalk.size(), regions, cableWalk.size());
+        if (regions < 3) {
+            helper.fail(String.format(Locale.ROOT, "net spans only %d regions", regions));
+        }
+        if (cableWalk.size() != sinks) {
+            helper.fail(String.format(Locale.ROOT, "cable walk found %d routes, expected %d",
+                    cableWalk.size(), sinks));
+        }
+        if (regionWalk.size() != cableWalk.size()) {
+            helper.fail(String.format(Locale.ROOT, "region walk found %d routes, cable walk %d",
+                    regionWalk.size(), cableWalk.size()));
+        }
+        boolean tied = false;
+        for (int i = 0; i < cableWalk.size(); i++) {
+            final String a = describe(cableWalk.get(i));
+            final String b = describe(regionWalk.get(i));
+            if (!a.equals(b)) {
+                helper.fail(String.format(Locale.ROOT, "route %d differs: cable walk %s, region walk %s", i, a, b));
+            }
+            if (i > 0 && cableWalk.get(i).getMaxLoss() == cableWalk.get(i - 1).getMaxLoss()
+                    && cableWalk.get(i).getDistance() == cableWalk.get(i - 1).getDistance()) {
+                tied = true;
+            }
+        }
+        if (ties && !tied) {
+            helper.fail("no two routes of equal loss and length");
+        }
+        helper.succeed();
+    }
+
+    @GameTest(template = TEMPLATE, batch = "check_cut", timeoutTicks = CUT_WARMUP_TICKS + 40)
+    public static void wrenchCutStopsDelivery(GameTestHelper helper) {
+        final ServerLevel level = helper.getLevel();
+        final BlockState cable = EnergyNetPerfTests.cableState();
+        final BlockState machine = EnergyNetPerfTests.machineState();
+        // One cable row fed from its x=0 end, with machines on both sides of every cable past the cut.
+        final List<BlockPos> cables = new ArrayList<>();
+        final List<BlockPos> sinks = new ArrayList<>();
+        for (int x = 0; x < CUT_ROW; x++) {
+            helper.setBlock(new BlockPos(x, Y, 1), cable);
+            cables.add(helper.absolutePos(new BlockPos(x, Y, 1)));
+            if (x <= CUT_AT + 1) continue;
+            for (int z = 0; z <= 2; z += 2) {
+                helper.setBlock(new BlockPos(x, Y, z), machine);
+                final BlockPos abs = helper.absolutePos(new BlockPos(x, Y, z));
+                EnergyNetPerfTests.faceUp(level, abs);
+                sinks.add(abs);
+            }
+        }
+        for (BlockPos pos : cables) {
+            EnergyNetPerfTests.connect(level, pos);
+        }
+        final BlockPos producer = helper.absolutePos(new BlockPos(0, Y, 1));
+        final BlockPos cut = helper.absolutePos(new BlockPos(CUT_AT, Y, 1));
+
+        helper.onEachTick(() -> {
+            for (BlockPos pos : sinks) {
+                EnergyNetPerfTests.drain(level, pos, ALLOC_DRAIN);
+            }
+        });
+        helper.runAfterDelay(CUT_WARMUP_TICKS, () -> {
+            final long before = offer(level, producer);
+            if (before <= 0) {
+                helper.fail("no energy delivered before the cut");
+                return;
+            }
+            if (!(level.getBlockEntity(cut) instanceof CableBlockEntity cutCable)) {
+                helper.fail("no cable at the cut");
+                return;
+            }
+            cutCable.setConnection(Direction.EAST, false, false);
+        });
+        helper.runAfterDelay(CUT_WARMUP_TICKS + 1, () -> {
+            final EnergyNet net = LevelEnergyNet.getOrCreate(level).getNetFromPos(producer);
+            final boolean stale = net instanceof IEnergyNetHotfix hotfix && hotfix.gtceuHotfix$isServingStale();
+            final long after = offer(level, producer);
+            LOGGER.info("[check] wrench cut: {} A delivered the tick after the cut (net serving stale routes: {})",
+                    after, stale);
+            if (after != 0) {
+                helper.fail(String.format(Locale.ROOT, "%d A delivered across the cut on the next tick", after));
+                return;
+            }
+            helper.succeed();
+        });
+    }
+
+    @GameTest(template = TEMPLATE, batch = "check_fe_sleep", timeoutTicks = FE_TIMEOUT_TICKS)
+    public static void feSinkWakesIdleNet(GameTestHelper helper) {
+        final int drainAt = FE_FILL_TICKS + Math.max(0, HotfixConfig.sleepAfterTicks) + FE_IDLE_MARGIN_TICKS;
+        if (drainAt + 5 > FE_TIMEOUT_TICKS) {
+            helper.fail(String.format(Locale.ROOT, "sleepAfterTicks %d is too long for this check",
+                    HotfixConfig.sleepAfterTicks));
+            return;
+        }
+        final ServerLevel level = helper.getLevel();
+        final BlockState cable = EnergyNetPerfTests.cableState();
+        // A cable row fed from its x=0 end into one Forge Energy buffer at the far end.
+        final List<BlockPos> cables = new ArrayList<>();
+        for (int x = 0; x < FE_ROW; x++) {
+            helper.setBlock(new BlockPos(x, Y, 1), cable);
+            cables.add(helper.absolutePos(new BlockPos(x, Y, 1)));
+        }
+        final BlockPos sink = helper.absolutePos(new BlockPos(FE_ROW, Y, 1));
+        FeSinks.POSITIONS.add(sink);
+        helper.setBlock(new BlockPos(FE_ROW, Y, 1), Blocks.BARREL.defaultBlockState());
+        for (BlockPos pos : cables) {
+            EnergyNetPerfTests.connect(level, pos);
+        }
+        final BlockPos producer = helper.absolutePos(new BlockPos(0, Y, 1));
+
+        final int[] tick = {0};
+        final long[] filled = {0L};
+        final long[] idle = {0L};
+        helper.onEachTick(() -> {
+            final int t = ++tick[0];
+            if (t < FE_FILL_TICKS) return;
+            if (t < drainAt) {
+                final long accepted = offer(level, producer);
+                filled[0] += accepted;
+                if (t >= drainAt - FE_IDLE_MARGIN_TICKS) idle[0] += accepted;
+                return;
+            }
+            if (t == drainAt) {
+                FeSinks.POSITIONS.remove(sink);
+                if (filled[0] == 0 || idle[0] != 0) {
+                    helper.fail(String.format(Locale.ROOT,
+                            "FE sink did not fill and stay full (%d A while filling, %d A while full)",
+                            filled[0], idle[0]));
+                    return;
+                }
+                EnergyNetPerfTests.drain(level, sink, FE_CAPACITY);
+                return;
+            }
+            if (t == drainAt + 1) {
+                final long accepted = offer(level, producer);
+                LOGGER.info("[check] FE sink: {} A accepted the tick after draining it", accepted);
+                if (accepted <= 0) {
+                    helper.fail("an idle net feeding an FE sink ignored the drained sink");
+                    return;
+                }
+                helper.succeed();
+            }
+        });
+    }
+
+    /** One producer call of {@link #PRODUCER_AMPS} at {@link #VOLTAGE} into the cable at {@code producer}. */
+    private static long offer(ServerLevel level, BlockPos producer) {
+        // Producer side DOWN: nothing is below the rows.
+        final IEnergyContainer handler = GTCapabilityHelper.getEnergyContainer(level, producer, Direction.DOWN);
+        return (handler == null) ? 0L : handler.acceptEnergyFromNetwork(Direction.DOWN, VOLTAGE, PRODUCER_AMPS);
+    }
+
+    /** Every route of {@code pipePos}, walked lazily to the end under the current routing setting. */
+    private static List<EnergyRoutePath> walk(EnergyNet net, BlockPos pipePos) {
+        final LazyRouteList routes = LazyRouteList.create(net, pipePos);
+        return (routes == null) ? List.of() : routes.fullWalk();
+    }
+
+    /** Endpoint, face, loss and cable path of a route. */
+    private static String describe(EnergyRoutePath route) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(route.getTargetPipePos().toShortString()).append(' ').append(route.getTargetFacing())
+                .append(" loss=").append(route.getMaxLoss()).append(" path=");
+        for (CableBlockEntity seg : route.getPath()) {
+            sb.append('[').append(seg.getPipePos().toShortString()).append(']');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Per-tick driver of {@link #steadyDeliveryAllocation}: a producer call on odd ticks, and on even ticks the
+     * baseline, one direct call into each sink the producer call fed.
+     */
+    private static final class AllocRun {
+
+        private final ServerLevel level;
+        private final com.sun.management.ThreadMXBean bean;
+        private final BlockPos producer;
+        private final List<BlockPos> sinks;
+        private final List<Direction> sides;
+        private final IEnergyContainer[] containers;
+        private final long[] stored;
+        private final boolean[] fed;
+
+        boolean measuring;
+        private boolean producerTick;
+        private boolean replayPending;
+        private boolean replayMeasured;
+        private int calls;
+        private long bytes;
+        private long baselineBytes;
+        private int baselineCalls;
+        private long acceptedAmps;
+
+        AllocRun(ServerLevel level, com.sun.management.ThreadMXBean bean, BlockPos producer, List<BlockPos> sinks,
+                 List<Direction> sides) {
+            this.level = level;
+            this.bean = bean;
+            this.producer = producer;
+            this.sinks = sinks;
+            this.sides = sides;
+            this.containers = new IEnergyContainer[sinks.size()];
+            this.stored = new long[sinks.size()];
+            this.fed = new boolean[sinks.size()];
+        }
+
+        void tick() {
+            for (BlockPos pos : sinks) {
+                EnergyNetPerfTests.drain(level, pos, ALLOC_DRAIN);
+            }
+            for (int i = 0; i < containers.length; i++) {
+                containers[i] = GTCapabilityHelper.getEnergyContainer(level, sinks.get(i), sides.get(i));
+            }
+            producerTick = !producerTick;
+            if (producerTick) {
+                produce();
+            } else if (replayPending) {
+                replay();
+            }
+        }
+
+        private void produce() {
+            // Producer side DOWN: nothing is below the row.
+            final IEnergyContainer handler = GTCapabilityHelper.getEnergyContainer(level, producer, Direction.DOWN);
+            if (handler == null) return;
+            for (int i = 0; i < containers.length; i++) {
+                stored[i] = (containers[i] != null) ? containers[i].getEnergyStored() : 0L;
+            }
+            final long start = bean.getCurrentThreadAllocatedBytes();
+            final long accepted = handler.acceptEnergyFromNetwork(Direction.DOWN, VOLTAGE, PRODUCER_AMPS);
+            final long allocated = bean.getCurrentThreadAllocatedBytes() - start;
+            for (int i = 0; i < containers.length; i++) {
+                fed[i] = containers[i] != null && containers[i].getEnergyStored() > stored[i];
+            }
+            replayPending = true;
+            replayMeasured = measuring;
+            if (measuring) {
+                calls++;
+                bytes += allocated;
+                acceptedAmps += accepted;
+            }
+        }
+
+        private void replay() {
+            replayPending = false;
+            long allocated = 0L;
+            for (int i = 0; i < containers.length; i++) {
+                if (!fed[i]) continue;
+                final IEnergyContainer sink = containers[i];
+                final long start = bean.getCurrentThreadAllocatedBytes();
+                sink.acceptEnergyFromNetwork(sides.get(i), sink.getInputVoltage(), 1);
+                allocated += bean.getCurrentThreadAllocatedBytes() - start;
+            }
+            if (replayMeasured) {
+                baselineCalls++;
+                baselineBytes += allocated;
+            }
+        }
+
+        void check(GameTestHelper helper) {
+            final EnergyNet net = LevelEnergyNet.getOrCreate(level).getNetFromPos(producer);
+            final int sinkStates = (net != null) ? SinkCache.sinkStateCount(net) : 0;
+            final int handlers = (net != null) ? HandlerCache.size(net) : 0;
+            final long perCall = (calls > 0) ? bytes / calls : 0L;
+            final long sinkShare = (baselineCalls > 0) ? baselineBytes / baselineCalls : 0L;
+            LOGGER.info("[check] delivery allocation: {} calls, {} A accepted, {} B/call, of which {} B in the sinks, "
+                    + "{} sink states, {} handlers", calls, acceptedAmps, perCall, sinkShare, sinkStates, handlers);
+            if (calls == 0 || acceptedAmps == 0 || baselineCalls == 0) {
+                helper.fail(String.format(Locale.ROOT, "no energy delivered (%d calls, %d A, %d baseline calls)",
+                        calls, acceptedAmps, baselineCalls));
+            }
+            if (sinkStates == 0 || handlers == 0) {
+                helper.fail(String.format(Locale.ROOT,
+                        "delivery did not go through the sink / handler caches (%d sink states, %d handlers)",
+                        sinkStates, handlers));
+            }
+            if (perCall - sinkShare > MAX_ALLOC_BYTES_PER_CALL) {
+                helper.fail(String.format(Locale.ROOT,
+                        "warm producer calls allocate %d B on average, %d B beyond the sinks' own share (bound %d B)",
+                        perCall, perCall - sinkShare, MAX_ALLOC_BYTES_PER_CALL));
+            }
+        }
+    }
+
+    /** Gives barrels placed at {@link #POSITIONS} a Forge Energy buffer of {@link #FE_CAPACITY} FE. */
+    @Mod.EventBusSubscriber(modid = "gtceuenergynethotfix", bus = Mod.EventBusSubscriber.Bus.FORGE)
+    public static final class FeSinks {
+
+        private FeSinks() {}
+
+        static final Set<BlockPos> POSITIONS = new HashSet<>();
+
+        @SubscribeEvent
+        public static void onAttachCapabilities(AttachCapabilitiesEvent<BlockEntity> event) {
+            if (!(event.getObject() instanceof BarrelBlockEntity barrel) || !POSITIONS.contains(barrel.getBlockPos())) {
+                return;
+            }
+            final LazyOptional<IEnergyStorage> storage = LazyOptional.of(() -> new EnergyStorage(FE_CAPACITY));
+            final ICapabilityProvider provider = new ICapabilityProvider() {
+                @Override
+                public <T> LazyOptional<T> getCapability(Capability<T> cap, Direction side) {
+                    return ForgeCapabilities.ENERGY.orEmpty(cap, storage);
+                }
+            };
+            event.addCapability(new ResourceLocation("gtceuenergynethotfix", "check_fe_sink"), provider);
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package your.mod.gametest;
+
+import com.gregtechceu.gtceu.api.GTValues;
+import com.gregtechceu.gtceu.api.capability.GTCapabilityHelper;
+import com.gregtechceu.gtceu.api.capability.IEnergyContainer;
+import com.gregtechceu.gtceu.api.data.tag.TagPrefix;
+import com.gregtechceu.gtceu.api.machine.MetaMachine;
+import com.gregtechceu.gtceu.common.blockentity.CableBlockEntity;
+import com.gregtechceu.gtceu.common.data.GTMachines;
+import com.gregtechceu.gtceu.common.data.GTMaterialBlocks;
+import com.gregtechceu.gtceu.common.data.GTMaterials;
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyNet;
+import com.gregtechceu.gtceu.common.pipelike.cable.LevelEnergyNet;
+import com.mojang.logging.LogUtils;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.gametest.framework.TestFunction;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.common.capabilities.ForgeCapabilities;
+import net.minecraftforge.energy.IEnergyStorage;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+import org.slf4j.Logger;
+import your.mod.config.HotfixConfig;
+import your.mod.energy.EnergyNetDebugStats;
+import your.mod.energy.FeEnergyContainerWrapper;
+import your.mod.energy.PerfProbe;
+import your.mod.energy.core.RouteSchedule;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Headless performance scenarios for the energynet hotfix (run with {@code ./gradlew runGameTestServer}).
+ *
+ * Each scenario builds a GTCEu cable net inside the empty 64x4x64 template, drives it like a generator
+ * would (direct {@code acceptEnergyFromNetwork} calls on the producer cable) while draining the sinks like
+ * working machines, and after a warmup captures {@link PerfProbe} per-tick totals for delivery, route
+ * rebuilds and the tick-end amperage apply. Mean / p99 / max ns per tick are logged and appended to
+ * {@code gametest-perf.csv} in the server directory.
+ *
+ * A scenario fails if the producer's offers were accepted in fewer than half of the measured ticks, or if a tick
+ * checked more routes or spent more probes than the per-tick probe budget allows
+ * ({@link RouteSchedule#PROBE_BUDGET_PER_TICK}, plus the active routes of one offer for route checks). Route
+ * checks and probes are read from {@link EnergyNetDebugStats}, so counters must be on for every call
+ * ({@code counterSampleInterval = 1}, the default).
+ *
+ * Every scenario is its own batch so captures never overlap.
+ */
+@GameTestHolder("gtceuenergynethotfix")
+@PrefixGameTestTemplate(false)
+public final class EnergyNetPerfTests {
+
+    private EnergyNetPerfTests() {}
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static final String TEMPLATE = "empty";
+    private static final int WARMUP_TICKS = 100;
+    private static final int MEASURE_TICKS = 400;
+    private static final int TIMEOUT_TICKS = WARMUP_TICKS + MEASURE_TICKS + 200;
+
+    private static final long VOLTAGE = GTValues.V[GTValues.EV];
+    private static final long PRODUCER_AMPS = 16;
+    private static final int Y = 1;
+
+    /**
+     * Route checks one tick may take: the probe budget plus the routes that accepted last tick (at most one per amp
+     * of the single producer offer).
+     */
+    private static final long MAX_ROUTE_CHECKS_PER_TICK = RouteSchedule.PROBE_BUDGET_PER_TICK + PRODUCER_AMPS;
+
+    /** Optional FE sink block id for the FE-heavy bank (e.g. a mod's energy cell); not registered when unset. */
+    private static final String FE_BLOCK_PROPERTY = "gtceuenergynethotfix.perf.feBlock";
+
+    @GameTest(template = TEMPLATE, batch = "perf_machine_line", timeoutTicks = TIMEOUT_TICKS)
+    public static void machineLine1000(GameTestHelper helper) {
+        final Scenario s = new Scenario("machine_line_1000", helper);
+        s.buildComb(9, 62, 1000, machineState());
+        s.run(32);
+    }
+
+    @GameTest(template = TEMPLATE, batch = "perf_lossy_trunk", timeoutTicks = TIMEOUT_TICKS)
+    public static void longLossyTrunk(GameTestHelper helper) {
+        final Scenario s = new Scenario("long_lossy_trunk", helper);
+        s.buildSerpentine(8, 62, 50, machineState());
+        s.run(VOLTAGE);
+    }
+
+    /** The FE-heavy bank is only registered when {@link #FE_BLOCK_PROPERTY} names an existing block. */
+    @GameTestGenerator
+    public static Collection<TestFunction> feHeavyBank() {
+        final String id = System.getProperty(FE_BLOCK_PROPERTY);
+        final Block feBlock = (id == null) ? null : BuiltInRegistries.BLOCK.get(new ResourceLocation(id));
+        if (feBlock == null || feBlock == Blocks.AIR) {
+            LOGGER.info("[perf] fe_bank not registered: set -D{}=<block id> to an FE storage block", FE_BLOCK_PROPERTY);
+            return List.of();
+        }
+        return List.of(new TestFunction("perf_fe_bank", "energynetperftests.feheavybank",
+                "gtceuenergynethotfix:" + TEMPLATE, TIMEOUT_TICKS, 0L, true, helper -> {
+                    final Scenario s = new Scenario("fe_bank", helper);
+                    s.buildComb(4, 62, 400, feBlock.defaultBlockState());
+                    s.run(VOLTAGE);
+                }));
+    }
+
+    @GameTest(template = TEMPLATE, batch = "perf_churn", timeoutTicks = TIMEOUT_TICKS)
+    public static void constantChurn(GameTestHelper helper) {
+        final Scenario s = new Scenario("constant_churn", helper);
+        s.buildComb(4, 62, 400, machineState());
+        s.enableChurn();
+        s.run(32);
+    }
+
+    static BlockState machineState() {
+        return GTMachines.ELECTRIC_FURNACE[GTValues.EV].getBlock().defaultBlockState();
+    }
+
+    static BlockState cableState() {
+        return GTMaterialBlocks.CABLE_BLOCKS.get(TagPrefix.cableGtHex, GTMaterials.Aluminium).get().defaultBlockState();
+    }
+
+    /** Turn a placed machine's front (no energy input on some machines) up, away from the cables around it. */
+    static void faceUp(ServerLevel level, BlockPos pos) {
+        final MetaMachine machine = MetaMachine.getMachine(level, pos);
+        if (machine != null && machine.isFacingValid(Direction.UP)) {
+            machine.setFrontFacing(Direction.UP);
+        }
+    }
+
+    /** Connect the cable at {@code pos} to every non-air neighbour. */
+    static void connect(ServerLevel level, BlockPos pos) {
+        if (!(level.getBlockEntity(pos) instanceof CableBlockEntity cable)) return;
+        for (Direction dir : Direction.values()) {
+            final BlockPos n = pos.relative(dir);
+            if (!level.getBlockState(n).isAir()) {
+                cable.setConnection(dir, true, false);
+            }
+        }
+    }
+
+    /** Drain a GTCEu or FE sink by {@code eu} (FE sinks by the FE equivalent). */
+    static void drain(ServerLevel level, BlockPos pos, long eu) {
+        final IEnergyContainer gt = GTCapabilityHelper.getEnergyContainer(level, pos, null);
+        // FE blocks come back wrapped for the energy net; the wrapper cannot be drained.
+        if (gt != null && !(gt instanceof FeEnergyContainerWrapper)) {
+            if (gt.getEnergyStored() > 0) {
+                gt.changeEnergy(-Math.min(eu, gt.getEnergyStored()));
+            }
+            return;
+        }
+        final BlockEntity be = level.getBlockEntity(pos);
+        if (be == null) return;
+        final IEnergyStorage fe = be.getCapability(ForgeCapabilities.ENERGY, null).orElse(null);
+        if (fe != null) {
+            fe.extractEnergy((int) Math.min(Integer.MAX_VALUE, eu * 4), false);
+        }
+    }
+
+    /** One scenario: layout, per-tick driver and capture. */
+    private static final class Scenario {
+
+        private final String name;
+        private final GameTestHelper helper;
+        private final ServerLevel level;
+        private final List<BlockPos> cables = new ArrayList<>();
+        private final List<BlockPos> sinks = new ArrayList<>();
+        private final List<BlockPos> churn = new ArrayList<>();
+        private BlockPos producer;
+        private boolean churnEnabled;
+        private long drainPerTick;
+        private int tick;
+
+        // Measurement window: ticks whose offer was accepted, and per-tick route checks / probes of the net.
+        private boolean measuring;
+        private int measuredTicks;
+        private int deliveredTicks;
+        private long acceptedAmps;
+        private long maxRouteChecks;
+        private long maxProbes;
+        private EnergyNetDebugStats.NetStats lastStats;
+        private long lastRouteChecks;
+        private long lastProbes;
+
+        Scenario(String name, GameTestHelper helper) {
+            this.name = name;
+            this.helper = helper;
+            this.level = helper.getLevel();
+        }
+
+        /**
+         * Spine along x=0 feeding {@code rows} cable rows along +x, with sinks on both sides of every row
+         * (up to {@code maxSinks}).
+         */
+        void buildComb(int rows, int rowLen, int maxSinks, BlockState sink) {
+            final BlockState cable = cableState();
+            final int spineEnd = 3 * (rows - 1) + 1;
+            for (int z = 1; z <= spineEnd; z++) {
+                placeCable(0, z, cable);
+            }
+            int placed = 0;
+            for (int r = 0; r < rows; r++) {
+                final int z = 3 * r + 1;
+                for (int x = 1; x <= rowLen; x++) {
+                    placeCable(x, z, cable);
+                    if (placed < maxSinks) {
+                        placeSink(x, z - 1, sink);
+                        placed++;
+                    }
+                    if (placed < maxSinks) {
+                        placeSink(x, z + 1, sink);
+                        placed++;
+                    }
+                }
+                // Stub position past the row end (initially empty): toggled by the churn driver, never splits the net.
+                churn.add(helper.absolutePos(new BlockPos(rowLen + 1, Y, z)));
+            }
+            producer = helper.absolutePos(new BlockPos(0, Y, 1));
+            connectAll();
+        }
+
+        /**
+         * One long serpentine trunk ({@code rows} rows of {@code rowLen} cables joined at alternating ends)
+         * with {@code sinkCount} sinks along the far end of the last row.
+         */
+        void buildSerpentine(int rows, int rowLen, int sinkCount, BlockState sink) {
+            final BlockState cable = cableState();
+            for (int r = 0; r < rows; r++) {
+                final int z = 2 * r;
+                for (int x = 0; x < rowLen; x++) {
+                    placeCable(x, z, cable);
+                }
+                if (r + 1 < rows) {
+                    placeCable((r % 2 == 0) ? rowLen - 1 : 0, z + 1, cable);
+                }
+            }
+            final int lastZ = 2 * (rows - 1);
+            for (int i = 0; i < sinkCount && i < rowLen; i++) {
+                // The last row runs towards x=0 when rows is even: put sinks at its far end.
+                final int x = (rows % 2 == 0) ? i : rowLen - 1 - i;
+                placeSink(x, lastZ + 1, sink);
+            }
+            producer = helper.absolutePos(new BlockPos(0, Y, 0));
+            connectAll();
+        }
+
+        /** Place / remove one row-end stub cable per tick (a topology change every tick). */
+        void enableChurn() {
+            churnEnabled = true;
+        }
+
+        private void placeCable(int x, int z, BlockState cable) {
+            final BlockPos pos = new BlockPos(x, Y, z);
+            helper.setBlock(pos, cable);
+            cables.add(helper.absolutePos(pos));
+        }
+
+        private void placeSink(int x, int z, BlockState sink) {
+            final BlockPos pos = new BlockPos(x, Y, z);
+            helper.setBlock(pos, sink);
+            final BlockPos abs = helper.absolutePos(pos);
+            faceUp(level, abs);
+            sinks.add(abs);
+        }
+
+        private void connectAll() {
+            for (BlockPos pos : cables) {
+                connect(level, pos);
+            }
+        }
+
+        /**
+         * Start driving the net: producer offers {@link #PRODUCER_AMPS} amps at EV every tick, every sink
+         * consumes {@code drainPerTick} EU per tick.
+         */
+        void run(long drainPerTick) {
+            if (!HotfixConfig.instrumentation || HotfixConfig.counterSampleInterval != 1) {
+                helper.fail("perf scenarios need stats.instrumentation = true and counterSampleInterval = 1");
+            }
+            this.drainPerTick = drainPerTick;
+            helper.onEachTick(this::tick);
+            helper.runAfterDelay(WARMUP_TICKS, () -> {
+                PerfProbe.startCapture(MEASURE_TICKS);
+                measuring = true;
+            });
+            helper.runAfterDelay(WARMUP_TICKS + MEASURE_TICKS, () -> {
+                measuring = false;
+                report(PerfProbe.stopCapture());
+                check();
+                helper.succeed();
+            });
+        }
+
+        private void check() {
+            LOGGER.info("[perf] {} delivered in {}/{} ticks ({} A), max {} route checks / {} probes per tick",
+                    name, deliveredTicks, measuredTicks, acceptedAmps, maxRouteChecks, maxProbes);
+            if (deliveredTicks * 2 < measuredTicks) {
+                helper.fail(String.format(Locale.ROOT, "%s: offers accepted in only %d of %d ticks",
+                        name, deliveredTicks, measuredTicks));
+            }
+            if (maxProbes > RouteSchedule.PROBE_BUDGET_PER_TICK) {
+                helper.fail(String.format(Locale.ROOT, "%s: %d probes in one tick (budget %d)",
+                        name, maxProbes, RouteSchedule.PROBE_BUDGET_PER_TICK));
+            }
+            if (maxRouteChecks > MAX_ROUTE_CHECKS_PER_TICK) {
+                helper.fail(String.format(Locale.ROOT, "%s: %d route checks in one tick (bound %d)",
+                        name, maxRouteChecks, MAX_ROUTE_CHECKS_PER_TICK));
+            }
+        }
+
+        private void tick() {
+            tick++;
+            if (churnEnabled && !churn.isEmpty()) {
+                final BlockPos pos = churn.get(tick % churn.size());
+                if (level.getBlockState(pos).isAir()) {
+                    level.setBlockAndUpdate(pos, cableState());
+                    connect(level, pos);
+                    connect(level, pos.relative(Direction.WEST));
+                } else {
+                    level.setBlockAndUpdate(pos, Blocks.AIR.defaultBlockState());
+                }
+            }
+
+            for (BlockPos pos : sinks) {
+                drain(level, pos, drainPerTick);
+            }
+
+            // Producer side DOWN: nothing is below the spine.
+            final IEnergyContainer handler = GTCapabilityHelper.getEnergyContainer(level, producer, Direction.DOWN);
+            final long accepted = (handler != null)
+                    ? handler.acceptEnergyFromNetwork(Direction.DOWN, VOLTAGE, PRODUCER_AMPS)
+                    : 0L;
+            sample(accepted);
+        }
+
+        /**
+         * Per-tick deltas of the producer net's counters. A topology change may replace the net: the tick it
+         * happens on only rebases the counters.
+         */
+        private void sample(long accepted) {
+            final EnergyNet net = LevelEnergyNet.getOrCreate(level).getNetFromPos(producer);
+            final EnergyNetDebugStats.NetStats stats = (net != null) ? EnergyNetDebugStats.track(net, level) : null;
+            if (measuring) {
+                measuredTicks++;
+                if (accepted > 0) {
+                    deliveredTicks++;
+                    acceptedAmps += accepted;
+                }
+                if (stats != null && stats == lastStats) {
+                    maxRouteChecks = Math.max(maxRouteChecks, stats.totalRouteChecks - lastRouteChecks);
+                    maxProbes = Math.max(maxProbes, stats.totalProbes - lastProbes);
+                }
+            }
+            lastStats = stats;
+            if (stats != null) {
+                lastRouteChecks = stats.totalRouteChecks;
+                lastProbes = stats.totalProbes;
+            }
+        }
+
+        private void report(PerfProbe.Summary[] summaries) {
+            final StringBuilder csv = new StringBuilder();
+            for (PerfProbe.Summary s : summaries) {
+                LOGGER.info("[perf] {} {}", name, s);
+                csv.append(String.format(Locale.ROOT, "%s,%s,%d,%.0f,%d,%d%n",
+                        name, s.section, s.ticks, s.meanNanos, s.p99Nanos, s.maxNanos));
+            }
+            final Path file = level.getServer().getServerDirectory().toPath().resolve("gametest-perf.csv");
+            try {
+                final boolean header = !Files.exists(file);
+                try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    if (header) w.write("scenario,section,ticks,mean_ns,p99_ns,max_ns\n");
+                    w.write(csv.toString());
+                }
+            } catch (IOException e) {
+                LOGGER.warn("[perf] could not write {}", file, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package your.mod.energy;
+
+import com.gregtechceu.gtceu.api.capability.IEnergyContainer;
+import net.minecraft.core.Direction;
+
+/**
+ * Stand-in GTCEu sink for headless benchmarks: a plain EU buffer with per-tick input amperage,
+ * mirroring NotifiableEnergyContainer's acceptance rules without a machine or level behind it.
+ */
+final class BenchEnergyContainer implements IEnergyContainer {
+
+    private final long capacity;
+    private final long inputVoltage;
+    private final long inputAmperage;
+    private final long usagePerTick;
+
+    private long stored;
+    private long ampsThisTick;
+
+    BenchEnergyContainer(long capacity, long stored, long inputVoltage, long inputAmperage, long usagePerTick) {
+        this.capacity = capacity;
+        this.stored = stored;
+        this.inputVoltage = inputVoltage;
+        this.inputAmperage = inputAmperage;
+        this.usagePerTick = usagePerTick;
+    }
+
+    /** Simulate the machine tick: consume energy and reset the per-tick amperage counter. */
+    void tick() {
+        ampsThisTick = 0;
+        if (usagePerTick > 0) {
+            stored = Math.max(0, stored - usagePerTick);
+        }
+    }
+
+    @Override
+    public long acceptEnergyFromNetwork(Direction side, long voltage, long amperage) {
+        if (voltage <= 0 || amperage <= 0) return 0;
+        final long canAccept = capacity - stored;
+        final long ampsLeft = inputAmperage - ampsThisTick;
+        if (canAccept < voltage || ampsLeft <= 0) return 0;
+        final long amps = Math.min(Math.min(amperage, ampsLeft), canAccept / voltage);
+        stored += amps * voltage;
+        ampsThisTick += amps;
+        return amps;
+    }
+
+    @Override
+    public boolean inputsEnergy(Direction side) {
+        return true;
+    }
+
+    @Override
+    public boolean outputsEnergy(Direction side) {
+        return false;
+    }
+
+    @Override
+    public long changeEnergy(long differenceAmount) {
+        final long before = stored;
+        stored = Math.max(0, Math.min(capacity, stored + differenceAmount));
+        return stored - before;
+    }
+
+    @Override
+    public long getEnergyCanBeInserted() {
+        return capacity - stored;
+    }
+
+    @Override
+    public long getEnergyStored() {
+        return stored;
+    }
+
+    @Override
+    public long getEnergyCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public long getInputAmperage() {
+        return inputAmperage;
+    }
+
+    @Override
+    public long getInputVoltage() {
+        return inputVoltage;
+    }
+}
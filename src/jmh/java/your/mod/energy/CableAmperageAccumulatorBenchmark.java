@@ -0,0 +1,46 @@
+package your.mod.energy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CableAmperageAccumulator#record} over the segments of every route of a synthetic net
+ * (one op = one route's segments). The level key is null: the accumulator never dereferences it
+ * outside the tick-end apply, which needs a live server and is not measured here.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CableAmperageAccumulatorBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int endpoints;
+
+    private SyntheticNet net;
+    private int next;
+
+    @Setup
+    public void setup() {
+        net = new SyntheticNet(endpoints, 0.0, true, 3L);
+    }
+
+    @Benchmark
+    public int recordRoute() {
+        final SyntheticNet.Route route = net.routes.get(next);
+        next = (next + 1) % net.routes.size();
+        long voltage = SyntheticNet.VOLTAGE;
+        for (int j = 0; j < route.segPosLong.length; j++) {
+            voltage -= route.segLoss[j];
+            CableAmperageAccumulator.record(null, route.segPosLong[j], 1, voltage);
+        }
+        return route.segPosLong.length;
+    }
+}
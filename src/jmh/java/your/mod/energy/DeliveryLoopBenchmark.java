@@ -0,0 +1,187 @@
+package your.mod.energy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import your.mod.energy.core.CableEffects;
+import your.mod.energy.core.DeliveryEngine;
+import your.mod.energy.core.RouteSchedule;
+import your.mod.energy.core.RouteSource;
+import your.mod.energy.core.SinkAccess;
+import your.mod.energy.core.SinkBudget;
+import your.mod.energy.core.UniformRoutes;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full producer-call delivery through the real {@link DeliveryEngine} (active pass + budgeted probe pass)
+ * over a synthetic net, with {@link SinkState} budgets and {@link CableAmperageAccumulator} recording.
+ *
+ * One op = one producer call; each invocation runs one server tick of 64 calls spread over
+ * {@code producers} distinct producer pipes (offer keys).
+ * Run with the gc profiler: gc.alloc.rate.norm is the bytes allocated per producer call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DeliveryLoopBenchmark implements RouteSource, SinkAccess, CableEffects {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int endpoints;
+
+    @Param({"1", "8", "64"})
+    public int producers;
+
+    @Param({"0.0", "0.5", "1.0"})
+    public double fullFraction;
+
+    @Param({"false", "true"})
+    public boolean lossy;
+
+    private SyntheticNet net;
+    private long uniformVoltage;
+    private RouteSchedule schedule;
+    private SinkState[] sinkStates;
+    private long tick;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        net = new SyntheticNet(endpoints, fullFraction, lossy, 42L);
+        // Lossless synthetic nets use one cable type throughout, so they take the uniform fast path.
+        uniformVoltage = UniformRoutes.classify(this);
+        schedule = new RouteSchedule(0L);
+        sinkStates = new SinkState[endpoints];
+        for (int i = 0; i < endpoints; i++) {
+            sinkStates[i] = new SinkState();
+        }
+        tick = 0L;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(64)
+    public long tick() {
+        tick++;
+        net.tickSinks();
+        schedule.beginTick(tick);
+        long accepted = 0;
+        // Always 64 calls per invocation so ops are comparable; producers share the offer keys round-robin.
+        for (int call = 0; call < 64; call++) {
+            final long offerKey = call % producers;
+            accepted += DeliveryEngine.deliver(schedule, this, this, this, offerKey, SyntheticNet.VOLTAGE, 4);
+        }
+        return accepted;
+    }
+
+    // RouteSource
+
+    @Override
+    public int size() {
+        return net.routes.size();
+    }
+
+    @Override
+    public Object identity() {
+        return net.routes;
+    }
+
+    @Override
+    public long maxLoss(int route) {
+        return net.routes.get(route).maxLoss;
+    }
+
+    @Override
+    public boolean isSelf(int route) {
+        return false;
+    }
+
+    @Override
+    public long[] segmentPos(int route) {
+        return net.routes.get(route).segPosLong;
+    }
+
+    @Override
+    public long[] segmentMaxVoltage(int route) {
+        return net.routes.get(route).segMaxVoltage;
+    }
+
+    @Override
+    public int[] segmentLoss(int route) {
+        return net.routes.get(route).segLoss;
+    }
+
+    @Override
+    public boolean isStale() {
+        return false;
+    }
+
+    @Override
+    public boolean isSegmentRemoved(int route, int segment) {
+        return false;
+    }
+
+    @Override
+    public long uniformVoltage() {
+        return uniformVoltage;
+    }
+
+    @Override
+    public boolean isParked(int route) {
+        return false;
+    }
+
+    @Override
+    public boolean hasMoreRoutes() {
+        return false;
+    }
+
+    @Override
+    public int expandRoutes() {
+        return net.routes.size();
+    }
+
+    // SinkAccess (mirrors SinkCache#getOrCompute without the handler lookup)
+
+    @Override
+    public SinkBudget sink(int route) {
+        final SinkState sink = sinkStates[route];
+        if (sink.tick != tick || !sink.cacheable) {
+            final BenchEnergyContainer handler = net.sinks[route];
+            SinkState.computeFrom(sink, handler, true, handler.getInputAmperage(), handler.getInputVoltage(), false);
+            sink.tick = tick;
+        }
+        return sink;
+    }
+
+    @Override
+    public long accept(int route, SinkBudget sink, long voltage, long amperage) {
+        return ((SinkState) sink).handler.acceptEnergyFromNetwork(null, voltage, amperage);
+    }
+
+    // CableEffects
+
+    @Override
+    public boolean overVoltage(int route, int segment, long segmentPos, long segmentMaxVoltage, long voltage) {
+        return false;
+    }
+
+    @Override
+    public void amperage(long segmentPos, long amperage, long voltage) {
+        CableAmperageAccumulator.record(null, segmentPos, amperage, voltage);
+    }
+
+    @Override
+    public void routeAmperage(int route, long amperage, long voltage) {
+        CableAmperageAccumulator.recordRoute(null, net.routes.get(route).segPosLong, amperage, voltage);
+    }
+
+    @Override
+    public void routeChecked(int route) {
+    }
+}
@@ -0,0 +1,74 @@
+package your.mod.energy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import your.mod.config.HotfixConfig;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SinkCache} per-tick bookkeeping: tick rollover, route preparation, visit/exhaust tracking,
+ * the active-route ring and sink state slot lookups.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SinkCacheBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int endpoints;
+
+    /** Fraction of routes that accept energy (stay in the active ring) each tick. */
+    @Param({"0.0", "0.1", "1.0"})
+    public double activeFraction;
+
+    private SyntheticNet net;
+    private SinkCache cache;
+    private long tick;
+    private int activeEvery;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        HotfixConfig.sleepAfterTicks = 0;
+        net = new SyntheticNet(endpoints, 0.0, false, 7L);
+        cache = new SinkCache(null, 0L);
+        activeEvery = activeFraction <= 0 ? Integer.MAX_VALUE : (int) Math.max(1, Math.round(1.0 / activeFraction));
+    }
+
+    /** One tick of bookkeeping over every route. */
+    @Benchmark
+    public int tickBookkeeping() {
+        cache.beginTick(++tick);
+        cache.prepareRoutes(net.routes);
+        final int n = net.routes.size();
+        int visited = 0;
+        for (int i = 0; i < n; i++) {
+            final int idx = cache.nextProbeIndex(n);
+            if (!cache.visitRoute(idx)) continue;
+            visited++;
+            if (idx % activeEvery == 0) {
+                cache.markRouteActiveThisTick(idx);
+            } else {
+                cache.exhaustRoute(idx);
+            }
+        }
+        return visited + cache.getActiveRoutesReadSize();
+    }
+
+    /** Sink state slot lookups (one per route), as done by getOrCompute. */
+    @Benchmark
+    public long slotLookups() {
+        long sum = 0;
+        for (SyntheticNet.Route route : net.routes) {
+            sum += cache.slot(route.sinkKey).remainingInputAmps;
+        }
+        return sum;
+    }
+}
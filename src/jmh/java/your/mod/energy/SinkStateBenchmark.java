@@ -0,0 +1,51 @@
+package your.mod.energy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SinkState#computeSendableAmps(long)} and the recompute-in-place path across fill levels.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SinkStateBenchmark {
+
+    /** 0 = empty buffer, 1 = full buffer (forces the over-voltage / zero-storage branches). */
+    @Param({"0.0", "0.5", "0.99", "1.0"})
+    public double fill;
+
+    private static final long[] VOLTAGES = {32, 128, 512, 2048, 8192};
+
+    private BenchEnergyContainer handler;
+    private SinkState state;
+    private int v;
+
+    @Setup
+    public void setup() {
+        final long capacity = 512L * 64;
+        handler = new BenchEnergyContainer(capacity, (long) (capacity * fill), 512, 2, 0);
+        state = new SinkState();
+        SinkState.computeFrom(state, handler, true, 2, 512, false);
+    }
+
+    @Benchmark
+    public long computeSendableAmps() {
+        v = (v + 1) % VOLTAGES.length;
+        return state.computeSendableAmps(VOLTAGES[v]);
+    }
+
+    @Benchmark
+    public long recompute() {
+        SinkState.computeFrom(state, handler, true, 2, 512, false);
+        return state.remainingEuSpace;
+    }
+}
@@ -0,0 +1,74 @@
+package your.mod.energy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic energy net for headless benchmarks: one route per endpoint, routes branching off a shared trunk
+ * of cables (so amperage recording hits overlapping cable keys like a real net).
+ */
+final class SyntheticNet {
+
+    /** Route data in the same shape as {@link IRouteSegmentData} provides on real routes. */
+    static final class Route {
+        final long[] segPosLong;
+        final long[] segMaxVoltage;
+        final int[] segLoss;
+        final long maxLoss;
+        final long sinkKey;
+
+        Route(long[] segPosLong, long[] segMaxVoltage, int[] segLoss, long maxLoss, long sinkKey) {
+            this.segPosLong = segPosLong;
+            this.segMaxVoltage = segMaxVoltage;
+            this.segLoss = segLoss;
+            this.maxLoss = maxLoss;
+            this.sinkKey = sinkKey;
+        }
+    }
+
+    static final long VOLTAGE = 512; // HV
+    static final long CABLE_VOLTAGE = 2048; // EV cable: no overvoltage in the steady state
+
+    final List<Route> routes;
+    final BenchEnergyContainer[] sinks;
+
+    /**
+     * @param endpoints number of endpoints (= routes)
+     * @param fullFraction fraction of sinks that start full and never consume (0 = all hungry, 1 = saturated net)
+     * @param lossy whether cables lose 1 EU per block
+     */
+    SyntheticNet(int endpoints, double fullFraction, boolean lossy, long seed) {
+        final Random rnd = new Random(seed);
+        this.routes = new ArrayList<>(endpoints);
+        this.sinks = new BenchEnergyContainer[endpoints];
+
+        final int trunk = Math.max(4, (int) Math.sqrt(endpoints) * 2);
+        for (int i = 0; i < endpoints; i++) {
+            final int trunkLen = 1 + rnd.nextInt(trunk);
+            final int n = trunkLen + 1; // trunk prefix + one branch cable
+            final long[] pos = new long[n];
+            final long[] maxV = new long[n];
+            final int[] loss = new int[n];
+            long maxLoss = 0;
+            for (int j = 0; j < n; j++) {
+                pos[j] = (j < trunkLen) ? j : (1_000_000L + i);
+                maxV[j] = CABLE_VOLTAGE;
+                loss[j] = lossy ? 1 : 0;
+                maxLoss += loss[j];
+            }
+            routes.add(new Route(pos, maxV, loss, maxLoss, ((long) i << 3) | 2L));
+
+            final boolean full = rnd.nextDouble() < fullFraction;
+            final long capacity = VOLTAGE * 64;
+            sinks[i] = new BenchEnergyContainer(capacity, full ? capacity : 0, VOLTAGE, 2, full ? 0 : VOLTAGE);
+        }
+    }
+
+    /** Simulate one server tick of machine consumption. */
+    void tickSinks() {
+        for (BenchEnergyContainer sink : sinks) {
+            sink.tick();
+        }
+    }
+}
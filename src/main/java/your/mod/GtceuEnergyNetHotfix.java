@@ -1,6 +1,12 @@
 package your.mod;
 
 import net.minecraftforge.fml.common.Mod;
+import your.mod.config.HotfixConfig;
 
 @Mod("gtceuenergynethotfix")
-public final class GtceuEnergyNetHotfix {}
+public final class GtceuEnergyNetHotfix {
+
+    public GtceuEnergyNetHotfix() {
+        HotfixConfig.register();
+    }
+}
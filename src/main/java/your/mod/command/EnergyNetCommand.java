@@ -2,14 +2,32 @@ package your.mod.command;
 
 import com.gregtechceu.gtceu.common.pipelike.cable.EnergyNet;
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
 import net.minecraft.ChatFormatting;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
+import net.minecraft.core.BlockPos;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.ClickEvent;
+import net.minecraft.network.chat.HoverEvent;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.Level;
+import your.mod.config.HotfixConfig;
+import your.mod.energy.AllocationSampler;
+import your.mod.energy.DeliveryModes;
 import your.mod.energy.EnergyNetDebugStats;
+import your.mod.energy.LatencyHistogram;
+import your.mod.energy.NetProfiler;
+import your.mod.energy.NetSize;
+import your.mod.energy.TraceRecorder;
+import your.mod.energy.core.RouteSchedule;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 public final class EnergyNetCommand {
@@ -23,10 +41,56 @@ public final class EnergyNetCommand {
                         .executes(ctx -> execute(ctx.getSource(), false))
                         .then(Commands.literal("all")
                                 .executes(ctx -> execute(ctx.getSource(), true)))
+                        .then(Commands.literal("timings")
+                                .executes(ctx -> executeTimings(ctx.getSource()))
+                                .then(Commands.literal("reset")
+                                        .executes(ctx -> resetTimings(ctx.getSource()))))
+                        .then(Commands.literal("mode")
+                                .executes(ctx -> showModes(ctx.getSource()))
+                                .then(Commands.literal("reset")
+                                        .executes(ctx -> resetModes(ctx.getSource())))
+                                .then(Commands.argument("net", StringArgumentType.word())
+                                        .then(Commands.literal("hotfix")
+                                                .executes(ctx -> setMode(ctx.getSource(),
+                                                        StringArgumentType.getString(ctx, "net"), DeliveryModes.Mode.HOTFIX)))
+                                        .then(Commands.literal("vanilla")
+                                                .executes(ctx -> setMode(ctx.getSource(),
+                                                        StringArgumentType.getString(ctx, "net"), DeliveryModes.Mode.VANILLA)))
+                                        .then(Commands.literal("shadow")
+                                                .executes(ctx -> setMode(ctx.getSource(),
+                                                        StringArgumentType.getString(ctx, "net"), DeliveryModes.Mode.SHADOW)))))
+                        .then(Commands.literal("stats")
+                                .executes(ctx -> showStats(ctx.getSource()))
+                                .then(Commands.literal("on")
+                                        .executes(ctx -> setInstrumentation(ctx.getSource(), true)))
+                                .then(Commands.literal("off")
+                                        .executes(ctx -> setInstrumentation(ctx.getSource(), false)))
+                                .then(Commands.argument("interval", IntegerArgumentType.integer(0, 1_000_000))
+                                        .executes(ctx -> setStats(ctx.getSource(),
+                                                IntegerArgumentType.getInteger(ctx, "interval")))))
+                        .then(Commands.literal("starvation")
+                                .executes(ctx -> executeStarvation(ctx.getSource())))
+                        .then(Commands.literal("alloc")
+                                .executes(ctx -> executeAlloc(ctx.getSource())))
+                        .then(Commands.literal("profile")
+                                .then(Commands.literal("stop")
+                                        .executes(ctx -> stopProfile(ctx.getSource())))
+                                .then(Commands.argument("seconds", IntegerArgumentType.integer(1, 600))
+                                        .executes(ctx -> startProfile(ctx.getSource(),
+                                                IntegerArgumentType.getInteger(ctx, "seconds")))))
+                        .then(Commands.literal("trace")
+                                .then(Commands.literal("stop")
+                                        .executes(ctx -> stopTrace(ctx.getSource())))
+                                .then(Commands.argument("ticks", IntegerArgumentType.integer(1, 72000))
+                                        .then(Commands.argument("nets", StringArgumentType.greedyString())
+                                                .executes(ctx -> startTrace(ctx.getSource(),
+                                                        IntegerArgumentType.getInteger(ctx, "ticks"),
+                                                        StringArgumentType.getString(ctx, "nets"))))))
         );
     }
 
     private static int execute(CommandSourceStack src, boolean all) {
+        EnergyNetDebugStats.pruneEmptyNets();
         int tracked = EnergyNetDebugStats.trackedNetCount();
         src.sendSuccess(() -> Component.literal("Tracked energynets: " + tracked), false);
 
@@ -44,17 +108,19 @@ public final class EnergyNetCommand {
         for (Map.Entry<EnergyNet, EnergyNetDebugStats.NetStats> e : top) {
             i++;
             EnergyNetDebugStats.NetStats s = e.getValue();
-            String dim = (s.lastDim == null) ? "?" : s.lastDim.location().toString();
+            EnergyNetDebugStats.identify(e.getKey(), s);
+            NetSize size = NetSize.measure(e.getKey());
 
             String line =
                     "#" + i +
-                    " dim=" + dim +
+                    " " + where(s) +
                     " accept=" + s.curAcceptCalls + "/" + fmt(s.avgAcceptCalls) +
                     " routes=" + s.curRouteChecks + "/" + fmt(s.avgRouteChecks) +
                     " sinks=" + s.curSinkComputes + "/" + fmt(s.avgSinkComputes) +
-                    " rebuilds=" + s.curNetRebuilds + "/" + fmt(s.avgNetRebuilds);
+                    " rebuilds=" + s.curNetRebuilds + "/" + fmt(s.avgNetRebuilds) +
+                    " | " + size(size);
 
-            src.sendSuccess(() -> Component.literal(line).withStyle(ChatFormatting.GRAY), false);
+            src.sendSuccess(() -> netLine(line, s), false);
             clip.append(line).append("\n");
         }
         String clipText = clip.toString();
@@ -68,6 +134,368 @@ public final class EnergyNetCommand {
         return 1;
     }
 
+    private static int executeTimings(CommandSourceStack src) {
+        if (HotfixConfig.timingSampleInterval <= 0) {
+            src.sendSuccess(() -> Component.literal("Energynet timings are off (stats.timingSampleInterval = 0)."), false);
+            return 1;
+        }
+
+        final MinecraftServer server = src.getServer();
+        final double msptNanos = server.getAverageTickTime() * 1_000_000.0;
+        final List<Map.Entry<EnergyNet, EnergyNetDebugStats.NetStats>> top = EnergyNetDebugStats.topByTime(10);
+        if (top.isEmpty()) {
+            src.sendSuccess(() -> Component.literal("No energynet timings yet (wait a few ticks with active networks)."), false);
+            return 1;
+        }
+
+        src.sendSuccess(() -> Component.literal("Top 10 nets by delivery time since reset (1 in "
+                + HotfixConfig.timingSampleInterval + " calls sampled), MSPT " + fmt(msptNanos / 1_000_000.0) + " ms:"), false);
+
+        StringBuilder clip = new StringBuilder();
+        int i = 0;
+        for (Map.Entry<EnergyNet, EnergyNetDebugStats.NetStats> e : top) {
+            i++;
+            EnergyNetDebugStats.NetStats s = e.getValue();
+            EnergyNetDebugStats.identify(e.getKey(), s);
+            Level level = e.getKey().getLevel();
+            long ticks = (level == null) ? 1L : Math.max(1L, level.getGameTime() - s.timingSinceTick);
+            double nanosPerTick = (double) s.estimatedNanos / ticks;
+
+            String line =
+                    "#" + i +
+                    " " + where(s) +
+                    " deliver " + histogram(s.deliveryNanos) +
+                    " rebuild " + histogram(s.rebuildNanos) +
+                    " ~" + nanos(nanosPerTick) + "/tick" +
+                    " (" + share(nanosPerTick, msptNanos) + " of MSPT)";
+
+            src.sendSuccess(() -> netLine(line, s), false);
+            clip.append(line).append("\n");
+        }
+
+        LatencyHistogram tickEnd = EnergyNetDebugStats.tickEndTimings();
+        if (tickEnd.count() > 0) {
+            long ticks = Math.max(tickEnd.count(), server.getTickCount() - EnergyNetDebugStats.tickEndSinceTick());
+            double nanosPerTick = (double) tickEnd.sumNanos() / ticks;
+            String line = "tick-end apply (all nets) " + histogram(tickEnd)
+                    + " ~" + nanos(nanosPerTick) + "/tick (" + share(nanosPerTick, msptNanos) + " of MSPT)";
+            src.sendSuccess(() -> Component.literal(line).withStyle(ChatFormatting.GRAY), false);
+            clip.append(line).append("\n");
+        }
+
+        String clipText = clip.toString();
+        Component copy = Component.literal("[Click to copy energynet timings]")
+                .withStyle(style -> style.withColor(ChatFormatting.AQUA)
+                        .withClickEvent(new ClickEvent(ClickEvent.Action.COPY_TO_CLIPBOARD, clipText))
+                        .withUnderlined(true));
+        src.sendSuccess(() -> copy, false);
+        return 1;
+    }
+
+    private static int executeStarvation(CommandSourceStack src) {
+        final List<Map.Entry<EnergyNet, EnergyNetDebugStats.NetStats>> top = EnergyNetDebugStats.topByStarvation(10);
+        src.sendSuccess(() -> Component.literal("Top 10 nets by ticks with unmet demand behind the probe budget ("
+                + RouteSchedule.PROBE_BUDGET_PER_TICK + " probes/tick), since timings reset:"), false);
+
+        StringBuilder clip = new StringBuilder();
+        int i = 0;
+        for (Map.Entry<EnergyNet, EnergyNetDebugStats.NetStats> e : top) {
+            EnergyNetDebugStats.NetStats s = e.getValue();
+            LatencyHistogram gaps = s.fedGapTicks;
+            if (s.budgetStarvedTicks == 0 && gaps.count() == 0) continue;
+            i++;
+            EnergyNetDebugStats.identify(e.getKey(), s);
+            long feeds = s.fedContinuous + gaps.count();
+
+            String line =
+                    "#" + i +
+                    " " + where(s) +
+                    " starved=" + s.budgetStarvedTicks + "/" + s.activeTicks + " ticks" +
+                    " unmet=" + s.unmetAmps + "A" +
+                    " refeeds after gap=" + gaps.count() + "/" + feeds +
+                    (gaps.count() == 0 ? "" : " gap p50=" + gaps.percentile(0.50) + "t p99=" + gaps.percentile(0.99)
+                            + "t max=" + gaps.maxNanos() + "t");
+
+            src.sendSuccess(() -> netLine(line, s), false);
+            clip.append(line).append("\n");
+        }
+        if (clip.length() == 0) {
+            src.sendSuccess(() -> Component.literal("No unmet demand or feed gaps recorded."), false);
+            return 1;
+        }
+
+        String clipText = clip.toString();
+        Component copy = Component.literal("[Click to copy energynet starvation]")
+                .withStyle(style -> style.withColor(ChatFormatting.AQUA)
+                        .withClickEvent(new ClickEvent(ClickEvent.Action.COPY_TO_CLIPBOARD, clipText))
+                        .withUnderlined(true));
+        src.sendSuccess(() -> copy, false);
+        return 1;
+    }
+
+    private static int executeAlloc(CommandSourceStack src) {
+        if (!AllocationSampler.isSupported()) {
+            src.sendSuccess(() -> Component.literal("Allocation sampling is not supported by this JVM."), false);
+            return 1;
+        }
+        if (HotfixConfig.allocationSampleInterval <= 0) {
+            src.sendSuccess(() -> Component.literal("Energynet allocation sampling is off (stats.allocationSampleInterval = 0)."), false);
+            return 1;
+        }
+
+        final List<Map.Entry<EnergyNet, EnergyNetDebugStats.NetStats>> top = EnergyNetDebugStats.topByAllocation(10);
+        src.sendSuccess(() -> Component.literal("Top 10 nets by allocated bytes since timings reset (1 in "
+                + HotfixConfig.allocationSampleInterval + " delivery calls sampled):"), false);
+
+        StringBuilder clip = new StringBuilder();
+        int i = 0;
+        for (Map.Entry<EnergyNet, EnergyNetDebugStats.NetStats> e : top) {
+            EnergyNetDebugStats.NetStats s = e.getValue();
+            if (s.deliveryAllocSamples == 0 && s.rebuildAllocSamples == 0) continue;
+            i++;
+            EnergyNetDebugStats.identify(e.getKey(), s);
+            Level level = e.getKey().getLevel();
+            long ticks = (level == null) ? 1L : Math.max(1L, level.getGameTime() - s.timingSinceTick);
+
+            String line =
+                    "#" + i +
+                    " " + where(s) +
+                    " deliver " + perCall(s.deliveryAllocBytes, s.deliveryAllocSamples) +
+                    " rebuild " + perCall(s.rebuildAllocBytes, s.rebuildAllocSamples) +
+                    " ~" + bytes((s.estimatedDeliveryAllocBytes + s.rebuildAllocBytes) / ticks) + "/tick";
+
+            src.sendSuccess(() -> netLine(line, s), false);
+            clip.append(line).append("\n");
+        }
+
+        if (AllocationSampler.tickEndTicks() > 0) {
+            String line = "tick-end apply (all nets) ~"
+                    + bytes(AllocationSampler.tickEndBytes() / AllocationSampler.tickEndTicks()) + "/tick";
+            src.sendSuccess(() -> Component.literal(line).withStyle(ChatFormatting.GRAY), false);
+            clip.append(line).append("\n");
+        }
+        if (clip.length() == 0) {
+            src.sendSuccess(() -> Component.literal("No allocation samples yet (wait a few ticks with active networks)."), false);
+            return 1;
+        }
+
+        String clipText = clip.toString();
+        Component copy = Component.literal("[Click to copy energynet allocation]")
+                .withStyle(style -> style.withColor(ChatFormatting.AQUA)
+                        .withClickEvent(new ClickEvent(ClickEvent.Action.COPY_TO_CLIPBOARD, clipText))
+                        .withUnderlined(true));
+        src.sendSuccess(() -> copy, false);
+        return 1;
+    }
+
+    private static String perCall(long bytes, long samples) {
+        if (samples == 0) return "-";
+        return bytes(bytes / samples) + "/call n=" + samples;
+    }
+
+    private static int showModes(CommandSourceStack src) {
+        final List<Map.Entry<String, DeliveryModes.Mode>> overrides = DeliveryModes.overrides();
+        if (overrides.isEmpty()) {
+            src.sendSuccess(() -> Component.literal("All energynets use the hotfix delivery path "
+                    + "(/energynet mode <net> vanilla|shadow|hotfix)."), false);
+            return 1;
+        }
+        src.sendSuccess(() -> Component.literal("Energynet delivery overrides:"), false);
+        for (Map.Entry<String, DeliveryModes.Mode> e : overrides) {
+            final StringBuilder line = new StringBuilder("net=").append(e.getKey()).append(' ')
+                    .append(e.getValue().name().toLowerCase(Locale.ROOT));
+            final DeliveryModes.ShadowStats shadow = DeliveryModes.shadowStats(e.getKey());
+            if (shadow != null) {
+                if (shadow.calls == 0) {
+                    line.append(" (no sampled calls yet)");
+                } else {
+                    line.append(String.format(Locale.ROOT,
+                            " calls=%d hotfix=%.1fus/call vanilla~%.1fus/call amps hotfix=%d vanilla=%d divergent=%d",
+                            shadow.calls, shadow.hotfixNanos / 1000.0 / shadow.calls,
+                            shadow.vanillaNanos / 1000.0 / shadow.calls, shadow.hotfixAmps, shadow.vanillaAmps,
+                            shadow.divergentCalls));
+                }
+            }
+            final String text = line.toString();
+            src.sendSuccess(() -> Component.literal(text).withStyle(ChatFormatting.GRAY), false);
+        }
+        return 1;
+    }
+
+    private static int setMode(CommandSourceStack src, String netId, DeliveryModes.Mode mode) {
+        DeliveryModes.set(netId, mode);
+        src.sendSuccess(() -> Component.literal("Energynet net=" + netId + " now uses "
+                + mode.name().toLowerCase(Locale.ROOT) + " delivery (until the server stops; the net id follows "
+                + "its lowest pipe, and the override moves with it when cables are added, removed or split off)."),
+                true);
+        return 1;
+    }
+
+    private static int resetModes(CommandSourceStack src) {
+        DeliveryModes.clear();
+        src.sendSuccess(() -> Component.literal("All energynets use the hotfix delivery path."), true);
+        return 1;
+    }
+
+    private static int showStats(CommandSourceStack src) {
+        if (!HotfixConfig.instrumentation) {
+            src.sendSuccess(() -> Component.literal("Energynet instrumentation: off (/energynet stats on)."), false);
+            return 1;
+        }
+        src.sendSuccess(() -> Component.literal("Energynet counters: " + counterMode(HotfixConfig.counterSampleInterval)
+                + " (/energynet stats <N>: 1 = every call, N = 1 in N, 0 = off; /energynet stats off: no"
+                + " instrumentation at all)."), false);
+        return 1;
+    }
+
+    private static int setInstrumentation(CommandSourceStack src, boolean enabled) {
+        HotfixConfig.setInstrumentation(enabled);
+        src.sendSuccess(() -> Component.literal("Energynet instrumentation: " + (enabled ? "on" : "off") + "."), true);
+        return 1;
+    }
+
+    private static int setStats(CommandSourceStack src, int interval) {
+        HotfixConfig.setCounterSampleInterval(interval);
+        src.sendSuccess(() -> Component.literal("Energynet counters: " + counterMode(interval) + "."), true);
+        return 1;
+    }
+
+    private static String counterMode(int interval) {
+        if (interval <= 0) return "off";
+        return interval == 1 ? "every call" : "1 in " + interval + " calls";
+    }
+
+    private static int resetTimings(CommandSourceStack src) {
+        EnergyNetDebugStats.resetTimings(src.getLevel().getGameTime());
+        src.sendSuccess(() -> Component.literal("Energynet timings reset."), false);
+        return 1;
+    }
+
+    private static int startProfile(CommandSourceStack src, int seconds) {
+        if (!HotfixConfig.instrumentation) {
+            src.sendFailure(Component.literal("Energynet instrumentation is off (/energynet stats on)."));
+            return 0;
+        }
+        final boolean started = NetProfiler.start(src.getServer(), seconds, result -> {
+            src.sendSuccess(() -> Component.literal("Energynet profile done: " + result.ticks + " ticks, "
+                    + result.rows + " samples" + (result.truncated ? " (truncated)" : "") + "."), true);
+            StringBuilder clip = new StringBuilder();
+            for (String line : result.topNets) {
+                src.sendSuccess(() -> Component.literal(line).withStyle(ChatFormatting.GRAY), false);
+                clip.append(line).append("\n");
+            }
+            clip.append(result.csv).append("\n").append(result.json).append("\n");
+            String clipText = clip.toString();
+            Component copy = Component.literal("[" + result.csv.getFileName() + " / .json - click to copy summary]")
+                    .withStyle(style -> style.withColor(ChatFormatting.AQUA)
+                            .withClickEvent(new ClickEvent(ClickEvent.Action.COPY_TO_CLIPBOARD, clipText))
+                            .withUnderlined(true));
+            src.sendSuccess(() -> copy, false);
+        });
+        if (!started) {
+            src.sendFailure(Component.literal("An energynet profile is already running (/energynet profile stop)."));
+            return 0;
+        }
+        src.sendSuccess(() -> Component.literal("Profiling energynets for " + seconds + "s (every delivery call timed)..."), true);
+        return 1;
+    }
+
+    private static int stopProfile(CommandSourceStack src) {
+        if (!NetProfiler.stop()) {
+            src.sendFailure(Component.literal("No energynet profile is running."));
+            return 0;
+        }
+        return 1;
+    }
+
+    private static int startTrace(CommandSourceStack src, int ticks, String nets) {
+        final List<String> ids = new ArrayList<>();
+        for (String id : nets.split("[\\s,]+")) {
+            if (!id.isEmpty()) ids.add(id);
+        }
+        final Path file = TraceRecorder.start(src.getServer(), ticks, ids);
+        if (file == null) {
+            src.sendFailure(Component.literal(TraceRecorder.isActive()
+                    ? "An energynet trace is already running (/energynet trace stop)."
+                    : "Could not create the trace file (see log)."));
+            return 0;
+        }
+        src.sendSuccess(() -> Component.literal("Tracing " + String.join(", ", ids) + " for " + ticks
+                + " ticks to " + file.getFileName() + "..."), true);
+        return 1;
+    }
+
+    private static int stopTrace(CommandSourceStack src) {
+        final long calls = TraceRecorder.recordedCalls();
+        final Path file = TraceRecorder.stop();
+        if (file == null) {
+            src.sendFailure(Component.literal("No energynet trace is running."));
+            return 0;
+        }
+        final String clipText = file.toString();
+        Component copy = Component.literal("Energynet trace stopped: " + calls + " calls [" + file.getFileName()
+                        + " - click to copy path]")
+                .withStyle(style -> style.withColor(ChatFormatting.AQUA)
+                        .withClickEvent(new ClickEvent(ClickEvent.Action.COPY_TO_CLIPBOARD, clipText))
+                        .withUnderlined(true));
+        src.sendSuccess(() -> copy, true);
+        return 1;
+    }
+
+    /** "net=<id> dim=<dim> @x,y,z" for a net line. */
+    private static String where(EnergyNetDebugStats.NetStats s) {
+        String dim = (s.lastDim == null) ? "?" : s.lastDim.location().toString();
+        BlockPos a = s.anchor;
+        return "net=" + s.id + " dim=" + dim + (a == null ? "" : " @" + a.getX() + "," + a.getY() + "," + a.getZ());
+    }
+
+    private static String size(NetSize size) {
+        return "nodes=" + size.nodes +
+                " lists=" + size.routeLists +
+                " routes=" + size.routes +
+                " endpoints=" + size.endpoints +
+                (size.regions > 0 ? " regions=" + size.regions : "") +
+                " ~" + bytes(size.estimatedBytes);
+    }
+
+    /** Gray net line with a click-to-teleport to the net's anchor pipe (one block above it). */
+    private static Component netLine(String line, EnergyNetDebugStats.NetStats s) {
+        MutableComponent out = Component.literal(line).withStyle(ChatFormatting.GRAY);
+        BlockPos a = s.anchor;
+        if (a == null || s.lastDim == null) return out;
+        String tp = "/execute in " + s.lastDim.location() + " run tp @s "
+                + a.getX() + " " + (a.getY() + 1) + " " + a.getZ();
+        return out.append(Component.literal(" [tp]")
+                .withStyle(style -> style.withColor(ChatFormatting.AQUA)
+                        .withClickEvent(new ClickEvent(ClickEvent.Action.RUN_COMMAND, tp))
+                        .withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, Component.literal(tp)))));
+    }
+
+    private static String bytes(long b) {
+        if (b < 1024) return b + "B";
+        if (b < 1024 * 1024) return String.format(java.util.Locale.ROOT, "%.1fKiB", b / 1024.0);
+        return String.format(java.util.Locale.ROOT, "%.1fMiB", b / (1024.0 * 1024.0));
+    }
+
+    private static String histogram(LatencyHistogram h) {
+        if (h.count() == 0) return "-";
+        return "p50=" + nanos(h.percentile(0.50)) +
+                " p99=" + nanos(h.percentile(0.99)) +
+                " max=" + nanos(h.maxNanos()) +
+                " n=" + h.count();
+    }
+
+    private static String nanos(double ns) {
+        if (ns < 1_000.0) return String.format(java.util.Locale.ROOT, "%.0fns", ns);
+        if (ns < 1_000_000.0) return String.format(java.util.Locale.ROOT, "%.1fus", ns / 1_000.0);
+        return String.format(java.util.Locale.ROOT, "%.2fms", ns / 1_000_000.0);
+    }
+
+    private static String share(double nanosPerTick, double msptNanos) {
+        if (msptNanos <= 0) return "?";
+        return String.format(java.util.Locale.ROOT, "%.2f%%", 100.0 * nanosPerTick / msptNanos);
+    }
+
     private static String fmt(double v) {
         if (v < 0.05) return "0";
         return String.format(java.util.Locale.ROOT, "%.2f", v);
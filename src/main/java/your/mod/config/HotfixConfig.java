@@ -0,0 +1,221 @@
+package your.mod.config;
+
+import net.minecraftforge.common.ForgeConfigSpec;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.ModLoadingContext;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.config.ModConfig;
+import net.minecraftforge.fml.event.config.ModConfigEvent;
+
+/**
+ * Server config for the hotfix ({@code serverconfig/gtceuenergynethotfix-server.toml}).
+ *
+ * Values are baked into plain static fields on load/reload so hot paths never touch the config spec.
+ */
+@Mod.EventBusSubscriber(modid = "gtceuenergynethotfix", bus = Mod.EventBusSubscriber.Bus.MOD)
+public final class HotfixConfig {
+
+    private HotfixConfig() {}
+
+    public static final ForgeConfigSpec SPEC;
+
+    private static final ForgeConfigSpec.IntValue TOPOLOGY_DEBOUNCE_TICKS;
+    private static final ForgeConfigSpec.IntValue TOPOLOGY_DEBOUNCE_MAX_TICKS;
+    private static final ForgeConfigSpec.IntValue SLEEP_AFTER_TICKS;
+    private static final ForgeConfigSpec.IntValue SLEEP_RECHECK_TICKS;
+    private static final ForgeConfigSpec.BooleanValue LAZY_ROUTES;
+    private static final ForgeConfigSpec.BooleanValue REGION_ROUTING;
+    private static final ForgeConfigSpec.BooleanValue COLLAPSE_ENDPOINTS;
+    private static final ForgeConfigSpec.BooleanValue PARK_NON_TICKING_ENDPOINTS;
+    private static final ForgeConfigSpec.BooleanValue INSTRUMENTATION;
+    private static final ForgeConfigSpec.IntValue COUNTER_SAMPLE_INTERVAL;
+    private static final ForgeConfigSpec.IntValue TIMING_SAMPLE_INTERVAL;
+    private static final ForgeConfigSpec.IntValue SHADOW_SAMPLE_TICKS;
+    private static final ForgeConfigSpec.IntValue ALLOCATION_SAMPLE_INTERVAL;
+    private static final ForgeConfigSpec.ConfigValue<String> METRICS_FILE;
+    private static final ForgeConfigSpec.IntValue METRICS_HTTP_PORT;
+    private static final ForgeConfigSpec.IntValue METRICS_INTERVAL_SECONDS;
+
+    /** Quiet ticks required after the last topology change before routes are rebuilt (0 = rebuild next tick). */
+    public static int topologyDebounceTicks = 5;
+
+    /** Upper bound on how long stale routes may be served during a continuous edit burst. */
+    public static int topologyDebounceMaxTicks = 100;
+
+    /** Consecutive saturated/demand-free ticks before a net goes to sleep (0 = never sleep). */
+    public static int sleepAfterTicks = 40;
+
+    /** Sleeping nets wake up for a re-check after this many ticks (covers GTCEu sinks drained without a notification). */
+    public static int sleepRecheckTicks = 100;
+
+    /** Build route lists lazily in loss order ({@code LazyRouteList}) instead of walking the whole net up front. */
+    public static boolean lazyRoutes = false;
+
+    /** Walk lazy route lists over cached per-section regions ({@code RegionGraph}) instead of cable by cable. */
+    public static boolean regionRouting = false;
+
+    /** Keep one route per sink reached over several cable faces; the others are voltage / failover alternates. */
+    public static boolean collapseEndpoints = true;
+
+    /** Skip routes whose endpoint chunk does not tick block entities ({@code EndpointChunks}). */
+    public static boolean parkNonTickingEndpoints = false;
+
+    /** Master switch for per-call delivery instrumentation; off = producer calls skip all of it. */
+    public static boolean instrumentation = true;
+
+    /** Count 1 in N producer calls in the per-net debug counters (1 = every call, 0 = off). */
+    public static int counterSampleInterval = 1;
+
+    /** Time 1 in N delivery calls for /energynet timings (0 = timings off). */
+    public static int timingSampleInterval = 8;
+
+    /** Measure allocated bytes of 1 in N delivery calls for /energynet alloc (0 = off). */
+    public static int allocationSampleInterval = 0;
+
+    /** Shadow-mode nets compare against vanilla on 1 in N ticks (0 = never). */
+    public static int shadowSampleTicks = 20;
+
+    /** Prometheus text file rewritten every {@link #metricsIntervalSeconds}, relative to the server dir ("" = off). */
+    public static String metricsFile = "";
+
+    /** Port of the Prometheus listener on 127.0.0.1 (0 = off). */
+    public static int metricsHttpPort = 0;
+
+    /** How often the metrics snapshot is rendered. */
+    public static int metricsIntervalSeconds = 15;
+
+    static {
+        final ForgeConfigSpec.Builder b = new ForgeConfigSpec.Builder();
+
+        b.push("topology");
+        TOPOLOGY_DEBOUNCE_TICKS = b
+                .comment("Ticks without further cable/endpoint changes before a dirty energynet rebuilds its routes.",
+                        "Changes within this window are coalesced into one rebuild; until then existing routes keep",
+                        "serving (routes through removed or disconnected cables are skipped). 0 = rebuild on the next tick.")
+                .defineInRange("debounceTicks", 5, 0, 200);
+        TOPOLOGY_DEBOUNCE_MAX_TICKS = b
+                .comment("Maximum ticks a dirty energynet may keep serving stale routes while edits continue.")
+                .defineInRange("debounceMaxTicks", 100, 1, 1200);
+        b.pop();
+
+        b.push("sleep");
+        SLEEP_AFTER_TICKS = b
+                .comment("Consecutive ticks a net must stay saturated or demand-free (nothing accepted) before it",
+                        "sleeps. Sleeping nets answer producer calls in O(1). 0 = disable sleep mode.")
+                .defineInRange("sleepAfterTicks", 40, 0, 12000);
+        SLEEP_RECHECK_TICKS = b
+                .comment("A sleeping net wakes up for one re-check after this many ticks, even without a sink-side",
+                        "energy change notification. Nets feeding Forge Energy or other non-GTCEu sinks do not sleep.")
+                .defineInRange("recheckTicks", 100, 1, 12000);
+        b.pop();
+
+        b.push("routing");
+        LAZY_ROUTES = b
+                .comment("Walk each producer's routes lazily, nearest (lowest loss) endpoints first, and extend the walk",
+                        "only while offers have amps left over. Off = GTCEu's full walk per producer pipe.")
+                .define("lazyRoutes", false);
+        REGION_ROUTING = b
+                .comment("With lazyRoutes: split each net into regions (connected cables per chunk section) whose",
+                        "internal paths are cached across rebuilds, and walk between region borders. A topology",
+                        "change only rescans the regions next to it.")
+                .define("regionRouting", false);
+        COLLAPSE_ENDPOINTS = b
+                .comment("Routes that reach the same sink (same position and energy container) over different cable",
+                        "faces are collapsed into one probe: an offer goes over the lowest-loss route rated for its",
+                        "voltage, and routes across a burnt cable are skipped until the route rebuild.")
+                .define("collapseEndpoints", true);
+        PARK_NON_TICKING_ENDPOINTS = b
+                .comment("Skip routes into chunks that do not tick block entities (chunk-loader edges, unloaded",
+                        "chunks) without spending probe budget, until the chunk ticks again. Machines there stop",
+                        "receiving energy, which vanilla would still push into their buffers.")
+                .define("parkNonTickingEndpoints", false);
+        b.pop();
+
+        b.push("stats");
+        INSTRUMENTATION = b
+                .comment("Master switch for energynet delivery instrumentation: per-net counters, timings, allocation",
+                        "sampling, perf probes and JFR delivery events. Off = producer calls go straight to delivery",
+                        "with none of it. Can be changed at runtime with /energynet stats on|off.")
+                .define("instrumentation", true);
+        COUNTER_SAMPLE_INTERVAL = b
+                .comment("Count one in N producer calls in the per-net counters behind /energynet, metrics and",
+                        "starvation (values scaled by N). 1 = every call, 0 = off. Can be changed at runtime with",
+                        "/energynet stats <N>.")
+                .defineInRange("counterSampleInterval", 1, 0, 1_000_000);
+        TIMING_SAMPLE_INTERVAL = b
+                .comment("Time one in N energynet delivery calls for /energynet timings (per-net latency",
+                        "histograms). Rebuilds and tick-end work are always timed while this is > 0. 0 = off.")
+                .defineInRange("timingSampleInterval", 8, 0, 1_000_000);
+        ALLOCATION_SAMPLE_INTERVAL = b
+                .comment("Measure heap bytes allocated by one in N delivery calls for /energynet alloc (thread",
+                        "allocation counter). Rebuilds and tick-end work are always measured while this is > 0.",
+                        "0 = off.")
+                .defineInRange("allocationSampleInterval", 0, 0, 1_000_000);
+        SHADOW_SAMPLE_TICKS = b
+                .comment("Nets in shadow mode (/energynet mode <net> shadow) also simulate the vanilla GTCEu delivery",
+                        "loop for every producer call on one tick in N, comparing accepted amps and time. 0 = never.")
+                .defineInRange("shadowSampleTicks", 20, 0, 12000);
+        b.pop();
+
+        b.push("metrics");
+        METRICS_FILE = b
+                .comment("Write energynet metrics in Prometheus text format to this file (relative to the server",
+                        "directory), e.g. for node_exporter's textfile collector. Empty = off.")
+                .define("file", "");
+        METRICS_HTTP_PORT = b
+                .comment("Serve the same metrics on http://127.0.0.1:<port>/metrics (localhost only). 0 = off.")
+                .defineInRange("httpPort", 0, 0, 65535);
+        METRICS_INTERVAL_SECONDS = b
+                .comment("Seconds between metrics snapshots (file rewrite / HTTP content refresh).")
+                .defineInRange("intervalSeconds", 15, 1, 3600);
+        b.pop();
+
+        SPEC = b.build();
+    }
+
+    /** Runtime switch for the debug counters (/energynet stats); saved to the server config. */
+    public static void setInstrumentation(boolean enabled) {
+        INSTRUMENTATION.set(enabled);
+        SPEC.save();
+        instrumentation = enabled;
+    }
+
+    public static void setCounterSampleInterval(int interval) {
+        COUNTER_SAMPLE_INTERVAL.set(interval);
+        SPEC.save();
+        counterSampleInterval = interval;
+    }
+
+    public static void register() {
+        ModLoadingContext.get().registerConfig(ModConfig.Type.SERVER, SPEC);
+    }
+
+    private static void bake() {
+        topologyDebounceTicks = TOPOLOGY_DEBOUNCE_TICKS.get();
+        topologyDebounceMaxTicks = TOPOLOGY_DEBOUNCE_MAX_TICKS.get();
+        sleepAfterTicks = SLEEP_AFTER_TICKS.get();
+        sleepRecheckTicks = SLEEP_RECHECK_TICKS.get();
+        lazyRoutes = LAZY_ROUTES.get();
+        regionRouting = REGION_ROUTING.get();
+        collapseEndpoints = COLLAPSE_ENDPOINTS.get();
+        parkNonTickingEndpoints = PARK_NON_TICKING_ENDPOINTS.get();
+        instrumentation = INSTRUMENTATION.get();
+        counterSampleInterval = COUNTER_SAMPLE_INTERVAL.get();
+        timingSampleInterval = TIMING_SAMPLE_INTERVAL.get();
+        allocationSampleInterval = ALLOCATION_SAMPLE_INTERVAL.get();
+        shadowSampleTicks = SHADOW_SAMPLE_TICKS.get();
+        metricsFile = METRICS_FILE.get().trim();
+        metricsHttpPort = METRICS_HTTP_PORT.get();
+        metricsIntervalSeconds = METRICS_INTERVAL_SECONDS.get();
+    }
+
+    @SubscribeEvent
+    public static void onLoad(ModConfigEvent.Loading event) {
+        if (event.getConfig().getSpec() == SPEC) bake();
+    }
+
+    @SubscribeEvent
+    public static void onReload(ModConfigEvent.Reloading event) {
+        if (event.getConfig().getSpec() == SPEC) bake();
+    }
+}
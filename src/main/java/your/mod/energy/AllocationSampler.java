@@ -0,0 +1,110 @@
+package your.mod.energy;
+
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyNet;
+import your.mod.config.HotfixConfig;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Per-net heap allocation sampling for delivery calls, route rebuilds and the tick-end apply, from the
+ * server thread's allocated-bytes counter ({@code com.sun.management.ThreadMXBean}).
+ *
+ * Delivery calls are measured 1-in-{@link HotfixConfig#allocationSampleInterval} and scaled up, rebuilds and
+ * tick-end work always while sampling is on. Reading the counter does not allocate; a JVM without the
+ * extension (or with it disabled) leaves sampling off. Like the timings, delivery values are inclusive of
+ * the rebuilds they trigger and are reset by {@code /energynet timings reset}.
+ */
+public final class AllocationSampler {
+
+    private AllocationSampler() {}
+
+    private static final com.sun.management.ThreadMXBean BEAN = init();
+
+    private static int deliverySampleCounter;
+
+    // Tick-end work for all nets, summed per server tick.
+    private static long tickEndBytes;
+    private static long tickEndTicks;
+    private static long tickEndTick = -1L;
+
+    private static com.sun.management.ThreadMXBean init() {
+        try {
+            if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean)) return null;
+            if (!bean.isThreadAllocatedMemorySupported()) return null;
+            if (!bean.isThreadAllocatedMemoryEnabled()) bean.setThreadAllocatedMemoryEnabled(true);
+            return bean;
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    public static boolean isSupported() {
+        return BEAN != null;
+    }
+
+    private static boolean enabled() {
+        return BEAN != null && HotfixConfig.allocationSampleInterval > 0;
+    }
+
+    /** @return allocated-bytes counter of this thread, or -1 when this call is not sampled */
+    public static long beginDelivery() {
+        if (!enabled()) return -1L;
+        if (++deliverySampleCounter < HotfixConfig.allocationSampleInterval) return -1L;
+        deliverySampleCounter = 0;
+        return BEAN.getCurrentThreadAllocatedBytes();
+    }
+
+    public static void endDelivery(EnergyNet net, long start) {
+        if (start < 0L) return;
+        final long bytes = BEAN.getCurrentThreadAllocatedBytes() - start;
+        final EnergyNetDebugStats.NetStats s = EnergyNetDebugStats.peek(net);
+        if (s == null) return;
+        s.deliveryAllocSamples++;
+        s.deliveryAllocBytes += bytes;
+        s.estimatedDeliveryAllocBytes += bytes * Math.max(1, HotfixConfig.allocationSampleInterval);
+    }
+
+    public static long beginRebuild() {
+        return enabled() ? BEAN.getCurrentThreadAllocatedBytes() : -1L;
+    }
+
+    public static void endRebuild(EnergyNet net, long start) {
+        if (start < 0L || net == null) return;
+        final long bytes = BEAN.getCurrentThreadAllocatedBytes() - start;
+        final EnergyNetDebugStats.NetStats s = EnergyNetDebugStats.peek(net);
+        if (s == null) return;
+        s.rebuildAllocSamples++;
+        s.rebuildAllocBytes += bytes;
+    }
+
+    public static long beginTickEnd() {
+        return enabled() ? BEAN.getCurrentThreadAllocatedBytes() : -1L;
+    }
+
+    /** @param tick server tick count; all tick-end sections of one tick count as one tick */
+    public static void endTickEnd(long start, long tick) {
+        if (start < 0L) return;
+        tickEndBytes += BEAN.getCurrentThreadAllocatedBytes() - start;
+        if (tick != tickEndTick) {
+            tickEndTick = tick;
+            tickEndTicks++;
+        }
+    }
+
+    /** Bytes allocated by tick-end work since the last reset. */
+    public static long tickEndBytes() {
+        return tickEndBytes;
+    }
+
+    /** Server ticks with measured tick-end work since the last reset. */
+    public static long tickEndTicks() {
+        return tickEndTicks;
+    }
+
+    static void reset() {
+        tickEndBytes = 0L;
+        tickEndTicks = 0L;
+        tickEndTick = -1L;
+        deliverySampleCounter = 0;
+    }
+}
@@ -3,6 +3,7 @@ package your.mod.energy;
 import com.gregtechceu.gtceu.common.blockentity.CableBlockEntity;
 import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
@@ -14,6 +15,8 @@ import net.minecraftforge.fml.common.Mod;
  * Performance notes:
  * - Uses primitive fastutil maps to avoid allocation-heavy java.util.HashMap hot paths.
  * - Packs (sumAmps,maxVoltage) into a single long to keep one map lookup per cable.
+ * - Uniform lossless routes ({@link #recordRoute}) are recorded once per route and expanded to their cables
+ *   at tick end, so repeated deliveries over the same route cost one lookup each instead of one per cable.
  */
 @Mod.EventBusSubscriber(modid = "gtceuenergynethotfix", bus = Mod.EventBusSubscriber.Bus.FORGE)
 public final class CableAmperageAccumulator {
@@ -27,6 +30,10 @@ public final class CableAmperageAccumulator {
      */
     private static final Object2ObjectOpenHashMap<ServerLevel, Long2LongOpenHashMap> PER_LEVEL = new Object2ObjectOpenHashMap<>();
 
+    /** Per-level route accumulator: route segment positions (by identity) -> packed(sumAmps, maxVoltage). */
+    private static final Object2ObjectOpenHashMap<ServerLevel, Reference2LongOpenHashMap<long[]>> PER_LEVEL_ROUTES =
+            new Object2ObjectOpenHashMap<>();
+
     /**
      * Record flow through a cable segment for this tick.
      */
@@ -58,11 +65,46 @@ public final class CableAmperageAccumulator {
         map.put(key, (((long) sumAmps) << 32) | (maxV & 0xFFFFFFFFL));
     }
 
+    /**
+     * Record flow through every cable of a route at one voltage (no loss along the route). The route's
+     * segment position array is used by identity and must not change.
+     */
+    public static void recordRoute(ServerLevel level, long[] segmentPos, long amperage, long voltage) {
+        if (amperage <= 0) return;
+
+        Reference2LongOpenHashMap<long[]> map = PER_LEVEL_ROUTES.get(level);
+        if (map == null) {
+            map = new Reference2LongOpenHashMap<>(256);
+            map.defaultReturnValue(0L);
+            PER_LEVEL_ROUTES.put(level, map);
+        }
+
+        final long packed = map.getLong(segmentPos);
+        final int sumAmps = (int) (packed >>> 32) + (int) amperage;
+        final int maxV = Math.max((int) packed, (int) voltage);
+        map.put(segmentPos, (((long) sumAmps) << 32) | (maxV & 0xFFFFFFFFL));
+    }
+
     @SubscribeEvent
     public static void onServerTick(TickEvent.ServerTickEvent event) {
         if (event.phase != TickEvent.Phase.END) return;
 
-        if (PER_LEVEL.isEmpty()) return;
+        if (PER_LEVEL.isEmpty() && PER_LEVEL_ROUTES.isEmpty()) return;
+
+        final long perf = PerfProbe.begin(PerfProbe.Section.AMPERAGE_APPLY);
+        final long timing = EnergyNetDebugStats.beginTickEndTiming();
+        final long alloc = AllocationSampler.beginTickEnd();
+        try {
+            apply();
+        } finally {
+            AllocationSampler.endTickEnd(alloc, event.getServer().getTickCount());
+            EnergyNetDebugStats.endTickEndTiming(timing, event.getServer().getTickCount());
+            PerfProbe.end(PerfProbe.Section.AMPERAGE_APPLY, perf);
+        }
+    }
+
+    private static void apply() {
+        expandRoutes();
 
         // Apply and clear each level map in-place (reuse allocations).
         for (var entry : PER_LEVEL.object2ObjectEntrySet()) {
@@ -93,4 +135,26 @@ public final class CableAmperageAccumulator {
             map.clear();
         }
     }
+
+    /** Fold the per-route records of this tick into the per-cable maps. */
+    private static void expandRoutes() {
+        for (var entry : PER_LEVEL_ROUTES.object2ObjectEntrySet()) {
+            final Reference2LongOpenHashMap<long[]> routes = entry.getValue();
+            if (routes == null || routes.isEmpty()) continue;
+            final ServerLevel level = entry.getKey();
+
+            final var it = routes.reference2LongEntrySet().fastIterator();
+            while (it.hasNext()) {
+                final var e = it.next();
+                final long[] segmentPos = e.getKey();
+                final long packed = e.getLongValue();
+                final long sumAmps = packed >>> 32;
+                final long maxV = (int) packed;
+                for (long pos : segmentPos) {
+                    record(level, pos, sumAmps, maxV);
+                }
+            }
+            routes.clear();
+        }
+    }
 }
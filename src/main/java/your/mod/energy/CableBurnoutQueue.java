@@ -0,0 +1,112 @@
+package your.mod.energy;
+
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyNet;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.Arrays;
+
+/**
+ * Batches cable burn-outs (melting) within a tick into one topology change per net.
+ *
+ * Vanilla melts each cable with its own setBlockAndUpdate(), and every resulting neighbour update runs
+ * EnergyNet.onNeighbourUpdate / onPipeConnectionsUpdate, invalidating routes over and over (often
+ * across several ticks). Here melts are queued by {@code CableBlockEntityHeatMixin} and applied by
+ * {@link CableHeatScheduler} at the end of its batch. While the queue is flushing, energynet
+ * invalidation hooks only collect the affected nets; each collected net is then marked dirty once,
+ * so it performs exactly one invalidation and one lazy rebuild on its next getNetData().
+ */
+@Mod.EventBusSubscriber(modid = "gtceuenergynethotfix", bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class CableBurnoutQueue {
+
+    private CableBurnoutQueue() {}
+
+    /** Per-level queued burn-outs: cablePosLong -> replacement state. */
+    private static final Object2ObjectOpenHashMap<ServerLevel, Long2ObjectOpenHashMap<BlockState>> PER_LEVEL =
+            new Object2ObjectOpenHashMap<>();
+
+    /** Nets touched while flushing (identity set; server thread only). */
+    private static final ReferenceOpenHashSet<EnergyNet> TOUCHED = new ReferenceOpenHashSet<>();
+
+    private static final BlockPos.MutableBlockPos CURSOR = new BlockPos.MutableBlockPos();
+
+    private static long[] sortBuffer = new long[64];
+
+    private static boolean flushing;
+
+    /**
+     * Queue a cable burn-out; the block is replaced when the level's queue is flushed this tick.
+     */
+    public static void enqueue(ServerLevel level, long cablePosLong, BlockState replacement) {
+        Long2ObjectOpenHashMap<BlockState> map = PER_LEVEL.get(level);
+        if (map == null) {
+            map = new Long2ObjectOpenHashMap<>();
+            PER_LEVEL.put(level, map);
+        }
+        map.put(cablePosLong, replacement);
+    }
+
+    /**
+     * @return true while queued burn-outs are being applied; energynet invalidation should call {@link #collect}.
+     */
+    public static boolean isFlushing() {
+        return flushing;
+    }
+
+    /** Record a net that saw a topology/neighbour change during the flush. */
+    public static void collect(EnergyNet net) {
+        if (net != null) TOUCHED.add(net);
+    }
+
+    /**
+     * Apply all queued burn-outs for a level as one batch, then invalidate each affected net once.
+     */
+    public static void flush(ServerLevel level) {
+        final Long2ObjectOpenHashMap<BlockState> map = PER_LEVEL.get(level);
+        if (map == null || map.isEmpty()) return;
+
+        final int n = map.size();
+        if (sortBuffer.length < n) {
+            sortBuffer = new long[Math.max(n, sortBuffer.length * 2)];
+        }
+        final long[] positions = sortBuffer;
+        int k = 0;
+        for (var it = map.keySet().iterator(); it.hasNext(); ) {
+            positions[k++] = it.nextLong();
+        }
+        Arrays.sort(positions, 0, k);
+
+        flushing = true;
+        try {
+            for (int i = 0; i < k; i++) {
+                final long posLong = positions[i];
+                CURSOR.set(posLong);
+                if (!level.isLoaded(CURSOR)) continue;
+                level.setBlockAndUpdate(CURSOR.immutable(), map.get(posLong));
+            }
+        } finally {
+            flushing = false;
+            map.clear();
+        }
+
+        // One invalidation per affected net; routes rebuild lazily on the next getNetData().
+        for (EnergyNet net : TOUCHED) {
+            ((IEnergyNetHotfix) net).gtceuHotfix$markDirty();
+        }
+        TOUCHED.clear();
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            PER_LEVEL.remove(level);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package your.mod.energy;
+
+import com.gregtechceu.gtceu.common.blockentity.CableBlockEntity;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.Arrays;
+
+/**
+ * Centralized heat scheduler for overheated cables.
+ *
+ * Vanilla GTCEu subscribes one server-tick callback per hot cable ({@code CableBlockEntity.subscribeHeat}),
+ * and overvoltage heat is applied per segment per producer call. On large grids an overvoltage mistake
+ * creates thousands of subscriptions that all tick while the cables cool down.
+ *
+ * This scheduler replaces that with:
+ * - a per-level primitive map collecting overvoltage heat per cable for the current tick (like
+ *   {@link CableAmperageAccumulator}), so repeated producer calls only do one map update per segment;
+ * - a per-level set of hot cables, ticked once per server tick from a single sorted batch.
+ *
+ * The heat step itself is GTCEu's own {@code update()} (via {@link ICableHeatAccess}), so melting,
+ * uninsulation and cooling curves are unchanged.
+ */
+@Mod.EventBusSubscriber(modid = "gtceuenergynethotfix", bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class CableHeatScheduler {
+
+    private CableHeatScheduler() {}
+
+    private static final class PerLevel {
+        /** cablePosLong -> heat collected this tick. */
+        final Long2IntOpenHashMap pendingHeat = new Long2IntOpenHashMap(256);
+        /** cablePosLong of every cable that needs a heat step (hot, or received heat). */
+        final LongOpenHashSet hot = new LongOpenHashSet(256);
+        /** Reused sort buffer for the batch. */
+        long[] batch = new long[256];
+    }
+
+    private static final Object2ObjectOpenHashMap<ServerLevel, PerLevel> PER_LEVEL = new Object2ObjectOpenHashMap<>();
+
+    // Reused cursor for BE lookups in the batch (server thread only).
+    private static final BlockPos.MutableBlockPos CURSOR = new BlockPos.MutableBlockPos();
+
+    private static PerLevel perLevel(ServerLevel level) {
+        PerLevel pl = PER_LEVEL.get(level);
+        if (pl == null) {
+            pl = new PerLevel();
+            pl.pendingHeat.defaultReturnValue(0);
+            PER_LEVEL.put(level, pl);
+        }
+        return pl;
+    }
+
+    /**
+     * Collect heat for a cable this tick. Applied to the cable once at tick end.
+     */
+    public static void addHeat(ServerLevel level, long cablePosLong, int heat) {
+        if (heat <= 0) return;
+        final Long2IntOpenHashMap map = perLevel(level).pendingHeat;
+        final long sum = (long) map.get(cablePosLong) + heat;
+        map.put(cablePosLong, sum >= Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum);
+    }
+
+    /**
+     * Register a cable that needs heat steps until it has cooled down (replaces vanilla subscribeHeat).
+     */
+    public static void track(ServerLevel level, long cablePosLong) {
+        perLevel(level).hot.add(cablePosLong);
+    }
+
+    // LOW priority: run after CableAmperageAccumulator has applied this tick's over-amp heat.
+    @SubscribeEvent(priority = EventPriority.LOW)
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) return;
+        if (PER_LEVEL.isEmpty()) return;
+
+        final long timing = EnergyNetDebugStats.beginTickEndTiming();
+        final long alloc = AllocationSampler.beginTickEnd();
+        try {
+            tickAll();
+        } finally {
+            AllocationSampler.endTickEnd(alloc, event.getServer().getTickCount());
+            EnergyNetDebugStats.endTickEndTiming(timing, event.getServer().getTickCount());
+        }
+    }
+
+    private static void tickAll() {
+        for (var entry : PER_LEVEL.object2ObjectEntrySet()) {
+            final ServerLevel level = entry.getKey();
+            final PerLevel pl = entry.getValue();
+            if (pl.pendingHeat.isEmpty() && pl.hot.isEmpty()) continue;
+
+            // Every cable that received heat this tick takes part in the batch.
+            final var heatIt = pl.pendingHeat.keySet().iterator();
+            while (heatIt.hasNext()) {
+                pl.hot.add(heatIt.nextLong());
+            }
+
+            // Snapshot + sort: deterministic order and better chunk locality than hash order.
+            final int n = pl.hot.size();
+            if (pl.batch.length < n) {
+                pl.batch = new long[Math.max(n, pl.batch.length * 2)];
+            }
+            final long[] batch = pl.batch;
+            int k = 0;
+            for (LongIterator it = pl.hot.iterator(); it.hasNext(); ) {
+                batch[k++] = it.nextLong();
+            }
+            Arrays.sort(batch, 0, k);
+
+            for (int i = 0; i < k; i++) {
+                final long posLong = batch[i];
+                final int heat = pl.pendingHeat.get(posLong);
+
+                CURSOR.set(posLong);
+                if (!level.isLoaded(CURSOR)) {
+                    // Chunk unloaded: GTCEu re-subscribes the cable from onLoad() if it is still hot.
+                    pl.hot.remove(posLong);
+                    continue;
+                }
+                final BlockEntity be = level.getBlockEntity(CURSOR);
+                if (!(be instanceof CableBlockEntity cable) || cable.isInValid()) {
+                    pl.hot.remove(posLong);
+                    continue;
+                }
+
+                if (heat > 0) {
+                    cable.applyHeat(heat);
+                }
+
+                final boolean keep = ((ICableHeatAccess) cable).gtceuHotfix$tickHeat();
+                // Uninsulation replaces the BE at the same position and re-tracks the new cable; keep it then.
+                if (!keep && level.getBlockEntity(CURSOR) == cable) {
+                    pl.hot.remove(posLong);
+                }
+            }
+            pl.pendingHeat.clear();
+
+            // Apply this tick's burn-outs as one batched topology change per net.
+            CableBurnoutQueue.flush(level);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            PER_LEVEL.remove(level);
+        }
+    }
+}
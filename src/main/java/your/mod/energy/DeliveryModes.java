@@ -0,0 +1,186 @@
+package your.mod.energy;
+
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyNet;
+import com.mojang.logging.LogUtils;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.slf4j.Logger;
+import your.mod.config.HotfixConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-net A/B switch between the hotfix delivery path and the GTCEu 7.4.0 loop ({@link VanillaDelivery}),
+ * set with {@code /energynet mode <net id> hotfix|vanilla|shadow}. Overrides are keyed by stable net id
+ * ({@link EnergyNetDebugStats#identify}), so they survive net rebuilds; they are not saved across restarts.
+ * The id is derived from the net's lowest pipe, so it changes when a cable is placed below that pipe or the
+ * pipe is removed: the override is then moved to the new id ({@link #rekey}). Nets split off or merged into
+ * another inherit the override of the net their cables came from ({@link #handoff}) unless they have their own.
+ *
+ * Shadow nets deliver through the hotfix path, and on one tick in {@link HotfixConfig#shadowSampleTicks} every
+ * call first runs {@link VanillaDelivery#simulate} (no side effects, overvolted cables assumed to survive), then
+ * compares accepted amps and time. Both sides' route lists are resolved before either is timed, so a pending
+ * flush or rebuild biases neither.
+ * Divergent calls are counted and logged (at most once per net every {@link #LOG_INTERVAL_TICKS}).
+ *
+ * The resolved mode is cached on the net (with the override generation), so while no override exists the
+ * handler pays one isEmpty() check per call.
+ */
+@Mod.EventBusSubscriber(modid = "gtceuenergynethotfix", bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class DeliveryModes {
+
+    private DeliveryModes() {}
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static final long LOG_INTERVAL_TICKS = 200;
+
+    public enum Mode {
+        HOTFIX, VANILLA, SHADOW
+    }
+
+    /** Shadow comparison totals for one net id since its mode was set. */
+    public static final class ShadowStats {
+        public long calls;
+        public long hotfixNanos;
+        public long vanillaNanos;
+        public long hotfixAmps;
+        public long vanillaAmps;
+        public long divergentCalls;
+
+        private long lastLogTick = Long.MIN_VALUE;
+        private long divergentSinceLog;
+    }
+
+    private static final Object2ObjectOpenHashMap<String, Mode> OVERRIDES = new Object2ObjectOpenHashMap<>();
+    private static final Object2ObjectOpenHashMap<String, ShadowStats> SHADOW = new Object2ObjectOpenHashMap<>();
+    private static int generation = 1;
+
+    public static Mode modeOf(EnergyNet net, Level level) {
+        if (OVERRIDES.isEmpty()) return Mode.HOTFIX;
+        final IEnergyNetHotfix hotfix = (IEnergyNetHotfix) net;
+        if (hotfix.gtceuHotfix$getDeliveryModeGeneration() != generation) {
+            final EnergyNetDebugStats.NetStats s = EnergyNetDebugStats.track(net, level);
+            EnergyNetDebugStats.identify(net, s);
+            final Mode mode = OVERRIDES.getOrDefault(s.id, Mode.HOTFIX);
+            // Sleep / saturation state was not maintained while the net ran vanilla.
+            if (hotfix.gtceuHotfix$getDeliveryMode() == Mode.VANILLA && mode != Mode.VANILLA) SinkCache.wake(net);
+            hotfix.gtceuHotfix$setDeliveryMode(mode, generation);
+        }
+        return hotfix.gtceuHotfix$getDeliveryMode();
+    }
+
+    /** Set the mode of a net id; {@link Mode#HOTFIX} removes the override. */
+    public static void set(String netId, Mode mode) {
+        if (mode == Mode.HOTFIX) {
+            OVERRIDES.remove(netId);
+        } else {
+            OVERRIDES.put(netId, mode);
+        }
+        if (mode == Mode.SHADOW) {
+            SHADOW.put(netId, new ShadowStats());
+        } else {
+            SHADOW.remove(netId);
+        }
+        generation++;
+    }
+
+    static boolean hasOverride(String netId) {
+        return OVERRIDES.containsKey(netId);
+    }
+
+    /**
+     * A net's stable id changed from {@code from} to {@code to}: move its override (and shadow totals) along,
+     * unless the new id has one of its own. With {@code keepOld} another net still carries {@code from} (the
+     * other part of a split), so the override is copied instead.
+     */
+    static void rekey(String from, String to, boolean keepOld) {
+        final Mode mode = keepOld ? OVERRIDES.get(from) : OVERRIDES.remove(from);
+        final ShadowStats shadow = keepOld ? null : SHADOW.remove(from);
+        if (mode == null) return;
+        if (!OVERRIDES.containsKey(to)) {
+            OVERRIDES.put(to, mode);
+            if (mode == Mode.SHADOW) SHADOW.put(to, (shadow != null) ? shadow : new ShadowStats());
+        }
+        generation++;
+    }
+
+    /**
+     * {@code to} received cable nodes from {@code from} ({@link NetHandoff}): a net split off, or the net that
+     * absorbed {@code from}, keeps {@code from}'s override unless it has its own. The override of an absorbed
+     * net whose id did not survive the merge is dropped.
+     */
+    static void handoff(EnergyNet from, EnergyNet to) {
+        if (OVERRIDES.isEmpty()) return;
+        final EnergyNetDebugStats.NetStats s = EnergyNetDebugStats.peek(from);
+        if (s == null) return;
+        final String id = s.id;
+        final Mode mode = OVERRIDES.get(id);
+        if (mode == null) return;
+        final EnergyNetDebugStats.NetStats t = EnergyNetDebugStats.track(to, from.getLevel());
+        EnergyNetDebugStats.identify(to, t);
+        if (!"?".equals(t.id) && !OVERRIDES.containsKey(t.id)) {
+            OVERRIDES.put(t.id, mode);
+            if (mode == Mode.SHADOW) SHADOW.put(t.id, new ShadowStats());
+        }
+        if (from.getAllNodes().isEmpty() && !id.equals(t.id)) {
+            OVERRIDES.remove(id);
+            SHADOW.remove(id);
+        }
+        generation++;
+    }
+
+    public static void clear() {
+        OVERRIDES.clear();
+        SHADOW.clear();
+        generation++;
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        clear();
+    }
+
+    /** Snapshot of the overrides (net id -> mode). */
+    public static List<Map.Entry<String, Mode>> overrides() {
+        return new ArrayList<>(OVERRIDES.entrySet());
+    }
+
+    public static ShadowStats shadowStats(String netId) {
+        return SHADOW.get(netId);
+    }
+
+    /** @return true if shadow nets compare against vanilla in this tick */
+    public static boolean isShadowTick(long tick) {
+        final int interval = HotfixConfig.shadowSampleTicks;
+        return interval > 0 && tick % interval == 0;
+    }
+
+    public static void recordShadow(EnergyNet net, Level level, long hotfixNanos, long hotfixAmps,
+                                    long vanillaNanos, long vanillaAmps) {
+        final EnergyNetDebugStats.NetStats s = EnergyNetDebugStats.peek(net);
+        if (s == null) return;
+        final ShadowStats shadow = SHADOW.get(s.id);
+        if (shadow == null) return;
+        shadow.calls++;
+        shadow.hotfixNanos += hotfixNanos;
+        shadow.vanillaNanos += vanillaNanos;
+        shadow.hotfixAmps += hotfixAmps;
+        shadow.vanillaAmps += vanillaAmps;
+        if (hotfixAmps == vanillaAmps) return;
+
+        shadow.divergentCalls++;
+        shadow.divergentSinceLog++;
+        final long tick = level.getGameTime();
+        if (shadow.lastLogTick != Long.MIN_VALUE && tick - shadow.lastLogTick < LOG_INTERVAL_TICKS) return;
+        LOGGER.info("[energynet] shadow net={}: hotfix accepted {} A, vanilla would accept {} A ({} divergent calls since last report, {} of {} total; the vanilla simulation assumes overvolted cables survive)",
+                s.id, hotfixAmps, vanillaAmps, shadow.divergentSinceLog, shadow.divergentCalls, shadow.calls);
+        shadow.lastLogTick = tick;
+        shadow.divergentSinceLog = 0;
+    }
+}
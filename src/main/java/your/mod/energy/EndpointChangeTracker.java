@@ -1,10 +1,12 @@
 package your.mod.energy;
 
 import com.gregtechceu.gtceu.common.pipelike.cable.EnergyNet;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.block.entity.BlockEntity;
 
+import java.util.Map;
 import java.util.WeakHashMap;
 
 /**
@@ -44,6 +46,23 @@ public final class EndpointChangeTracker {
         return true;
     }
 
+    /**
+     * {@code to} took over the cable nodes in {@code nodes} from {@code from}: copy the identities tracked next
+     * to them, so the first update there is not mistaken for an endpoint change.
+     */
+    public static void handoff(EnergyNet from, EnergyNet to, Map<BlockPos, ?> nodes) {
+        final Long2ObjectOpenHashMap<BlockEntity> src;
+        synchronized (LAST_BE) {
+            src = LAST_BE.get(from);
+        }
+        if (src == null || src.isEmpty()) return;
+        final Long2ObjectOpenHashMap<BlockEntity> dst = map(to);
+        for (Long2ObjectMap.Entry<BlockEntity> e : src.long2ObjectEntrySet()) {
+            final long key = e.getLongKey();
+            if (!dst.containsKey(key) && NetHandoff.touches(nodes, BlockPos.of(key))) dst.put(key, e.getValue());
+        }
+    }
+
     public static void clear(EnergyNet net) {
         synchronized (LAST_BE) {
             LAST_BE.remove(net);
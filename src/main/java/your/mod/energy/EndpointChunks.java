@@ -0,0 +1,115 @@
+package your.mod.energy;
+
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.level.ChunkTicketLevelUpdatedEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import your.mod.config.HotfixConfig;
+
+/**
+ * Ticking status of the chunks energy routes end in ({@link HotfixConfig#parkNonTickingEndpoints}).
+ *
+ * A route whose endpoint chunk does not tick block entities (a chunk-loaded stub at the edge of a ticket,
+ * or an unloaded chunk whose {@code getBlockEntity} would load it) is parked: the delivery engine skips it in
+ * both passes without spending probe budget, so it also drops out of the active set. Status is queried from
+ * the level once per chunk and cached; Forge ticket-level changes and chunk unloads of known chunks refresh
+ * it, and a chunk becoming ticking again wakes the sleeping nets that feed it. Entries are also re-queried
+ * after {@link #RECHECK_TICKS}, which covers simulation-distance changes that fire no ticket event.
+ *
+ * Only chunks that routes were checked against are tracked. Server thread only.
+ */
+@Mod.EventBusSubscriber(modid = "gtceuenergynethotfix", bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class EndpointChunks {
+
+    private EndpointChunks() {}
+
+    /** Cached status is re-queried after this many ticks. */
+    public static final int RECHECK_TICKS = 20;
+
+    /** Per-level: chunkPosLong -> (tick of last query << 1) | parked bit. */
+    private static final Object2ObjectOpenHashMap<Level, Long2LongOpenHashMap> PER_LEVEL =
+            new Object2ObjectOpenHashMap<>();
+
+    private static final long UNKNOWN = -1L;
+
+    private static Level lastLevel;
+    private static Long2LongOpenHashMap lastMap;
+
+    private static Long2LongOpenHashMap map(Level level) {
+        if (level == lastLevel && lastMap != null) return lastMap;
+        Long2LongOpenHashMap map = PER_LEVEL.get(level);
+        if (map == null) {
+            map = new Long2LongOpenHashMap();
+            map.defaultReturnValue(UNKNOWN);
+            PER_LEVEL.put(level, map);
+        }
+        lastLevel = level;
+        lastMap = map;
+        return map;
+    }
+
+    /** @return true if the chunk of {@code endpointPos} does not tick block entities (or is not loaded) */
+    public static boolean isParked(Level level, BlockPos endpointPos, long tick) {
+        final long chunk = ChunkPos.asLong(endpointPos.getX() >> 4, endpointPos.getZ() >> 4);
+        final Long2LongOpenHashMap map = map(level);
+        final long state = map.get(chunk);
+        if (state != UNKNOWN && tick - (state >> 1) < RECHECK_TICKS) return (state & 1L) != 0L;
+
+        // Distance-manager lookup only: never loads the chunk.
+        final boolean parked = !level.shouldTickBlocksAt(chunk);
+        map.put(chunk, (tick << 1) | (parked ? 1L : 0L));
+        return parked;
+    }
+
+    /**
+     * Ticket level of a known chunk changed: drop its status so the next check re-queries it, and wake
+     * sleeping nets that feed a parked chunk (it may tick again).
+     */
+    @SubscribeEvent
+    public static void onTicketLevelUpdated(ChunkTicketLevelUpdatedEvent event) {
+        final Long2LongOpenHashMap map = PER_LEVEL.get(event.getLevel());
+        if (map == null) return;
+        final long state = map.remove(event.getChunkPos());
+        if (state != UNKNOWN && (state & 1L) != 0L) {
+            final long chunk = event.getChunkPos();
+            NetSleep.onChunkChanged(event.getLevel(), ChunkPos.getX(chunk), ChunkPos.getZ(chunk));
+        }
+    }
+
+    /** A known chunk unloaded: park it right away (its block entities are gone until it loads again). */
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event) {
+        if (!(event.getLevel() instanceof ServerLevel level)) return;
+        final Long2LongOpenHashMap map = PER_LEVEL.get(level);
+        if (map == null) return;
+        final long chunk = event.getChunk().getPos().toLong();
+        final long state = map.get(chunk);
+        if (state != UNKNOWN) map.put(chunk, state | 1L);
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            PER_LEVEL.remove(level);
+            if (level == lastLevel) {
+                lastLevel = null;
+                lastMap = null;
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        PER_LEVEL.clear();
+        lastLevel = null;
+        lastMap = null;
+    }
+}
@@ -2,13 +2,16 @@ package your.mod.energy;
 
 import com.gregtechceu.gtceu.common.pipelike.cable.EnergyNet;
 import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.LevelAccessor;
+import your.mod.config.HotfixConfig;
 
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -16,6 +19,17 @@ import java.util.Map;
  *
  * Designed to answer: "how many times per tick are we scanning routes / recomputing sinks / rebuilding net data?"
  * Uses an EWMA (exponentially weighted moving average) to avoid storing long histories.
+ *
+ * Counters: a producer call counts its route checks, sink computes and probes in locals (the handler's
+ * {@link NetDeliveryAdapter}) and flushes them with one {@link #recordCall} at the end, so the hot path does
+ * one map lookup per counted call instead of one per route. With
+ * {@link HotfixConfig#counterSampleInterval} N > 1 only one call in N is counted and its values are scaled by
+ * N; 0 turns counting off (a static check per call). Stats entries are created by counted calls, so timings,
+ * allocation and starvation figures only appear for nets that are counted.
+ *
+ * Timings: delivery calls are timed 1-in-{@link HotfixConfig#timingSampleInterval} (nanoTime pairs only on
+ * sampled calls), rebuilds and the tick-end apply always. Values go into fixed-size {@link LatencyHistogram}s
+ * per net, accumulated since the last {@link #resetTimings}.
  */
 public final class EnergyNetDebugStats {
 
@@ -26,6 +40,15 @@ public final class EnergyNetDebugStats {
     private static final Reference2ObjectOpenHashMap<EnergyNet, NetStats> STATS = new Reference2ObjectOpenHashMap<>();
 
     public static final class NetStats {
+        /**
+         * Stable net id (see {@link #identify}): hash of dimension + {@link #anchor}, so the same cable network
+         * keeps its id across net rebuilds, merges that keep the anchor, and server restarts. "?" until identified.
+         */
+        public String id = "?";
+        /** Representative pipe position: the net's node with the lowest packed position (null until identified). */
+        public BlockPos anchor;
+        private int anchorNodes = -1;
+
         public long lastTick = -1L;
 
         public int curAcceptCalls;
@@ -40,6 +63,43 @@ public final class EnergyNetDebugStats {
 
         public ResourceKey<Level> lastDim;
 
+        // Monotonic totals since the net was first seen (metrics export).
+        public long totalAcceptCalls;
+        public long totalRouteChecks;
+        public long totalSinkComputes;
+        public long totalNetRebuilds;
+        public long totalProbes;
+        public long totalAcceptedAmps;
+        public long totalAcceptedEu;
+
+        /** Sampled delivery call latency (inclusive: route rebuilds and nested deliveries it triggers). */
+        public final LatencyHistogram deliveryNanos = new LatencyHistogram();
+        /** Route rebuild (createNetData) latency. */
+        public final LatencyHistogram rebuildNanos = new LatencyHistogram();
+        /** Estimated total delivery time since {@link #timingSinceTick} (sampled calls scaled up). */
+        public long estimatedNanos;
+        public long timingSinceTick = -1L;
+
+        // Heap allocation ({@link AllocationSampler}), since timingSinceTick.
+        public long deliveryAllocSamples;
+        public long deliveryAllocBytes;
+        /** Sampled delivery bytes scaled by the sample interval. */
+        public long estimatedDeliveryAllocBytes;
+        public long rebuildAllocSamples;
+        public long rebuildAllocBytes;
+
+        // Unmet demand / starvation, since timingSinceTick.
+        /** Ticks in which producer offers ran out of probe budget with routes unvisited. */
+        public long budgetStarvedTicks;
+        /** Amps left undelivered by those offers. */
+        public long unmetAmps;
+        /** Endpoint feeds one tick after the previous feed (continuously fed). */
+        public long fedContinuous;
+        /** Ticks since the previous feed for endpoints fed again after a gap of 2+ ticks. */
+        public final LatencyHistogram fedGapTicks = new LatencyHistogram();
+        /** Ticks the net was active (any producer call). */
+        public long activeTicks;
+
         private void roll(long tick) {
             if (lastTick == -1L) {
                 lastTick = tick;
@@ -53,6 +113,8 @@ public final class EnergyNetDebugStats {
             avgSinkComputes = avgSinkComputes * (1.0 - ALPHA) + curSinkComputes * ALPHA;
             avgNetRebuilds = avgNetRebuilds * (1.0 - ALPHA) + curNetRebuilds * ALPHA;
 
+            activeTicks++;
+
             curAcceptCalls = 0;
             curRouteChecks = 0;
             curSinkComputes = 0;
@@ -62,11 +124,24 @@ public final class EnergyNetDebugStats {
         }
     }
 
+    // Tick-end work not attributable to one net (amperage apply, heat batch), one sample per server tick.
+    private static final LatencyHistogram TICK_END_NANOS = new LatencyHistogram();
+    private static long tickEndSinceTick = -1L;
+    private static long tickEndTick = -1L;
+    private static long tickEndAccum;
+
+    private static int deliverySampleCounter;
+    private static int callSampleCounter;
+
+    // Set while a profile capture runs: time every call, rebuilds and tick-end even with timings off.
+    private static boolean fullTiming;
+
     private static NetStats get(EnergyNet net, Level level) {
         final long tick = level.getGameTime();
         NetStats s = STATS.get(net);
         if (s == null) {
             s = new NetStats();
+            s.timingSinceTick = tick;
             STATS.put(net, s);
         }
         s.lastDim = level.dimension();
@@ -74,20 +149,201 @@ public final class EnergyNetDebugStats {
         return s;
     }
 
-    public static void recordAccept(EnergyNet net, Level level) {
-        get(net, level).curAcceptCalls++;
+    private static boolean countersOn() {
+        return fullTiming || HotfixConfig.counterSampleInterval > 0;
     }
 
-    public static void recordRouteCheck(EnergyNet net, Level level) {
-        get(net, level).curRouteChecks++;
+    /**
+     * Decide whether the producer call about to run is counted.
+     *
+     * @return weight to pass to {@link #recordCall} (the sample interval, 1 while a profile capture runs), or 0
+     *         when this call is not counted
+     */
+    public static int callWeight() {
+        if (!HotfixConfig.instrumentation) return 0;
+        if (fullTiming) return 1;
+        final int interval = HotfixConfig.counterSampleInterval;
+        if (interval <= 1) return interval;
+        if (++callSampleCounter < interval) return 0;
+        callSampleCounter = 0;
+        return interval;
     }
 
-    public static void recordSinkCompute(EnergyNet net, Level level) {
-        get(net, level).curSinkComputes++;
+    /**
+     * Flush the counters of one counted producer call: route checks, sink recomputes and probe budget used,
+     * and amps accepted at the source voltage. Every value is scaled by {@code weight}.
+     */
+    public static void recordCall(EnergyNet net, Level level, int weight, int routeChecks, int sinkComputes,
+                                  int probes, long acceptedAmps, long voltage) {
+        final NetStats s = get(net, level);
+        s.curAcceptCalls += weight;
+        s.curRouteChecks += routeChecks * weight;
+        s.curSinkComputes += sinkComputes * weight;
+        s.totalAcceptCalls += weight;
+        s.totalRouteChecks += (long) routeChecks * weight;
+        s.totalSinkComputes += (long) sinkComputes * weight;
+        s.totalProbes += (long) probes * weight;
+        s.totalAcceptedAmps += acceptedAmps * weight;
+        s.totalAcceptedEu += acceptedAmps * voltage * weight;
     }
 
     public static void recordNetRebuild(EnergyNet net, Level level) {
-        get(net, level).curNetRebuilds++;
+        if (!countersOn()) return;
+        final NetStats s = get(net, level);
+        s.curNetRebuilds++;
+        s.totalNetRebuilds++;
+    }
+
+    /** Stats for a net, created if needed (debug tooling that must see nets whose calls are not counted). */
+    public static NetStats track(EnergyNet net, Level level) {
+        return get(net, level);
+    }
+
+    /** A tick ended with {@code amps} left undelivered behind an exhausted probe budget. */
+    public static void recordUnmetDemand(EnergyNet net, long amps) {
+        if (!countersOn()) return;
+        final NetStats s = STATS.get(net);
+        if (s == null) return;
+        s.budgetStarvedTicks++;
+        s.unmetAmps += amps;
+    }
+
+    /**
+     * An endpoint was fed {@code ticksSinceLastFed} ticks after its previous feed. Gaps of every endpoint of the
+     * net go into one histogram (per-endpoint histograms would cost a histogram per sink); the last-fed tick itself
+     * is tracked per sink key on its {@link SinkState}.
+     */
+    public static void recordFed(EnergyNet net, long ticksSinceLastFed) {
+        if (!countersOn()) return;
+        final NetStats s = STATS.get(net);
+        if (s == null) return;
+        if (ticksSinceLastFed <= 1) {
+            s.fedContinuous++;
+        } else {
+            s.fedGapTicks.record(ticksSinceLastFed);
+        }
+    }
+
+    /**
+     * Start timing a delivery call if it is sampled.
+     *
+     * @return start nanoTime, or 0 when this call is not sampled (or timings are off)
+     */
+    public static long beginDeliveryTiming() {
+        if (fullTiming) return System.nanoTime();
+        final int interval = HotfixConfig.timingSampleInterval;
+        if (interval <= 0) return 0L;
+        if (++deliverySampleCounter < interval) return 0L;
+        deliverySampleCounter = 0;
+        return System.nanoTime();
+    }
+
+    public static void endDeliveryTiming(EnergyNet net, long start) {
+        if (start == 0L) return;
+        final long nanos = System.nanoTime() - start;
+        final NetStats s = STATS.get(net);
+        if (s == null) return;
+        s.deliveryNanos.record(nanos);
+        s.estimatedNanos += fullTiming ? nanos : nanos * Math.max(1, HotfixConfig.timingSampleInterval);
+    }
+
+    /** @return start nanoTime for a route rebuild, or 0 when timings are off */
+    public static long beginRebuildTiming() {
+        return (fullTiming || HotfixConfig.timingSampleInterval > 0) ? System.nanoTime() : 0L;
+    }
+
+    public static void endRebuildTiming(EnergyNet net, long start) {
+        if (start == 0L || net == null) return;
+        final long nanos = System.nanoTime() - start;
+        final NetStats s = STATS.get(net);
+        if (s == null) return;
+        s.rebuildNanos.record(nanos);
+    }
+
+    /** @return start nanoTime for tick-end work, or 0 when timings are off */
+    public static long beginTickEndTiming() {
+        return (fullTiming || HotfixConfig.timingSampleInterval > 0) ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * @param tick server tick count; all tick-end sections of one tick are summed into one sample
+     */
+    public static void endTickEndTiming(long start, long tick) {
+        if (start == 0L) return;
+        final long nanos = System.nanoTime() - start;
+        if (tick != tickEndTick) {
+            if (tickEndTick >= 0) TICK_END_NANOS.record(tickEndAccum);
+            if (tickEndSinceTick < 0) tickEndSinceTick = tick;
+            tickEndTick = tick;
+            tickEndAccum = 0L;
+        }
+        tickEndAccum += nanos;
+    }
+
+    public static LatencyHistogram tickEndTimings() {
+        return TICK_END_NANOS;
+    }
+
+    /** First tick covered by {@link #tickEndTimings()} (-1 if nothing recorded yet). */
+    public static long tickEndSinceTick() {
+        return tickEndSinceTick;
+    }
+
+    /** Clear all timing histograms, allocation samples and starvation counters; per-net accumulation restarts at {@code tick} (level game time). */
+    public static void resetTimings(long tick) {
+        for (NetStats s : STATS.values()) {
+            s.deliveryNanos.reset();
+            s.rebuildNanos.reset();
+            s.estimatedNanos = 0L;
+            s.deliveryAllocSamples = 0L;
+            s.deliveryAllocBytes = 0L;
+            s.estimatedDeliveryAllocBytes = 0L;
+            s.rebuildAllocSamples = 0L;
+            s.rebuildAllocBytes = 0L;
+            s.budgetStarvedTicks = 0L;
+            s.unmetAmps = 0L;
+            s.fedContinuous = 0L;
+            s.fedGapTicks.reset();
+            s.activeTicks = 0L;
+            s.timingSinceTick = tick;
+        }
+        AllocationSampler.reset();
+        TICK_END_NANOS.reset();
+        tickEndSinceTick = -1L;
+        tickEndTick = -1L;
+        tickEndAccum = 0L;
+    }
+
+    /** Snapshot top nets by estimated time spent (descending). */
+    public static List<Map.Entry<EnergyNet, NetStats>> topByTime(int limit) {
+        final ArrayList<Map.Entry<EnergyNet, NetStats>> list = new ArrayList<>(STATS.entrySet());
+        list.sort(Comparator.comparingLong((Map.Entry<EnergyNet, NetStats> e) -> e.getValue().estimatedNanos).reversed());
+        if (list.size() > limit) {
+            return new ArrayList<>(list.subList(0, limit));
+        }
+        return list;
+    }
+
+    /** Snapshot top nets by estimated delivery + rebuild allocation (descending). */
+    public static List<Map.Entry<EnergyNet, NetStats>> topByAllocation(int limit) {
+        final ArrayList<Map.Entry<EnergyNet, NetStats>> list = new ArrayList<>(STATS.entrySet());
+        list.sort(Comparator.comparingLong((Map.Entry<EnergyNet, NetStats> e) ->
+                e.getValue().estimatedDeliveryAllocBytes + e.getValue().rebuildAllocBytes).reversed());
+        if (list.size() > limit) {
+            return new ArrayList<>(list.subList(0, limit));
+        }
+        return list;
+    }
+
+    /** Snapshot top nets by ticks with unmet demand, then by unmet amps (descending). */
+    public static List<Map.Entry<EnergyNet, NetStats>> topByStarvation(int limit) {
+        final ArrayList<Map.Entry<EnergyNet, NetStats>> list = new ArrayList<>(STATS.entrySet());
+        list.sort(Comparator.comparingLong((Map.Entry<EnergyNet, NetStats> e) -> e.getValue().budgetStarvedTicks)
+                .thenComparingLong(e -> e.getValue().unmetAmps).reversed());
+        if (list.size() > limit) {
+            return new ArrayList<>(list.subList(0, limit));
+        }
+        return list;
     }
 
     /** Snapshot top nets by avgRouteChecks (descending). */
@@ -100,6 +356,73 @@ public final class EnergyNetDebugStats {
         return list;
     }
 
+    /**
+     * Time and count every delivery call instead of 1 in N (profile capture). Estimates stay comparable:
+     * sampled calls are scaled by N, fully measured calls count once.
+     */
+    public static void setFullTiming(boolean enabled) {
+        fullTiming = enabled;
+        deliverySampleCounter = 0;
+        callSampleCounter = 0;
+    }
+
+    /**
+     * Refresh the stable id / anchor of a tracked net. O(nodes), but only when the node count changed or the
+     * anchor pipe is gone, so debug output and metrics can call it every time. Not used on the hot path.
+     */
+    public static void identify(EnergyNet net, NetStats s) {
+        final Map<BlockPos, ?> nodes = net.getAllNodes();
+        if (s.anchor != null && s.anchorNodes == nodes.size() && nodes.containsKey(s.anchor)) return;
+        final String previous = s.id;
+
+        long min = Long.MAX_VALUE;
+        BlockPos anchor = null;
+        for (BlockPos pos : nodes.keySet()) {
+            final long packed = pos.asLong();
+            if (anchor == null || packed < min) {
+                min = packed;
+                anchor = pos;
+            }
+        }
+        s.anchorNodes = nodes.size();
+        s.anchor = (anchor == null) ? null : anchor.immutable();
+        if (anchor == null) {
+            s.id = "?";
+            return;
+        }
+        final String dim = (s.lastDim == null) ? "" : s.lastDim.location().toString();
+        long h = dim.hashCode() * 0x9E3779B97F4A7C15L ^ min;
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        s.id = String.format(Locale.ROOT, "%08x", (int) (h ^ (h >>> 32)));
+        // A pipe placed below the anchor (or the anchor removed) changes the id: mode overrides follow the net.
+        if (!"?".equals(previous) && !previous.equals(s.id) && DeliveryModes.hasOverride(previous)) {
+            DeliveryModes.rekey(previous, s.id, isIdentifiedAs(previous, net));
+        }
+    }
+
+    /** @return true if a net other than {@code net} that still has pipes was last identified as {@code id} */
+    private static boolean isIdentifiedAs(String id, EnergyNet net) {
+        for (Map.Entry<EnergyNet, NetStats> e : STATS.entrySet()) {
+            if (e.getKey() != net && id.equals(e.getValue().id) && !e.getKey().getAllNodes().isEmpty()) return true;
+        }
+        return false;
+    }
+
+    /** Stats for a net, or null if it has not been seen yet. */
+    public static NetStats peek(EnergyNet net) {
+        return STATS.get(net);
+    }
+
+    /** Snapshot of all tracked nets. */
+    public static List<Map.Entry<EnergyNet, NetStats>> all() {
+        return new ArrayList<>(STATS.entrySet());
+    }
+
+    /** Drop stats of nets that no longer have any pipe, so the map does not grow with every topology change. */
+    public static void pruneEmptyNets() {
+        NetHandoff.pruneDeadNets(STATS);
+    }
+
     public static int trackedNetCount() {
         return STATS.size();
     }
@@ -20,7 +20,8 @@ import net.minecraft.world.level.block.entity.BlockEntity;
  *
  * Correctness:
  *  - Validity is guarded by BlockEntity identity. If the BE instance at the endpoint changes, we refresh.
- *  - The cache is cleared (or locally invalidated) on net-dirty signals (neighbor updates / BE change tracker).
+ *  - Neighbor updates invalidate locally; a dirty-net rebuild only revalidates ({@link #revalidate}): the map is
+ *    kept, and each entry resolves its handler and static sink properties again on its first use afterwards.
  */
 public final class HandlerCache {
 
@@ -43,10 +44,13 @@ public final class HandlerCache {
         public final boolean inputsEnergy;
         public final long inputAmps;
         public final long inputVoltage;
+        public final boolean isFeWrapper;
+        private final int generation;
 
-        private Entry(BlockEntity be, IEnergyContainer handler, Direction insertSide) {
+        private Entry(BlockEntity be, IEnergyContainer handler, Direction insertSide, int generation) {
             this.be = be;
             this.handler = handler;
+            this.generation = generation;
 
             boolean inputs = false;
             long amps = 0;
@@ -70,11 +74,14 @@ public final class HandlerCache {
             this.inputsEnergy = inputs;
             this.inputAmps = amps;
             this.inputVoltage = inV;
+            this.isFeWrapper = SinkState.isFeWrapper(handler);
         }
     }
 
     private static final class PerNet {
         final Long2ObjectOpenHashMap<Entry> map = new Long2ObjectOpenHashMap<>();
+        // Bumped by revalidate(): older entries are resolved again on next use.
+        int generation;
     }
 
     private static PerNet perNet(EnergyNet net) {
@@ -93,22 +100,25 @@ public final class HandlerCache {
 
     /**
      * Get a cached handler entry for an endpoint. Refreshes if the endpoint BlockEntity instance changed.
+     *
+     * @param key {@link KeyUtil#packPosSide} of endpointPos + insertSide (precomputed per route).
      */
-    public static Entry get(EnergyNet net, Level level, BlockPos endpointPos, Direction insertSide, EnergyRoutePath path) {
-        long key = KeyUtil.packPosSide(endpointPos, insertSide);
+    public static Entry get(EnergyNet net, Level level, BlockPos endpointPos, Direction insertSide, long key,
+                            EnergyRoutePath path) {
         PerNet pn = perNet(net);
 
         Entry cached = pn.map.get(key);
 
         BlockEntity currentBe = level.getBlockEntity(endpointPos);
-        if (cached != null && cached.be == currentBe) {
+        if (cached != null && cached.be == currentBe && cached.generation == pn.generation) {
             return cached;
         }
 
-        // Refresh: resolve via route path (internally does the capability lookup).
+        // Refresh (new BE, or first use after a rebuild / handoff: a BE may hand out a different capability
+        // once its neighbours changed): resolve via route path (internally does the capability lookup).
         IEnergyContainer handler = path.getHandler(level);
 
-        Entry fresh = new Entry(currentBe, handler, insertSide);
+        Entry fresh = new Entry(currentBe, handler, insertSide, pn.generation);
         pn.map.put(key, fresh);
         return fresh;
     }
@@ -138,6 +148,21 @@ public final class HandlerCache {
         }
     }
 
+    /**
+     * Dirty-net rebuild: keep the entries but resolve each one again on its next use, instead of dropping the
+     * map and rebuilding it from scratch.
+     */
+    public static void revalidate(EnergyNet net) {
+        final PerNet pn = PER_NET.get(net);
+        if (pn != null) pn.generation++;
+    }
+
+    /** Number of cached handler entries for a net (0 if none). */
+    public static int size(EnergyNet net) {
+        final PerNet pn = PER_NET.get(net);
+        return pn == null ? 0 : pn.map.size();
+    }
+
     /** Full clear for a given net (optional utility). */
     public static void clear(EnergyNet net) {
         if (net == null) return;
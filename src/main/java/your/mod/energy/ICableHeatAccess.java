@@ -0,0 +1,17 @@
+package your.mod.energy;
+
+/**
+ * Mixin-injected accessor for GTCEu's private cable heat tick ({@code CableBlockEntity#update}).
+ *
+ * <p>Implemented by {@code CableBlockEntityHeatMixin} so {@link CableHeatScheduler} can drive heating,
+ * cooling and melting for all hot cables from one batch instead of one server-tick subscription per cable.</p>
+ */
+public interface ICableHeatAccess {
+
+    /**
+     * Run one vanilla heat step (apply queued heat, melt, uninsulate or cool down).
+     *
+     * @return true if the cable is still hot and must be ticked again next tick.
+     */
+    boolean gtceuHotfix$tickHeat();
+}
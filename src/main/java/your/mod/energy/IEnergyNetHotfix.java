@@ -0,0 +1,36 @@
+package your.mod.energy;
+
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyRoutePath;
+import net.minecraft.core.BlockPos;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mixin-injected accessor for hotfix state stored on GTCEu's EnergyNet (see {@code EnergyNetMixin}).
+ */
+public interface IEnergyNetHotfix {
+
+    /**
+     * Mark the net dirty: once the topology debounce window has settled, the next getNetData() call performs
+     * one global route invalidation (NET_DATA + handler/sink caches) and routes are rebuilt lazily.
+     */
+    void gtceuHotfix$markDirty();
+
+    /**
+     * @return true while the net is dirty but its rebuild is debounced, i.e. cached routes may reference
+     *         cables that have since been removed and must be filtered by the caller.
+     */
+    boolean gtceuHotfix$isServingStale();
+
+    /** Live view of the net's cached routes (pipePos -> routes). Server thread only; do not mutate. */
+    Map<BlockPos, List<EnergyRoutePath>> gtceuHotfix$getNetData();
+
+    /** Delivery mode resolved for this net by {@link DeliveryModes} (null until first resolved). */
+    DeliveryModes.Mode gtceuHotfix$getDeliveryMode();
+
+    /** {@link DeliveryModes} override generation {@link #gtceuHotfix$getDeliveryMode()} was resolved for. */
+    int gtceuHotfix$getDeliveryModeGeneration();
+
+    void gtceuHotfix$setDeliveryMode(DeliveryModes.Mode mode, int generation);
+}
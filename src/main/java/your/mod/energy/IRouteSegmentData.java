@@ -1,5 +1,11 @@
 package your.mod.energy;
 
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyRoutePath;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+
+import java.util.List;
+
 /**
  * Mixin-injected accessor for cached per-segment route data stored on GTCEu's EnergyRoutePath.
  *
@@ -22,4 +28,40 @@ public interface IRouteSegmentData {
     long[] gtceuHotfix$getMaxVoltage();
 
     int[] gtceuHotfix$getLossPerBlock();
+
+    /**
+     * Endpoint (machine) position: {@code targetPipePos.relative(targetFacing)}. Computed once per route
+     * (when segment data is populated, or lazily on first use) so delivery never allocates a BlockPos.
+     */
+    BlockPos gtceuHotfix$getEndpointPos();
+
+    /** Insert side on the endpoint: {@code targetFacing.getOpposite()}. */
+    Direction gtceuHotfix$getInsertSide();
+
+    /** Packed sink key ({@link KeyUtil#packPosSide}) of endpoint + insert side, used by SinkCache/HandlerCache. */
+    long gtceuHotfix$getSinkKey();
+
+    /**
+     * Uniform-voltage classification of the route list this route heads ({@code UniformRoutes}): stored on the
+     * first route of each list when the list is built. -1 = not classified yet, 0 = not uniform.
+     */
+    long gtceuHotfix$getListUniformVoltage();
+
+    void gtceuHotfix$setListUniformVoltage(long voltage);
+
+    /**
+     * Other routes to the same sink, best first ({@code RouteGroups}); set on the route that represents the group
+     * in its list, null for routes without alternates.
+     */
+    EnergyRoutePath[] gtceuHotfix$getAlternates();
+
+    void gtceuHotfix$setAlternates(EnergyRoutePath[] alternates);
+
+    /**
+     * The walker's route list before {@code RouteGroups} collapsed it (every endpoint face, walker order): stored
+     * on the first route of a collapsed list for the vanilla loop, null otherwise.
+     */
+    List<EnergyRoutePath> gtceuHotfix$getWalkerOrder();
+
+    void gtceuHotfix$setWalkerOrder(List<EnergyRoutePath> routes);
 }
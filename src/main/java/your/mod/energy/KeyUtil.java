@@ -17,6 +17,14 @@ public final class KeyUtil {
         return (pos.asLong() << 3) | (side.ordinal() & 7L);
     }
 
+    /**
+     * Position of a {@link #packPosSide} / {@link #packPos} key. The shift drops the top bits of X, so this is
+     * exact only for |x| below 2^22; callers must treat it as a hint.
+     */
+    public static BlockPos unpackPos(long key) {
+        return BlockPos.of(key >> 3);
+    }
+
     /** Mix two longs into one reasonably well-distributed long key. */
     public static long mix(long a, long b) {
         long x = a ^ (b + 0x9E3779B97F4A7C15L + (a << 6) + (a >> 2));
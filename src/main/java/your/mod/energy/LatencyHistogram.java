@@ -0,0 +1,84 @@
+package your.mod.energy;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size log-scale latency histogram (nanoseconds).
+ *
+ * Buckets are powers of two split into 4 linear sub-buckets, so any recorded value is reported with at most
+ * ~25% relative error, from 1 ns to 2^63 ns, in 248 int counters (~1 KB) with no allocation on record.
+ * The unit is only a convention: starvation telemetry records tick gaps in the same structure.
+ * Server-thread only.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 2;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+    private final int[] counts = new int[BUCKETS];
+    private long count;
+    private long sumNanos;
+    private long maxNanos;
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts[index(nanos)]++;
+        count++;
+        sumNanos += nanos;
+        if (nanos > maxNanos) maxNanos = nanos;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /** Sum of all recorded values. */
+    public long sumNanos() {
+        return sumNanos;
+    }
+
+    public long maxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * @param q quantile in [0, 1]
+     * @return upper bound of the bucket holding the q-quantile (capped at the recorded max); 0 when empty
+     */
+    public long percentile(double q) {
+        if (count == 0) return 0L;
+        final long rank = Math.max(1L, (long) Math.ceil(q * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sumNanos = 0;
+        maxNanos = 0;
+    }
+
+    static int index(long v) {
+        if (v < SUB_COUNT) return (int) v;
+        final int exp = 63 - Long.numberOfLeadingZeros(v);
+        final int mant = (int) (v >>> (exp - SUB_BITS)) & (SUB_COUNT - 1);
+        return ((exp - SUB_BITS + 1) << SUB_BITS) | mant;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_COUNT) return index;
+        final int exp = (index >>> SUB_BITS) + SUB_BITS - 1;
+        final long mant = index & (SUB_COUNT - 1);
+        final long width = 1L << (exp - SUB_BITS);
+        final long lower = (SUB_COUNT + mant) * width;
+        return lower + width - 1;
+    }
+}
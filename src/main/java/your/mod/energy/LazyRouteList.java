@@ -0,0 +1,271 @@
+package your.mod.energy;
+
+import com.gregtechceu.gtceu.api.capability.forge.GTCapability;
+import com.gregtechceu.gtceu.api.data.chemical.material.properties.WireProperties;
+import com.gregtechceu.gtceu.common.blockentity.CableBlockEntity;
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyNet;
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyRoutePath;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectHeapPriorityQueue;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraftforge.common.capabilities.ForgeCapabilities;
+import your.mod.config.HotfixConfig;
+import your.mod.energy.core.UniformRoutes;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Route list of one producer pipe that is walked lazily, in order of accumulated loss (then path length, then
+ * cable position and face), instead of enumerating every endpoint of the net up front in
+ * {@code EnergyNetWalker.createNetData}.
+ * Enabled by {@link HotfixConfig#lazyRoutes}; built by {@code EnergyNetMixin} in place of the walker.
+ *
+ * The list is a plain {@link ArrayList} holding the routes materialized so far (the cached prefix, kept in
+ * NET_DATA like any route list); the walk frontier stays attached until the net is exhausted. The delivery
+ * engine asks for more ({@link #expand}) only when an offer has tried every materialized route and still has
+ * amps left, so producers next to their consumers never walk the far side of a large net.
+ *
+ * Each endpoint face is reached over its lowest-loss path; GTCEu's walker keeps the first path it finds.
+ * Sinks are detected like the walker does (GT energy container, else Forge energy as in
+ * {@code EnergyNetWalkerMixin}). Segment data and the uniform classification are filled in per batch; routes to
+ * a sink that already has a route are folded into its group ({@link RouteGroups}) and do not count as new.
+ * With {@link HotfixConfig#regionRouting} the walk runs over the net's cached {@link RegionGraph} instead of
+ * cable by cable ({@link RegionWalk}); routes come out in the same order.
+ *
+ * Callers that need every route at once (the vanilla loop, shadow mode) use {@link #fullWalk}: a separate,
+ * complete walk without groups, cached with this list, so they never grow the prefix the engine works on.
+ */
+public final class LazyRouteList extends ArrayList<EnergyRoutePath> {
+
+    /** Routes materialized when the list is built and per expansion (at least; all faces of a pipe go together). */
+    public static final int BATCH = 32;
+
+    // Ties by position: equal-loss routes come out in the same order as from RegionWalk.
+    private static final Comparator<Step> ORDER = (a, b) -> a.loss != b.loss
+            ? Long.compare(a.loss, b.loss)
+            : a.depth != b.depth ? Integer.compare(a.depth, b.depth) : Long.compare(a.pos, b.pos);
+
+    /** A pipe reached by the walk; parents form the path back to the producer pipe. */
+    private static final class Step {
+        final CableBlockEntity cable;
+        final Step parent;
+        final long pos;
+        final long loss;
+        final int depth;
+
+        Step(CableBlockEntity cable, Step parent) {
+            this.cable = cable;
+            this.parent = parent;
+            this.pos = cable.getPipePos().asLong();
+            final WireProperties props = (WireProperties) cable.getNodeData();
+            final long own = (props == null) ? 0L : props.getLossPerBlock();
+            this.loss = (parent == null) ? own : parent.loss + own;
+            this.depth = (parent == null) ? 1 : parent.depth + 1;
+        }
+    }
+
+    private final EnergyNet net;
+    private final BlockPos pipePos;
+    // False for a full walk: every endpoint face keeps its own route.
+    private final boolean grouped;
+    private ObjectHeapPriorityQueue<Step> frontier;
+    private LongOpenHashSet settled;
+    private RegionWalk regions;
+    private boolean complete;
+    private Long2IntOpenHashMap groups = RouteGroups.newIndex();
+    private long uniformVoltage = UniformRoutes.UNDECIDED;
+    // Set once a route was folded into a group: the list no longer holds every endpoint face.
+    private boolean folded;
+    private List<EnergyRoutePath> fullWalk;
+
+    private LazyRouteList(EnergyNet net, BlockPos pipePos, boolean grouped, CableBlockEntity source) {
+        this.net = net;
+        this.pipePos = pipePos;
+        this.grouped = grouped;
+        this.frontier = new ObjectHeapPriorityQueue<>(ORDER);
+        this.settled = new LongOpenHashSet();
+        this.frontier.enqueue(new Step(source, null));
+    }
+
+    private LazyRouteList(EnergyNet net, BlockPos pipePos, boolean grouped, RegionWalk regions) {
+        this.net = net;
+        this.pipePos = pipePos;
+        this.grouped = grouped;
+        this.regions = regions;
+    }
+
+    /**
+     * Build the route list of {@code pipePos} with its first {@link #BATCH} routes.
+     *
+     * @return null if the producer pipe is gone (like a failed walk, GTCEu does not cache it)
+     */
+    public static LazyRouteList create(EnergyNet net, BlockPos pipePos) {
+        final Level level = net.getLevel();
+        if (level == null) return null;
+        if (!(level.getBlockEntity(pipePos) instanceof CableBlockEntity source)) return null;
+
+        EnergyNetDebugStats.recordNetRebuild(net, level);
+        final long perf = PerfProbe.begin(PerfProbe.Section.REBUILD);
+        final long timing = EnergyNetDebugStats.beginRebuildTiming();
+        try {
+            final LazyRouteList routes = start(net, level, pipePos, source, true);
+            routes.expand(BATCH);
+            return routes;
+        } finally {
+            EnergyNetDebugStats.endRebuildTiming(net, timing);
+            PerfProbe.end(PerfProbe.Section.REBUILD, perf);
+        }
+    }
+
+    private static LazyRouteList start(EnergyNet net, Level level, BlockPos pipePos, CableBlockEntity source,
+                                       boolean grouped) {
+        final RegionWalk walk = HotfixConfig.regionRouting
+                ? RegionWalk.start(RegionGraph.of(net), level, pipePos)
+                : null;
+        return (walk != null)
+                ? new LazyRouteList(net, pipePos, grouped, walk)
+                : new LazyRouteList(net, pipePos, grouped, source);
+    }
+
+    /**
+     * Every route of the producer pipe in walk order, one per endpoint face (no groups). Walked separately on
+     * first use and cached with this list; the routes materialized here are left as they are.
+     */
+    public List<EnergyRoutePath> fullWalk() {
+        if (complete && !folded) return this;
+        if (fullWalk == null) {
+            final Level level = net.getLevel();
+            if (level != null && level.getBlockEntity(pipePos) instanceof CableBlockEntity source) {
+                final LazyRouteList full = start(net, level, pipePos, source, false);
+                full.expand(Integer.MAX_VALUE);
+                fullWalk = full;
+            } else {
+                fullWalk = List.of();
+            }
+        }
+        return fullWalk;
+    }
+
+    /** @return true once the walk has reached every pipe of the net */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Continue the walk until at least {@code routes} more routes are materialized or the net is exhausted.
+     *
+     * @return the new size
+     */
+    public int expand(int routes) {
+        if (complete) return size();
+        final Level level = net.getLevel();
+        if (level == null) {
+            finish();
+            return size();
+        }
+
+        final int first = size();
+        final long target = (long) first + routes;
+        if (regions != null) {
+            while (size() < target) {
+                if (!regions.step(level, this)) {
+                    finish();
+                    break;
+                }
+            }
+            classify(first);
+            return size();
+        }
+
+        final var nodes = net.getAllNodes();
+        while (size() < target && !frontier.isEmpty()) {
+            final Step step = frontier.dequeue();
+            final CableBlockEntity cable = step.cable;
+            final BlockPos pos = cable.getPipePos();
+            if (!settled.add(pos.asLong())) continue;
+            // Removed since it was queued: do not route through it.
+            if (cable.isInValid()) continue;
+
+            for (Direction dir : Direction.values()) {
+                if (!cable.isConnected(dir)) continue;
+                final BlockPos nextPos = pos.relative(dir);
+                final BlockEntity neighbour = level.getBlockEntity(nextPos);
+                if (neighbour instanceof CableBlockEntity next) {
+                    // Cables are never endpoints; follow them if connected back and part of this net.
+                    if (next.isConnected(dir.getOpposite()) && !settled.contains(nextPos.asLong())
+                            && nodes.containsKey(nextPos)) {
+                        frontier.enqueue(new Step(next, step));
+                    }
+                    continue;
+                }
+                if (neighbour != null && isSink(neighbour, dir.getOpposite())) {
+                    emit(route(step, pos, dir), level);
+                }
+            }
+        }
+        if (frontier.isEmpty()) finish();
+        classify(first);
+        return size();
+    }
+
+    /** Append a walked route to the list (or its sink's group). */
+    void emit(EnergyRoutePath route, Level level) {
+        if (!grouped) {
+            add(route);
+            return;
+        }
+        // Alternates can become a group's primary: classify them with the list.
+        if (!RouteGroups.add(this, groups, route, level)) {
+            folded = true;
+            mergeUniform(route);
+        }
+    }
+
+    private void finish() {
+        complete = true;
+        frontier = null;
+        settled = null;
+        regions = null;
+        groups = null;
+    }
+
+    static boolean isSink(BlockEntity be, Direction side) {
+        if (be.getCapability(GTCapability.CAPABILITY_ENERGY_CONTAINER, side).isPresent()) return true;
+        // FE-only endpoints, as accepted by EnergyNetWalkerMixin (sided first, unsided fallback).
+        return be.getCapability(ForgeCapabilities.ENERGY, side).isPresent()
+                || be.getCapability(ForgeCapabilities.ENERGY, null).isPresent();
+    }
+
+    private static EnergyRoutePath route(Step step, BlockPos pipePos, Direction facing) {
+        final CableBlockEntity[] path = new CableBlockEntity[step.depth];
+        for (Step s = step; s != null; s = s.parent) {
+            path[s.depth - 1] = s.cable;
+        }
+        final EnergyRoutePath route = new EnergyRoutePath(pipePos, facing, path, step.depth, step.loss);
+        NetDeliveryAdapter.populate(route);
+        return route;
+    }
+
+    private void mergeUniform(EnergyRoutePath route) {
+        final IRouteSegmentData data = (IRouteSegmentData) route;
+        uniformVoltage = UniformRoutes.merge(uniformVoltage, route.getMaxLoss(), data.gtceuHotfix$getMaxVoltage(),
+                data.gtceuHotfix$getLossPerBlock());
+    }
+
+    /** Fold the routes from {@code first} on into the list's uniform classification (stored on route 0). */
+    private void classify(int first) {
+        final int n = size();
+        if (n == 0) return;
+        for (int i = first; i < n && uniformVoltage != 0L; i++) {
+            mergeUniform(get(i));
+        }
+        ((IRouteSegmentData) get(0)).gtceuHotfix$setListUniformVoltage(
+                uniformVoltage == UniformRoutes.UNDECIDED ? 0L : uniformVoltage);
+    }
+}
@@ -0,0 +1,279 @@
+package your.mod.energy;
+
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyNet;
+import com.mojang.logging.LogUtils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.minecraft.Util;
+import net.minecraft.server.MinecraftServer;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.slf4j.Logger;
+import your.mod.config.HotfixConfig;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Prometheus text-format export of {@link EnergyNetDebugStats} for long-running server monitoring.
+ *
+ * Every {@link HotfixConfig#metricsIntervalSeconds} the server thread renders one snapshot (per-net totals,
+ * cache sizes and latency summaries, labelled by dimension and net id). The snapshot is then
+ * - written to {@link HotfixConfig#metricsFile} off-thread (temp file + atomic move, so scrapers never see a
+ *   partial file), and/or
+ * - served as-is by a small HTTP listener bound to 127.0.0.1:{@link HotfixConfig#metricsHttpPort}.
+ * The listener thread only hands out the last rendered bytes; it never touches server state.
+ *
+ * With both outputs off the tick hook is two field reads.
+ */
+@Mod.EventBusSubscriber(modid = "gtceuenergynethotfix", bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class MetricsExporter {
+
+    private MetricsExporter() {}
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static final String PREFIX = "gtceu_energynet_";
+
+    private static volatile byte[] snapshot = new byte[0];
+
+    private static HttpServer http;
+    private static int httpPort;
+    private static int failedPort;
+    private static int ticksUntilRender;
+    private static volatile boolean fileWarned;
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) return;
+        if (HotfixConfig.metricsFile.isEmpty() && HotfixConfig.metricsHttpPort == 0) {
+            if (http != null) stopHttp();
+            return;
+        }
+        if (--ticksUntilRender > 0) return;
+        ticksUntilRender = HotfixConfig.metricsIntervalSeconds * 20;
+
+        final MinecraftServer server = event.getServer();
+        syncHttp();
+
+        EnergyNetDebugStats.pruneEmptyNets();
+        final byte[] bytes = render().getBytes(StandardCharsets.UTF_8);
+        snapshot = bytes;
+
+        final String file = HotfixConfig.metricsFile;
+        if (!file.isEmpty()) {
+            final Path path = server.getServerDirectory().toPath().resolve(file);
+            Util.ioPool().execute(() -> write(path, bytes));
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        stopHttp();
+        snapshot = new byte[0];
+        ticksUntilRender = 0;
+        failedPort = 0;
+    }
+
+    // ---------------------------------------------------------------------
+    // Rendering (server thread)
+    // ---------------------------------------------------------------------
+
+    static String render() {
+        final List<Map.Entry<EnergyNet, EnergyNetDebugStats.NetStats>> nets = EnergyNetDebugStats.all();
+        final int n = nets.size();
+        final String[] labels = new String[n];
+        final EnergyNetDebugStats.NetStats[] stats = new EnergyNetDebugStats.NetStats[n];
+        final EnergyNet[] keys = new EnergyNet[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = nets.get(i).getKey();
+            stats[i] = nets.get(i).getValue();
+            EnergyNetDebugStats.identify(keys[i], stats[i]);
+            final String dim = (stats[i].lastDim == null) ? "" : stats[i].lastDim.location().toString();
+            labels[i] = "dim=\"" + escape(dim) + "\",net=\"" + stats[i].id + "\"";
+        }
+
+        final StringBuilder sb = new StringBuilder(512 + n * 1024);
+
+        header(sb, "tracked_nets", "gauge", "Energy nets with stats.");
+        sb.append(PREFIX).append("tracked_nets ").append(n).append('\n');
+
+        counter(sb, "accept_calls_total", "Producer calls into the net.", labels, stats, s -> s.totalAcceptCalls);
+        counter(sb, "route_checks_total", "Routes checked by delivery.", labels, stats, s -> s.totalRouteChecks);
+        counter(sb, "probes_total", "Probe budget used for new routes.", labels, stats, s -> s.totalProbes);
+        counter(sb, "sink_computes_total", "Per-tick sink state computations.", labels, stats, s -> s.totalSinkComputes);
+        counter(sb, "rebuilds_total", "Route rebuilds (EnergyNetWalker.createNetData).", labels, stats, s -> s.totalNetRebuilds);
+        counter(sb, "accepted_amps_total", "Amps accepted by sinks.", labels, stats, s -> s.totalAcceptedAmps);
+        counter(sb, "accepted_eu_total", "EU accepted by sinks, at source voltage.", labels, stats, s -> s.totalAcceptedEu);
+
+        counter(sb, "budget_starved_ticks_total", "Ticks with demand left unmet behind an exhausted probe budget.",
+                labels, stats, s -> s.budgetStarvedTicks);
+        counter(sb, "unmet_amps_total", "Amps left undelivered while the probe budget was exhausted.",
+                labels, stats, s -> s.unmetAmps);
+        header(sb, "fed_gap_ticks", "summary", "Ticks since the previous feed, for endpoints fed again after a gap.");
+        for (int i = 0; i < n; i++) ticksSummary(sb, "fed_gap_ticks", labels[i], stats[i].fedGapTicks);
+
+        if (AllocationSampler.isSupported() && HotfixConfig.allocationSampleInterval > 0) {
+            counter(sb, "delivery_alloc_bytes_total", "Estimated bytes allocated by delivery since the last timings reset.",
+                    labels, stats, s -> s.estimatedDeliveryAllocBytes);
+            counter(sb, "rebuild_alloc_bytes_total", "Bytes allocated by route rebuilds since the last timings reset.",
+                    labels, stats, s -> s.rebuildAllocBytes);
+        }
+
+        final NetSize[] sizes = new NetSize[n];
+        for (int i = 0; i < n; i++) sizes[i] = NetSize.measure(keys[i]);
+        header(sb, "nodes", "gauge", "Pipe nodes in the net.");
+        for (int i = 0; i < n; i++) sample(sb, "nodes", labels[i], sizes[i].nodes);
+        header(sb, "route_lists", "gauge", "Cached NET_DATA route lists (one per producer pipe).");
+        for (int i = 0; i < n; i++) sample(sb, "route_lists", labels[i], sizes[i].routeLists);
+        header(sb, "routes", "gauge", "Cached routes over all route lists.");
+        for (int i = 0; i < n; i++) sample(sb, "routes", labels[i], sizes[i].routes);
+        header(sb, "endpoints", "gauge", "Unique endpoints (position + side) reached by cached routes.");
+        for (int i = 0; i < n; i++) sample(sb, "endpoints", labels[i], sizes[i].endpoints);
+        header(sb, "cache_bytes", "gauge", "Estimated heap held by the net's routes and hotfix caches.");
+        for (int i = 0; i < n; i++) sample(sb, "cache_bytes", labels[i], sizes[i].estimatedBytes);
+        header(sb, "handler_cache_entries", "gauge", "Cached endpoint handlers.");
+        for (int i = 0; i < n; i++) sample(sb, "handler_cache_entries", labels[i], HandlerCache.size(keys[i]));
+        header(sb, "sink_cache_entries", "gauge", "Per-tick sink states held.");
+        for (int i = 0; i < n; i++) sample(sb, "sink_cache_entries", labels[i], SinkCache.sinkStateCount(keys[i]));
+
+        header(sb, "delivery_seconds", "summary",
+                "Sampled delivery call latency since the last /energynet timings reset.");
+        for (int i = 0; i < n; i++) summary(sb, "delivery_seconds", labels[i], stats[i].deliveryNanos);
+        header(sb, "rebuild_seconds", "summary", "Route rebuild latency since the last /energynet timings reset.");
+        for (int i = 0; i < n; i++) summary(sb, "rebuild_seconds", labels[i], stats[i].rebuildNanos);
+
+        header(sb, "tick_end_seconds", "summary", "Tick-end amperage/heat apply for all nets, per server tick.");
+        summary(sb, "tick_end_seconds", null, EnergyNetDebugStats.tickEndTimings());
+
+        return sb.toString();
+    }
+
+    private static void header(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void counter(StringBuilder sb, String name, String help, String[] labels,
+                                EnergyNetDebugStats.NetStats[] stats, ToLongFunction<EnergyNetDebugStats.NetStats> value) {
+        header(sb, name, "counter", help);
+        for (int i = 0; i < labels.length; i++) {
+            sample(sb, name, labels[i], value.applyAsLong(stats[i]));
+        }
+    }
+
+    private static void sample(StringBuilder sb, String name, String labels, long value) {
+        sb.append(PREFIX).append(name).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+
+    private static void summary(StringBuilder sb, String name, String labels, LatencyHistogram h) {
+        final String sep = (labels == null) ? "" : labels + ",";
+        if (h.count() > 0) {
+            sb.append(PREFIX).append(name).append("{").append(sep).append("quantile=\"0.5\"} ")
+                    .append(seconds(h.percentile(0.50))).append('\n');
+            sb.append(PREFIX).append(name).append("{").append(sep).append("quantile=\"0.99\"} ")
+                    .append(seconds(h.percentile(0.99))).append('\n');
+        }
+        final String plain = (labels == null) ? "" : "{" + labels + "}";
+        sb.append(PREFIX).append(name).append("_sum").append(plain).append(' ')
+                .append(seconds(h.sumNanos())).append('\n');
+        sb.append(PREFIX).append(name).append("_count").append(plain).append(' ')
+                .append(h.count()).append('\n');
+    }
+
+    private static void ticksSummary(StringBuilder sb, String name, String labels, LatencyHistogram h) {
+        if (h.count() > 0) {
+            sb.append(PREFIX).append(name).append('{').append(labels).append(",quantile=\"0.5\"} ")
+                    .append(h.percentile(0.50)).append('\n');
+            sb.append(PREFIX).append(name).append('{').append(labels).append(",quantile=\"0.99\"} ")
+                    .append(h.percentile(0.99)).append('\n');
+        }
+        sb.append(PREFIX).append(name).append("_sum{").append(labels).append("} ").append(h.sumNanos()).append('\n');
+        sb.append(PREFIX).append(name).append("_count{").append(labels).append("} ").append(h.count()).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1_000_000_000.0);
+    }
+
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    // ---------------------------------------------------------------------
+    // Outputs
+    // ---------------------------------------------------------------------
+
+    private static void write(Path path, byte[] bytes) {
+        try {
+            final Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            final Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.write(tmp, bytes);
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            fileWarned = false;
+        } catch (IOException e) {
+            if (!fileWarned) {
+                fileWarned = true;
+                LOGGER.warn("[energynet] could not write metrics to {}", path, e);
+            }
+        }
+    }
+
+    /** Start, restart (port changed on config reload) or stop the listener. */
+    private static void syncHttp() {
+        final int port = HotfixConfig.metricsHttpPort;
+        if (http != null && port == httpPort) return;
+        stopHttp();
+        if (port == 0 || port == failedPort) return;
+        try {
+            final HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            server.createContext("/metrics", MetricsExporter::serve);
+            server.setExecutor(null); // the listener's own dispatcher thread
+            server.start();
+            http = server;
+            httpPort = port;
+            failedPort = 0;
+            LOGGER.info("[energynet] serving metrics on http://127.0.0.1:{}/metrics", port);
+        } catch (IOException e) {
+            // Port taken: stay off until the configured port changes (or the server restarts).
+            failedPort = port;
+            LOGGER.warn("[energynet] could not bind metrics listener to 127.0.0.1:{}", port, e);
+        }
+    }
+
+    private static void stopHttp() {
+        if (http == null) return;
+        http.stop(0);
+        http = null;
+        httpPort = 0;
+    }
+
+    private static void serve(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            final byte[] body = snapshot;
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length == 0 ? -1 : body.length);
+            if (body.length > 0) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        }
+    }
+}
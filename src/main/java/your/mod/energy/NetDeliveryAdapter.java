@@ -0,0 +1,346 @@
+package your.mod.energy;
+
+import com.gregtechceu.gtceu.api.data.chemical.material.properties.WireProperties;
+import com.gregtechceu.gtceu.common.blockentity.CableBlockEntity;
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyNet;
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyRoutePath;
+import com.gregtechceu.gtceu.utils.GTUtil;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
+import your.mod.config.HotfixConfig;
+import your.mod.energy.core.CableEffects;
+import your.mod.energy.core.DeliveryEngine;
+import your.mod.energy.core.RouteSource;
+import your.mod.energy.core.SinkAccess;
+import your.mod.energy.core.SinkBudget;
+import your.mod.energy.core.UniformRoutes;
+
+import java.util.List;
+
+/**
+ * Binds one producer cable's {@code EnergyNetHandler} to the Minecraft-free {@link DeliveryEngine}:
+ * routes come from GTCEu's {@link EnergyRoutePath} list (with {@link IRouteSegmentData}), sinks from
+ * {@link SinkCache}, and cable effects go to {@link CableHeatScheduler} / {@link CableAmperageAccumulator}.
+ *
+ * One instance per handler, reused for every offer (fields hold the context of the offer in progress),
+ * so delivery does not allocate. Re-entry is blocked by the handler's vanilla {@code transfer} guard.
+ */
+public final class NetDeliveryAdapter implements RouteSource, SinkAccess, CableEffects {
+
+    private EnergyNet net;
+    private ServerLevel level;
+    private BlockPos pipePos;
+    private Direction side;
+    private SinkCache cache;
+    private List<EnergyRoutePath> routes;
+    private boolean stale;
+    private boolean park;
+    private long voltage;
+    // Route (group member, see RouteGroups#select) last resolved for a list index; -1 = none.
+    private int pathRoute = -1;
+    private EnergyRoutePath pathMemo;
+
+    // Per-offer counters of the last deliver() call (EnergyNetDebugStats.recordCall, JFR EnergyNetDelivery).
+    private int routesChecked;
+    private int sinkComputes;
+    private int probesUsed;
+
+    // Trace of the offer in progress (TraceRecorder), allocated on first traced offer.
+    private TraceRecorder.Call trace;
+    private boolean tracing;
+
+    /**
+     * Distribute one offer from {@code cable} (facing {@code side}) over its net.
+     *
+     * @param voltage source voltage, already clamped to the producer cable's rating
+     * @return amps accepted
+     */
+    public long deliver(EnergyNet net, ServerLevel level, CableBlockEntity cable, Direction side,
+                        long voltage, long amperage) {
+        return deliver(net, level, cable, side, voltage, amperage, null);
+    }
+
+    /**
+     * {@link #deliver} over a route list the caller already resolved ({@code EnergyNet#getNetData} of the
+     * producer pipe), or null to look it up.
+     */
+    public long deliver(EnergyNet net, ServerLevel level, CableBlockEntity cable, Direction side,
+                        long voltage, long amperage, List<EnergyRoutePath> resolved) {
+        this.routesChecked = 0;
+        this.sinkComputes = 0;
+        this.probesUsed = 0;
+        final SinkCache cache = SinkCache.get(net, level.getGameTime());
+
+        // Sleeping net (saturated / demand-free for many ticks): O(1) until a sink drains or topology changes.
+        if (cache.isSleeping()) return 0;
+        if (cache.isSaturatedThisTick() || cache.isNoDemandThisTick()) return 0;
+
+        final BlockPos pipePos = cable.getPipePos();
+        final long offerKey = KeyUtil.packPosSide(pipePos, side);
+        if (cache.isOfferExhausted(offerKey, voltage)) return 0;
+
+        final List<EnergyRoutePath> routes = (resolved != null) ? resolved : cache.getRoutes(pipePos);
+        if (routes.isEmpty()) return 0;
+
+        this.net = net;
+        this.level = level;
+        this.pipePos = pipePos;
+        this.side = side;
+        this.cache = cache;
+        this.routes = routes;
+        // Debounced topology change in progress: routes are stale, skip any that cross a removed or cut cable.
+        this.stale = ((IEnergyNetHotfix) net).gtceuHotfix$isServingStale();
+        this.voltage = voltage;
+        this.pathRoute = -1;
+        this.park = HotfixConfig.parkNonTickingEndpoints;
+        if (TraceRecorder.isActive()) {
+            if (trace == null) trace = new TraceRecorder.Call();
+            this.tracing = TraceRecorder.begin(trace, net, level, routes, pipePos, cache.currentTick(), side, voltage, amperage);
+        }
+        final int budgetBefore = cache.getProbeBudgetRemaining();
+        try {
+            final long accepted = DeliveryEngine.deliver(cache, this, this, this, offerKey, voltage, amperage);
+            if (tracing) TraceRecorder.end(trace, accepted);
+            return accepted;
+        } finally {
+            this.probesUsed = budgetBefore - cache.getProbeBudgetRemaining();
+            this.sinkComputes = cache.takeSinkComputes();
+            this.tracing = false;
+            // Do not keep the net / route list reachable between offers.
+            this.net = null;
+            this.level = null;
+            this.pipePos = null;
+            this.cache = null;
+            this.routes = null;
+            this.pathMemo = null;
+        }
+    }
+
+    /** Routes checked by the last {@link #deliver} call. */
+    public int routesChecked() {
+        return routesChecked;
+    }
+
+    /** Sink states recomputed by the last {@link #deliver} call. */
+    public int sinkComputes() {
+        return sinkComputes;
+    }
+
+    /** Probe budget consumed by the last {@link #deliver} call. */
+    public int probesUsed() {
+        return probesUsed;
+    }
+
+    /**
+     * Route used for list index {@code route}: its list entry, or for an endpoint group ({@link RouteGroups}) the
+     * first member rated for the offer voltage, skipping members across a burnt, removed or cut cable while the net
+     * serves stale routes. The engine asks about one route at a time, so the last choice is memoized.
+     */
+    private EnergyRoutePath path(int route) {
+        if (route == pathRoute) return pathMemo;
+        final EnergyRoutePath primary = routes.get(route);
+        final EnergyRoutePath path = (((IRouteSegmentData) primary).gtceuHotfix$getAlternates() == null)
+                ? primary
+                : RouteGroups.select(net, primary, voltage, stale);
+        pathRoute = route;
+        pathMemo = path;
+        return path;
+    }
+
+    private IRouteSegmentData segData(int route) {
+        final IRouteSegmentData data = (IRouteSegmentData) path(route);
+        if (data.gtceuHotfix$getMaxVoltage() == null) {
+            // Route not created through EnergyNetWalkerMixin: cache its segment data once.
+            populate(path(route));
+        }
+        return data;
+    }
+
+    static void populate(EnergyRoutePath route) {
+        final CableBlockEntity[] path = route.getPath();
+        final int n = (path == null) ? 0 : path.length;
+        final long[] posLong = new long[n];
+        final long[] maxV = new long[n];
+        final int[] loss = new int[n];
+        for (int i = 0; i < n; i++) {
+            final CableBlockEntity cable = path[i];
+            if (cable == null) continue;
+            posLong[i] = cable.getBlockPos().asLong();
+            final WireProperties props = (WireProperties) cable.getNodeData();
+            if (props != null) {
+                maxV[i] = props.getVoltage();
+                loss[i] = props.getLossPerBlock();
+            }
+        }
+        ((IRouteSegmentData) route).gtceuHotfix$setSegmentData(posLong, maxV, loss);
+    }
+
+    /**
+     * Whether segment {@code segment} of a stale route is gone: its cable was removed, left {@code net} (split), or
+     * no longer connects to the next cable of the path, or to the endpoint for the route's last cable (wrench,
+     * wire cutter). Connection changes are debounced like other topology edits, so stale routes must not deliver
+     * across a cut the rebuild has not seen yet.
+     */
+    static boolean isCut(EnergyNet net, EnergyRoutePath route, int segment) {
+        final CableBlockEntity[] segs = route.getPath();
+        if (segs == null || segment >= segs.length || segs[segment] == null) return false;
+        final CableBlockEntity seg = segs[segment];
+        if (seg.isInValid()) return true;
+        final BlockPos pos = seg.getPipePos();
+        if (!net.getAllNodes().containsKey(pos)) return true;
+        if (pos.equals(route.getTargetPipePos()) && !seg.isConnected(route.getTargetFacing())) return true;
+        final CableBlockEntity next = (segment + 1 < segs.length) ? segs[segment + 1] : null;
+        if (next == null) return false;
+        final BlockPos nextPos = next.getPipePos();
+        final Direction dir = Direction.fromDelta(nextPos.getX() - pos.getX(), nextPos.getY() - pos.getY(),
+                nextPos.getZ() - pos.getZ());
+        return dir != null && (!seg.isConnected(dir) || !next.isConnected(dir.getOpposite()));
+    }
+
+    // ---------------------------------------------------------------------
+    // RouteSource
+    // ---------------------------------------------------------------------
+
+    @Override
+    public int size() {
+        return routes.size();
+    }
+
+    @Override
+    public Object identity() {
+        return routes;
+    }
+
+    @Override
+    public long maxLoss(int route) {
+        return path(route).getMaxLoss();
+    }
+
+    @Override
+    public boolean isSelf(int route) {
+        final EnergyRoutePath path = path(route);
+        return side == path.getTargetFacing() && pipePos.equals(path.getTargetPipePos());
+    }
+
+    @Override
+    public long[] segmentPos(int route) {
+        return segData(route).gtceuHotfix$getPosLong();
+    }
+
+    @Override
+    public long[] segmentMaxVoltage(int route) {
+        return segData(route).gtceuHotfix$getMaxVoltage();
+    }
+
+    @Override
+    public int[] segmentLoss(int route) {
+        return segData(route).gtceuHotfix$getLossPerBlock();
+    }
+
+    @Override
+    public boolean isStale() {
+        return stale;
+    }
+
+    @Override
+    public boolean isSegmentRemoved(int route, int segment) {
+        return isCut(net, path(route), segment);
+    }
+
+    @Override
+    public long uniformVoltage() {
+        if (routes.isEmpty()) return 0L;
+        final IRouteSegmentData first = (IRouteSegmentData) routes.get(0);
+        long voltage = first.gtceuHotfix$getListUniformVoltage();
+        if (voltage == UniformRoutes.UNDECIDED) {
+            // List not built through EnergyNetWalkerMixin: classify once on first use.
+            voltage = UniformRoutes.classify(this);
+            first.gtceuHotfix$setListUniformVoltage(voltage);
+        }
+        return voltage;
+    }
+
+    @Override
+    public boolean isParked(int route) {
+        return park && EndpointChunks.isParked(level,
+                ((IRouteSegmentData) path(route)).gtceuHotfix$getEndpointPos(), cache.currentTick());
+    }
+
+    @Override
+    public boolean hasMoreRoutes() {
+        return routes instanceof LazyRouteList lazy && !lazy.isComplete();
+    }
+
+    @Override
+    public int expandRoutes() {
+        // New alternates may head an existing group now.
+        pathRoute = -1;
+        return (routes instanceof LazyRouteList lazy) ? lazy.expand(LazyRouteList.BATCH) : routes.size();
+    }
+
+    // ---------------------------------------------------------------------
+    // SinkAccess
+    // ---------------------------------------------------------------------
+
+    @Override
+    public SinkBudget sink(int route) {
+        final EnergyRoutePath path = path(route);
+        final IRouteSegmentData data = (IRouteSegmentData) path;
+        // Endpoint (machine) position, insertion side and sink key: precomputed per route (no allocation).
+        final SinkState state = cache.getOrCompute(net, path, level, data.gtceuHotfix$getEndpointPos(),
+                data.gtceuHotfix$getInsertSide(), data.gtceuHotfix$getSinkKey());
+        if (tracing && state != null) trace.sink(state);
+        return state;
+    }
+
+    @Override
+    public long accept(int route, SinkBudget sink, long voltage, long amperage) {
+        final Direction insertSide = ((IRouteSegmentData) path(route)).gtceuHotfix$getInsertSide();
+        final SinkState state = (SinkState) sink;
+        final long accepted = state.handler.acceptEnergyFromNetwork(insertSide, voltage, amperage);
+        if (accepted > 0) {
+            final long tick = cache.currentTick();
+            if (state.lastFedTick != tick) {
+                // Once per endpoint per tick (starvation telemetry: ticks since the previous feed).
+                if (state.lastFedTick != Long.MIN_VALUE) EnergyNetDebugStats.recordFed(net, tick - state.lastFedTick);
+                state.lastFedTick = tick;
+            }
+        }
+        if (tracing) trace.accepted(accepted);
+        return accepted;
+    }
+
+    // ---------------------------------------------------------------------
+    // CableEffects
+    // ---------------------------------------------------------------------
+
+    @Override
+    public boolean overVoltage(int route, int segment, long segmentPos, long segmentMaxVoltage, long voltage) {
+        final int tierDiff = GTUtil.getTierByVoltage(voltage) - GTUtil.getTierByVoltage(segmentMaxVoltage);
+        if (tierDiff > 0) {
+            final int heat = (int) (Math.log((double) tierDiff) * 45.0d + 36.5d);
+            CableHeatScheduler.addHeat(level, segmentPos, heat);
+        }
+        final CableBlockEntity[] segs = path(route).getPath();
+        final CableBlockEntity seg = (segs != null && segment < segs.length) ? segs[segment] : null;
+        return seg != null && seg.isInValid();
+    }
+
+    @Override
+    public void amperage(long segmentPos, long amperage, long voltage) {
+        // Record by BlockPos-long and resolve the BE once per tick in CableAmperageAccumulator.
+        CableAmperageAccumulator.record(level, segmentPos, amperage, voltage);
+    }
+
+    @Override
+    public void routeAmperage(int route, long amperage, long voltage) {
+        CableAmperageAccumulator.recordRoute(level, segData(route).gtceuHotfix$getPosLong(), amperage, voltage);
+    }
+
+    @Override
+    public void routeChecked(int route) {
+        routesChecked++;
+        if (tracing) trace.routeChecked(route);
+    }
+}
@@ -0,0 +1,60 @@
+package your.mod.energy;
+
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyNet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+
+import java.util.Map;
+
+/**
+ * Warm cache handoff when GTCEu moves cable nodes from one energy net to another (PipeNet#transferNodeData,
+ * hooked by {@code PipeNetMixin}): a merge moves every node of the absorbed net into the surviving one, a split
+ * moves the cut-off part into a new net. All hotfix caches are keyed by net identity, so without a handoff the
+ * receiving net would start cold.
+ *
+ * Position-keyed state next to the moved cables is copied to the receiving net: tracked endpoint identities
+ * ({@link EndpointChangeTracker}) and the sinks fed last tick ({@link SinkCache} warm start). Handler entries
+ * ({@link HandlerCache}) are not moved; the receiving net resolves them on first use. A net left without
+ * nodes (absorbed by a merge) has its caches dropped. Region graphs are not moved: the giving net's graph is
+ * dropped ({@link RegionGraph#clear}), since its regions may hold the moved cables, and the receiving net scans
+ * its own. Delivery mode overrides are carried to the receiving net ({@link DeliveryModes#handoff}). Server
+ * thread only.
+ */
+public final class NetHandoff {
+
+    private NetHandoff() {}
+
+    private static final BlockPos.MutableBlockPos CURSOR = new BlockPos.MutableBlockPos();
+
+    /** {@code to} received the cable nodes {@code nodes} from {@code from}. */
+    public static void transfer(EnergyNet from, EnergyNet to, Map<BlockPos, ?> nodes) {
+        if (from == to || nodes.isEmpty()) return;
+        DeliveryModes.handoff(from, to);
+        EndpointChangeTracker.handoff(from, to, nodes);
+        SinkCache.handoff(from, to, nodes);
+        RegionGraph.clear(from);
+
+        if (from.getAllNodes().isEmpty()) {
+            HandlerCache.clear(from);
+            EndpointChangeTracker.clear(from);
+            SinkCache.discard(from);
+        }
+    }
+
+    /**
+     * Nets are replaced on rebuild and by merges, and an emptied net is never used again: drop the entries of
+     * nets that no longer have pipes from a net-keyed cache. Called before a cache adds a net.
+     */
+    static void pruneDeadNets(Map<EnergyNet, ?> perNet) {
+        perNet.keySet().removeIf(net -> net.getAllNodes().isEmpty());
+    }
+
+    /** @return true if {@code pos} is one of {@code nodes} or next to one */
+    static boolean touches(Map<BlockPos, ?> nodes, BlockPos pos) {
+        if (nodes.containsKey(pos)) return true;
+        for (Direction dir : Direction.values()) {
+            if (nodes.containsKey(CURSOR.setWithOffset(pos, dir))) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,285 @@
+package your.mod.energy;
+
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyNet;
+import com.mojang.logging.LogUtils;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.Util;
+import net.minecraft.server.MinecraftServer;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.slf4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * {@code /energynet profile <seconds>}: records one sample per active net per server tick and writes the
+ * window to {@code energynet-profiles/profile-<time>.csv} and {@code .json} under the server directory.
+ *
+ * Samples are deltas of the monotonic {@link EnergyNetDebugStats.NetStats} totals, taken at tick end, so the
+ * hot path is unchanged apart from timing every delivery call while a capture runs (see
+ * {@link EnergyNetDebugStats#setFullTiming}). Nets without producer calls or rebuilds in a tick get no row.
+ */
+@Mod.EventBusSubscriber(modid = "gtceuenergynethotfix", bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class NetProfiler {
+
+    private NetProfiler() {}
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    /** Hard cap on buffered rows (~100 bytes each) so a long capture on a huge server stays bounded. */
+    private static final int MAX_ROWS = 2_000_000;
+
+    /** Output columns: tick, dim and net id, then the numeric row values after the tick. */
+    static final String[] COLUMNS = {
+            "tick", "dim", "net", "accepts", "route_checks", "probes", "sink_computes", "rebuilds",
+            "delivery_nanos", "rebuild_nanos", "nodes", "route_lists", "routes", "endpoints"
+    };
+
+    // Offsets into the per-net previous-totals array.
+    private static final int ACCEPTS = 0, ROUTE_CHECKS = 1, PROBES = 2, SINK_COMPUTES = 3, REBUILDS = 4,
+            DELIVERY_NANOS = 5, REBUILD_NANOS = 6, TOTALS = 7;
+
+    /** Summary of a finished capture, for the command's chat output. */
+    public static final class Result {
+        public final Path csv;
+        public final Path json;
+        public final int ticks;
+        public final int rows;
+        public final boolean truncated;
+        /** Per-net window totals (net id, dim, accepts, route checks, rebuilds, nanos), by nanos descending. */
+        public final List<String> topNets;
+
+        private Result(Path csv, Path json, int ticks, int rows, boolean truncated, List<String> topNets) {
+            this.csv = csv;
+            this.json = json;
+            this.ticks = ticks;
+            this.rows = rows;
+            this.truncated = truncated;
+            this.topNets = topNets;
+        }
+    }
+
+    private static boolean active;
+    private static int ticksLeft;
+    private static int ticksDone;
+    private static long startTick;
+    private static Path baseFile;
+    private static Consumer<Result> onDone;
+
+    private static final Reference2ObjectOpenHashMap<EnergyNet, long[]> PREV = new Reference2ObjectOpenHashMap<>();
+    private static final Reference2ObjectOpenHashMap<EnergyNet, long[]> WINDOW = new Reference2ObjectOpenHashMap<>();
+    private static final Reference2ObjectOpenHashMap<EnergyNet, String> DIMS = new Reference2ObjectOpenHashMap<>();
+    private static final ArrayList<long[]> ROWS = new ArrayList<>();
+    private static final ArrayList<String> ROW_DIMS = new ArrayList<>();
+    private static final ArrayList<String> ROW_NETS = new ArrayList<>();
+    private static boolean truncated;
+
+    public static boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Start a capture of {@code seconds}; {@code onDone} runs on the server thread once the files are
+     * queued for writing (or when the capture is stopped early).
+     *
+     * @return false if a capture is already running
+     */
+    public static boolean start(MinecraftServer server, int seconds, Consumer<Result> onDone) {
+        if (active) return false;
+        final String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss", Locale.ROOT));
+        baseFile = server.getServerDirectory().toPath().resolve("energynet-profiles").resolve("profile-" + stamp);
+        NetProfiler.onDone = onDone;
+        ticksLeft = seconds * 20;
+        ticksDone = 0;
+        startTick = server.getTickCount();
+        truncated = false;
+
+        // Baseline so the first sampled tick only contains that tick's work.
+        for (Map.Entry<EnergyNet, EnergyNetDebugStats.NetStats> e : EnergyNetDebugStats.all()) {
+            PREV.put(e.getKey(), totals(e.getValue(), new long[TOTALS]));
+        }
+        EnergyNetDebugStats.setFullTiming(true);
+        active = true;
+        return true;
+    }
+
+    /** Stop early and write what has been captured so far. */
+    public static boolean stop() {
+        if (!active) return false;
+        finish();
+        return true;
+    }
+
+    // LOWEST: after the tick-end amperage/heat apply, so rebuilds it triggers land in this tick's row.
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (!active || event.phase != TickEvent.Phase.END) return;
+        sample(event.getServer().getTickCount());
+        if (--ticksLeft <= 0) finish();
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        if (active) finish();
+    }
+
+    private static void sample(long tick) {
+        ticksDone++;
+        final long[] now = new long[TOTALS];
+        for (Map.Entry<EnergyNet, EnergyNetDebugStats.NetStats> e : EnergyNetDebugStats.all()) {
+            final EnergyNet net = e.getKey();
+            final EnergyNetDebugStats.NetStats s = e.getValue();
+            totals(s, now);
+
+            long[] prev = PREV.get(net);
+            if (prev == null) {
+                prev = new long[TOTALS];
+                PREV.put(net, prev);
+            }
+            final long accepts = now[ACCEPTS] - prev[ACCEPTS];
+            final long rebuilds = now[REBUILDS] - prev[REBUILDS];
+            if (accepts == 0 && rebuilds == 0) {
+                System.arraycopy(now, 0, prev, 0, TOTALS);
+                continue;
+            }
+
+            final long[] delta = new long[TOTALS];
+            for (int i = 0; i < TOTALS; i++) {
+                // Timing histograms restart on /energynet timings reset: never report negative time.
+                delta[i] = Math.max(0L, now[i] - prev[i]);
+            }
+            System.arraycopy(now, 0, prev, 0, TOTALS);
+
+            long[] window = WINDOW.get(net);
+            if (window == null) {
+                window = new long[TOTALS];
+                WINDOW.put(net, window);
+            }
+            for (int i = 0; i < TOTALS; i++) window[i] += delta[i];
+            final String dim = (s.lastDim == null) ? "" : s.lastDim.location().toString();
+            DIMS.put(net, dim);
+
+            if (ROWS.size() >= MAX_ROWS) {
+                truncated = true;
+                continue;
+            }
+            final NetSize size = NetSize.measure(net);
+            EnergyNetDebugStats.identify(net, s);
+            ROWS.add(new long[]{
+                    tick,
+                    delta[ACCEPTS], delta[ROUTE_CHECKS], delta[PROBES], delta[SINK_COMPUTES], delta[REBUILDS],
+                    delta[DELIVERY_NANOS], delta[REBUILD_NANOS],
+                    size.nodes, size.routeLists, size.routes, size.endpoints
+            });
+            ROW_DIMS.add(dim);
+            ROW_NETS.add(s.id);
+        }
+    }
+
+    private static long[] totals(EnergyNetDebugStats.NetStats s, long[] out) {
+        out[ACCEPTS] = s.totalAcceptCalls;
+        out[ROUTE_CHECKS] = s.totalRouteChecks;
+        out[PROBES] = s.totalProbes;
+        out[SINK_COMPUTES] = s.totalSinkComputes;
+        out[REBUILDS] = s.totalNetRebuilds;
+        out[DELIVERY_NANOS] = s.estimatedNanos;
+        out[REBUILD_NANOS] = s.rebuildNanos.sumNanos();
+        return out;
+    }
+
+    private static void finish() {
+        active = false;
+        EnergyNetDebugStats.setFullTiming(false);
+
+        final List<String> top = new ArrayList<>();
+        final ArrayList<Map.Entry<EnergyNet, long[]>> nets = new ArrayList<>(WINDOW.entrySet());
+        nets.sort((a, b) -> Long.compare(b.getValue()[DELIVERY_NANOS], a.getValue()[DELIVERY_NANOS]));
+        for (int i = 0; i < nets.size() && i < 5; i++) {
+            final Map.Entry<EnergyNet, long[]> e = nets.get(i);
+            final EnergyNetDebugStats.NetStats s = EnergyNetDebugStats.peek(e.getKey());
+            final long[] w = e.getValue();
+            top.add(String.format(Locale.ROOT, "net=%s dim=%s accepts=%d route_checks=%d rebuilds=%d time=%.2fms",
+                    s == null ? "?" : s.id, DIMS.get(e.getKey()),
+                    w[ACCEPTS], w[ROUTE_CHECKS], w[REBUILDS],
+                    w[DELIVERY_NANOS] / 1_000_000.0));
+        }
+
+        final Path csv = baseFile.resolveSibling(baseFile.getFileName() + ".csv");
+        final Path json = baseFile.resolveSibling(baseFile.getFileName() + ".json");
+        final long[][] rows = ROWS.toArray(new long[0][]);
+        final String[] dims = ROW_DIMS.toArray(new String[0]);
+        final String[] netIds = ROW_NETS.toArray(new String[0]);
+        final Result result = new Result(csv, json, ticksDone, rows.length, truncated, top);
+        final long first = startTick;
+        Util.ioPool().execute(() -> write(csv, json, first, rows, dims, netIds));
+
+        PREV.clear();
+        WINDOW.clear();
+        DIMS.clear();
+        ROWS.clear();
+        ROWS.trimToSize();
+        ROW_DIMS.clear();
+        ROW_DIMS.trimToSize();
+        ROW_NETS.clear();
+        ROW_NETS.trimToSize();
+
+        final Consumer<Result> callback = onDone;
+        onDone = null;
+        if (callback != null) callback.accept(result);
+    }
+
+    // ---------------------------------------------------------------------
+    // Output (io thread)
+    // ---------------------------------------------------------------------
+
+    private static void write(Path csv, Path json, long startTick, long[][] rows, String[] dims, String[] netIds) {
+        try {
+            Files.createDirectories(csv.toAbsolutePath().getParent());
+            try (BufferedWriter w = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+                w.write(String.join(",", COLUMNS));
+                w.newLine();
+                for (int r = 0; r < rows.length; r++) {
+                    final long[] row = rows[r];
+                    w.write(row[0] + "," + dims[r] + "," + netIds[r]);
+                    for (int c = 1; c < row.length; c++) {
+                        w.write(',');
+                        w.write(Long.toString(row[c]));
+                    }
+                    w.newLine();
+                }
+            }
+            try (BufferedWriter w = Files.newBufferedWriter(json, StandardCharsets.UTF_8)) {
+                w.write("{\"startTick\":" + startTick + ",\"columns\":[\"" + String.join("\",\"", COLUMNS) + "\"]");
+                w.write(",\"samples\":[");
+                for (int r = 0; r < rows.length; r++) {
+                    final long[] row = rows[r];
+                    if (r > 0) w.write(',');
+                    w.write("\n[" + row[0] + ",\"" + dims[r].replace("\\", "\\\\").replace("\"", "\\\"")
+                            + "\",\"" + netIds[r] + "\"");
+                    for (int c = 1; c < row.length; c++) {
+                        w.write(',');
+                        w.write(Long.toString(row[c]));
+                    }
+                    w.write(']');
+                }
+                w.write("\n]}\n");
+            }
+        } catch (IOException e) {
+            LOGGER.warn("[energynet] could not write profile {}", csv, e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package your.mod.energy;
+
+import com.gregtechceu.gtceu.common.blockentity.CableBlockEntity;
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyNet;
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyRoutePath;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Size of one energy net as seen by the hotfix caches: pipe nodes, cached route lists (NET_DATA entries),
+ * total routes (alternates of collapsed endpoint groups not included) and unique endpoints (endpoint + insert
+ * side), plus a rough estimate of the heap held by its
+ * routes and caches. Debug output only: O(routes), server thread.
+ */
+public final class NetSize {
+
+    public final int nodes;
+    public final int routeLists;
+    public final int routes;
+    public final int endpoints;
+    /** Cached regions of the net's {@link RegionGraph} (0 without region routing). */
+    public final int regions;
+    /** Sum of route lengths (cable segments over all routes). */
+    public final long segments;
+    /** Estimated bytes retained by NET_DATA routes, segment data, handler and sink caches. */
+    public final long estimatedBytes;
+
+    // Rough shallow sizes on a 64-bit JVM with compressed oops.
+    private static final int BYTES_PER_ROUTE_LIST = 48 + 24;     // map entry + BlockPos key + list
+    private static final int BYTES_PER_ROUTE = 40 + 4 + 3 * 16;  // EnergyRoutePath + list slot + 3 array headers
+    private static final int BYTES_PER_SEGMENT = 4 + 8 + 8 + 4;  // path ref + posLong + maxVoltage + loss
+    private static final int BYTES_PER_HANDLER = 48 + 40;        // map slot + HandlerCache.Entry
+    private static final int BYTES_PER_SINK = 16 + 64;           // map slot + SinkState
+
+    private NetSize(int nodes, int routeLists, int routes, int endpoints, int regions, long segments,
+                    long estimatedBytes) {
+        this.nodes = nodes;
+        this.routeLists = routeLists;
+        this.routes = routes;
+        this.endpoints = endpoints;
+        this.regions = regions;
+        this.segments = segments;
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    // Reused across measurements (server thread only).
+    private static final LongOpenHashSet SCRATCH = new LongOpenHashSet();
+
+    public static NetSize measure(EnergyNet net) {
+        final Map<BlockPos, List<EnergyRoutePath>> netData = ((IEnergyNetHotfix) net).gtceuHotfix$getNetData();
+        int routes = 0;
+        long segments = 0;
+        SCRATCH.clear();
+        int alternates = 0;
+        for (List<EnergyRoutePath> list : netData.values()) {
+            if (list == null) continue;
+            routes += list.size();
+            for (int i = 0, n = list.size(); i < n; i++) {
+                final EnergyRoutePath route = list.get(i);
+                SCRATCH.add(((IRouteSegmentData) route).gtceuHotfix$getSinkKey());
+                final CableBlockEntity[] path = route.getPath();
+                if (path != null) segments += path.length;
+                // Failover routes of an endpoint group (RouteGroups): held in memory, not probed.
+                final EnergyRoutePath[] alts = ((IRouteSegmentData) route).gtceuHotfix$getAlternates();
+                if (alts == null) continue;
+                alternates += alts.length;
+                for (EnergyRoutePath alt : alts) {
+                    if (alt.getPath() != null) segments += alt.getPath().length;
+                }
+            }
+        }
+        final int endpoints = SCRATCH.size();
+        SCRATCH.clear();
+
+        final long bytes = (long) netData.size() * BYTES_PER_ROUTE_LIST
+                + (long) (routes + alternates) * BYTES_PER_ROUTE
+                + segments * BYTES_PER_SEGMENT
+                + (long) HandlerCache.size(net) * BYTES_PER_HANDLER
+                + (long) SinkCache.sinkStateCount(net) * BYTES_PER_SINK;
+        return new NetSize(net.getAllNodes().size(), netData.size(), routes, endpoints, RegionGraph.regionCount(net),
+                segments, bytes);
+    }
+}
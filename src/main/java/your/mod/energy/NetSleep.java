@@ -0,0 +1,119 @@
+package your.mod.energy;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * Wake-up index for sleeping energy nets (see {@link SinkCache#isSleeping()}).
+ *
+ * When a net falls asleep it registers its endpoint positions here. A sink whose stored energy drops
+ * (machine consumed energy) reports its position via {@link #onSinkEnergyDrained(Level, long)}, which
+ * wakes every net watching that endpoint. Watches of an unloaded level, or of every level when the server
+ * stops, are dropped so sleeping nets do not pin their level. Server-thread only.
+ */
+@Mod.EventBusSubscriber(modid = "gtceuenergynethotfix", bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class NetSleep {
+
+    private NetSleep() {}
+
+    /** Per-level: endpointPosLong -> sleeping nets (their SinkCache) fed through that endpoint. */
+    private static final Object2ObjectOpenHashMap<Level, Long2ObjectOpenHashMap<ReferenceArrayList<SinkCache>>> WATCH =
+            new Object2ObjectOpenHashMap<>();
+
+    private static int watchCount;
+
+    static void watch(Level level, long endpointPosLong, SinkCache cache) {
+        Long2ObjectOpenHashMap<ReferenceArrayList<SinkCache>> map = WATCH.get(level);
+        if (map == null) {
+            map = new Long2ObjectOpenHashMap<>();
+            WATCH.put(level, map);
+        }
+        ReferenceArrayList<SinkCache> list = map.get(endpointPosLong);
+        if (list == null) {
+            list = new ReferenceArrayList<>(1);
+            map.put(endpointPosLong, list);
+        }
+        list.add(cache);
+        watchCount++;
+    }
+
+    static void unwatch(Level level, long endpointPosLong, SinkCache cache) {
+        final Long2ObjectOpenHashMap<ReferenceArrayList<SinkCache>> map = WATCH.get(level);
+        if (map == null) return;
+        final ReferenceArrayList<SinkCache> list = map.get(endpointPosLong);
+        if (list == null) return;
+        if (list.rem(cache)) watchCount--;
+        if (list.isEmpty()) {
+            map.remove(endpointPosLong);
+            if (map.isEmpty()) WATCH.remove(level);
+        }
+    }
+
+    /** Cheap guard for sink-side hooks: nothing to do while no net is asleep. */
+    public static boolean hasWatchers() {
+        return watchCount > 0;
+    }
+
+    /**
+     * A sink at endpointPosLong lost energy (space opened up): wake every net sleeping on it.
+     */
+    public static void onSinkEnergyDrained(Level level, long endpointPosLong) {
+        if (watchCount <= 0) return;
+        final Long2ObjectOpenHashMap<ReferenceArrayList<SinkCache>> map = WATCH.get(level);
+        if (map == null) return;
+        final ReferenceArrayList<SinkCache> list = map.get(endpointPosLong);
+        if (list == null) return;
+
+        // wake() unwatches (and may remove this list), so iterate over a snapshot.
+        final SinkCache[] caches = list.toArray(new SinkCache[0]);
+        for (SinkCache cache : caches) {
+            cache.wake();
+        }
+    }
+
+    /**
+     * A chunk may have started ticking again ({@link EndpointChunks}): wake every net sleeping on an endpoint
+     * in it. O(watched endpoints of the level); only called for chunks with parked endpoints.
+     */
+    public static void onChunkChanged(Level level, int chunkX, int chunkZ) {
+        if (watchCount <= 0) return;
+        final Long2ObjectOpenHashMap<ReferenceArrayList<SinkCache>> map = WATCH.get(level);
+        if (map == null) return;
+
+        final ReferenceArrayList<SinkCache> wake = new ReferenceArrayList<>();
+        for (Long2ObjectMap.Entry<ReferenceArrayList<SinkCache>> e : map.long2ObjectEntrySet()) {
+            final long pos = e.getLongKey();
+            if ((BlockPos.getX(pos) >> 4) == chunkX && (BlockPos.getZ(pos) >> 4) == chunkZ) wake.addAll(e.getValue());
+        }
+        // wake() unwatches, so do not modify the map while iterating it.
+        for (SinkCache cache : wake) {
+            cache.wake();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            final Long2ObjectOpenHashMap<ReferenceArrayList<SinkCache>> map = WATCH.remove(level);
+            if (map == null) return;
+            for (ReferenceArrayList<SinkCache> list : map.values()) {
+                watchCount -= list.size();
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        WATCH.clear();
+        watchCount = 0;
+    }
+}
@@ -0,0 +1,135 @@
+package your.mod.energy;
+
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Wall-clock time per server tick spent in the hotfix's hot sections (delivery, route rebuilds, tick-end
+ * amperage apply), captured over a window of ticks for headless performance scenarios.
+ *
+ * Disabled unless a capture is running: {@link #begin} is then a single static field read. Nested entries
+ * of the same section (a sink that is itself a cable handler) are only timed once. Server-thread only.
+ */
+@Mod.EventBusSubscriber(modid = "gtceuenergynethotfix", bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class PerfProbe {
+
+    private PerfProbe() {}
+
+    public enum Section {
+        /** EnergyNetHandler.acceptEnergyFromNetwork (EnergyNetHandlerMixin). */
+        DELIVERY,
+        /** EnergyNetWalker.createNetData (route rebuilds). */
+        REBUILD,
+        /** CableAmperageAccumulator tick-end apply. */
+        AMPERAGE_APPLY
+    }
+
+    private static final Section[] SECTIONS = Section.values();
+
+    private static boolean enabled;
+    private static final int[] DEPTH = new int[SECTIONS.length];
+    private static final long[] TICK_NANOS = new long[SECTIONS.length];
+
+    // Captured per-tick totals: [section][tick].
+    private static long[][] samples;
+    private static int sampleCount;
+
+    /**
+     * Enter a section.
+     *
+     * @return token for {@link #end}: 0 when disabled
+     */
+    public static long begin(Section section) {
+        if (!enabled) return 0L;
+        if (DEPTH[section.ordinal()]++ > 0) return -1L;
+        return System.nanoTime();
+    }
+
+    public static void end(Section section, long token) {
+        if (token == 0L) return;
+        final int i = section.ordinal();
+        if (DEPTH[i] > 0) DEPTH[i]--;
+        if (token < 0L) return;
+        TICK_NANOS[i] += System.nanoTime() - token;
+    }
+
+    /** Start capturing per-tick totals for at most {@code maxTicks} ticks (drops any previous capture). */
+    public static void startCapture(int maxTicks) {
+        samples = new long[SECTIONS.length][Math.max(1, maxTicks)];
+        sampleCount = 0;
+        Arrays.fill(TICK_NANOS, 0L);
+        Arrays.fill(DEPTH, 0);
+        enabled = true;
+    }
+
+    public static boolean isCapturing() {
+        return enabled;
+    }
+
+    /** Stop the capture and summarize it (one entry per {@link Section}). */
+    public static Summary[] stopCapture() {
+        enabled = false;
+        final Summary[] out = new Summary[SECTIONS.length];
+        for (int s = 0; s < SECTIONS.length; s++) {
+            out[s] = Summary.of(SECTIONS[s], samples == null ? new long[0] : samples[s], sampleCount);
+        }
+        samples = null;
+        sampleCount = 0;
+        return out;
+    }
+
+    // LOWEST: after the tick-end apply handlers have been timed.
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || !enabled) return;
+
+        if (sampleCount < samples[0].length) {
+            for (int s = 0; s < SECTIONS.length; s++) {
+                samples[s][sampleCount] = TICK_NANOS[s];
+            }
+            sampleCount++;
+        }
+        Arrays.fill(TICK_NANOS, 0L);
+        // A section left by an exception never ended; do not let it disable timing for the rest of the capture.
+        Arrays.fill(DEPTH, 0);
+    }
+
+    /** Per-tick nanoseconds of one section over a capture. */
+    public static final class Summary {
+        public final Section section;
+        public final int ticks;
+        public final double meanNanos;
+        public final long p99Nanos;
+        public final long maxNanos;
+
+        private Summary(Section section, int ticks, double meanNanos, long p99Nanos, long maxNanos) {
+            this.section = section;
+            this.ticks = ticks;
+            this.meanNanos = meanNanos;
+            this.p99Nanos = p99Nanos;
+            this.maxNanos = maxNanos;
+        }
+
+        static Summary of(Section section, long[] perTick, int count) {
+            if (count <= 0) return new Summary(section, 0, 0.0, 0L, 0L);
+            final long[] sorted = Arrays.copyOf(perTick, count);
+            Arrays.sort(sorted);
+            long sum = 0;
+            for (long v : sorted) sum += v;
+            final int p99 = (int) Math.ceil(count * 0.99) - 1;
+            return new Summary(section, count, (double) sum / count, sorted[Math.max(0, Math.min(count - 1, p99))],
+                    sorted[count - 1]);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s: mean=%.0fns p99=%dns max=%dns over %d ticks",
+                    section, meanNanos, p99Nanos, maxNanos, ticks);
+        }
+    }
+}
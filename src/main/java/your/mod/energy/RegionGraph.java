@@ -0,0 +1,304 @@
+package your.mod.energy;
+
+import com.gregtechceu.gtceu.api.data.chemical.material.properties.WireProperties;
+import com.gregtechceu.gtceu.common.blockentity.CableBlockEntity;
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyNet;
+import it.unimi.dsi.fastutil.bytes.ByteArrayList;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntHeapPriorityQueue;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import your.mod.config.HotfixConfig;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Region partition of an energy net for hierarchical route building ({@link HotfixConfig#regionRouting}).
+ *
+ * A region is a connected set of cables within one chunk section (16^3). It is scanned from the world once and
+ * cached: cable block entities, loss per block, links inside the region, exits (connections to cables in other
+ * sections) and sink faces. Cables with exits are the region's border nodes. Shortest paths inside a region are
+ * computed per start cable ({@link #table}) and cached with it, so a producer's lazy route walk
+ * ({@link RegionWalk}) only searches between border nodes plus the tables of the regions it enters.
+ *
+ * Regions survive route rebuilds: a neighbour update invalidates only the regions of its section and the adjacent
+ * sections ({@link #invalidate}), so after a machine is placed the next rebuild rescans one region instead of
+ * walking the whole net. Connection updates ({@code onPipeConnectionsUpdate}) do the same around the node GTCEu is
+ * adding, removing or reconnecting ({@link #beginNodeChange}, from {@code PipeNetMixin}); one without a known node
+ * drops the whole graph of the net. Server thread only.
+ */
+@Mod.EventBusSubscriber(modid = "gtceuenergynethotfix", bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class RegionGraph {
+
+    private static final Reference2ObjectOpenHashMap<EnergyNet, RegionGraph> PER_NET = new Reference2ObjectOpenHashMap<>();
+
+    // Node change in progress (PipeNetMixin), read by the connection update it raises.
+    private static EnergyNet changingNet;
+    private static BlockPos changingPos;
+
+    /** Connected cables of one net within one chunk section. */
+    static final class Region {
+        final long section;
+        final long[] pos;
+        final CableBlockEntity[] cables;
+        final long[] loss;
+        final int[][] links;
+        final long[][] exits;
+        /** Bit per {@link Direction#ordinal()}: a sink is attached to that face of the cable. */
+        final byte[] sinkFaces;
+        final Long2IntOpenHashMap index;
+
+        private final Int2ObjectOpenHashMap<Table> tables = new Int2ObjectOpenHashMap<>();
+
+        private Region(long section, long[] pos, CableBlockEntity[] cables, long[] loss, int[][] links, long[][] exits,
+                       byte[] sinkFaces, Long2IntOpenHashMap index) {
+            this.section = section;
+            this.pos = pos;
+            this.cables = cables;
+            this.loss = loss;
+            this.links = links;
+            this.exits = exits;
+            this.sinkFaces = sinkFaces;
+            this.index = index;
+        }
+
+        int size() {
+            return pos.length;
+        }
+
+        boolean isBorder(int local) {
+            return exits[local].length > 0;
+        }
+
+        /** Shortest paths (by loss, then length) from {@code start} to every cable of the region. */
+        Table table(int start) {
+            Table t = tables.get(start);
+            if (t == null) {
+                t = new Table(this, start);
+                tables.put(start, t);
+            }
+            return t;
+        }
+    }
+
+    /**
+     * Single-source shortest paths inside one region. {@code cost} excludes the start cable's own loss;
+     * {@code depth} counts cables after the start; {@code order} lists reached cables by increasing cost.
+     */
+    static final class Table {
+        final long[] cost;
+        final int[] depth;
+        final int[] parent;
+        final int[] order;
+
+        Table(Region region, int start) {
+            final int n = region.size();
+            cost = new long[n];
+            depth = new int[n];
+            parent = new int[n];
+            Arrays.fill(cost, Long.MAX_VALUE);
+            Arrays.fill(parent, -1);
+            final boolean[] done = new boolean[n];
+            final IntArrayList settled = new IntArrayList(n);
+            // Entries are re-queued on improvement and stale ones skipped when dequeued.
+            final IntHeapPriorityQueue queue = new IntHeapPriorityQueue((a, b) -> cost[a] != cost[b]
+                    ? Long.compare(cost[a], cost[b])
+                    : Integer.compare(depth[a], depth[b]));
+            cost[start] = 0L;
+            queue.enqueue(start);
+            while (!queue.isEmpty()) {
+                final int best = queue.dequeueInt();
+                if (done[best]) continue;
+                done[best] = true;
+                settled.add(best);
+                for (int next : region.links[best]) {
+                    if (done[next]) continue;
+                    final long c = cost[best] + region.loss[next];
+                    if (c < cost[next] || (c == cost[next] && depth[best] + 1 < depth[next])) {
+                        cost[next] = c;
+                        depth[next] = depth[best] + 1;
+                        parent[next] = best;
+                        queue.enqueue(next);
+                    }
+                }
+            }
+            order = settled.toIntArray();
+        }
+    }
+
+    private final EnergyNet net;
+    private final Long2ObjectOpenHashMap<Region> byCable = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectOpenHashMap<ObjectArrayList<Region>> bySection = new Long2ObjectOpenHashMap<>();
+
+    private RegionGraph(EnergyNet net) {
+        this.net = net;
+    }
+
+    public static RegionGraph of(EnergyNet net) {
+        RegionGraph graph = PER_NET.get(net);
+        if (graph == null) {
+            NetHandoff.pruneDeadNets(PER_NET);
+            graph = new RegionGraph(net);
+            PER_NET.put(net, graph);
+        }
+        return graph;
+    }
+
+    /** Drop the regions a change at {@code pos} can affect: its section and the sections next to it. */
+    public static void invalidate(EnergyNet net, BlockPos pos) {
+        final RegionGraph graph = PER_NET.get(net);
+        if (graph == null || pos == null) return;
+        final long section = SectionPos.asLong(pos);
+        graph.dropSection(section);
+        for (Direction dir : Direction.values()) {
+            final long other = SectionPos.asLong(pos.relative(dir));
+            if (other != section) graph.dropSection(other);
+        }
+    }
+
+    public static void clear(EnergyNet net) {
+        PER_NET.remove(net);
+    }
+
+    /** A node of {@code net} at {@code pos} is being added, removed or reconnected (until {@link #endNodeChange}). */
+    public static void beginNodeChange(EnergyNet net, BlockPos pos) {
+        changingNet = net;
+        changingPos = pos;
+    }
+
+    public static void endNodeChange() {
+        changingNet = null;
+        changingPos = null;
+    }
+
+    /** Connection update of {@code net}: invalidate around the changing node, or drop the graph if none is known. */
+    public static void onConnectionsUpdate(EnergyNet net) {
+        if (net == changingNet && changingPos != null) {
+            invalidate(net, changingPos);
+        } else {
+            clear(net);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        PER_NET.clear();
+        endNodeChange();
+    }
+
+    /** Number of cached regions of a net (0 if none). */
+    public static int regionCount(EnergyNet net) {
+        final RegionGraph graph = PER_NET.get(net);
+        if (graph == null) return 0;
+        int n = 0;
+        for (ObjectArrayList<Region> regions : graph.bySection.values()) n += regions.size();
+        return n;
+    }
+
+    private void dropSection(long section) {
+        final ObjectArrayList<Region> regions = bySection.remove(section);
+        if (regions == null) return;
+        for (Region region : regions) {
+            for (long p : region.pos) byCable.remove(p);
+        }
+    }
+
+    /**
+     * Region containing the cable at {@code posLong}, scanned from the world if not cached.
+     *
+     * @return null if there is no cable of this net at that position
+     */
+    Region regionOf(Level level, long posLong) {
+        final Region cached = byCable.get(posLong);
+        if (cached != null) return cached;
+        final BlockPos pos = BlockPos.of(posLong);
+        if (!(level.getBlockEntity(pos) instanceof CableBlockEntity) || !net.getAllNodes().containsKey(pos)) return null;
+
+        final Region region = scan(level, pos);
+        for (long p : region.pos) byCable.put(p, region);
+        ObjectArrayList<Region> regions = bySection.get(region.section);
+        if (regions == null) {
+            regions = new ObjectArrayList<>(1);
+            bySection.put(region.section, regions);
+        }
+        regions.add(region);
+        return region;
+    }
+
+    private Region scan(Level level, BlockPos entry) {
+        final long section = SectionPos.asLong(entry);
+        final Map<BlockPos, ?> nodes = net.getAllNodes();
+        final Long2IntOpenHashMap index = new Long2IntOpenHashMap();
+        index.defaultReturnValue(-1);
+        final ObjectArrayList<CableBlockEntity> cables = new ObjectArrayList<>();
+        final LongArrayList pos = new LongArrayList();
+
+        index.put(entry.asLong(), 0);
+        pos.add(entry.asLong());
+        cables.add((CableBlockEntity) level.getBlockEntity(entry));
+
+        final ObjectArrayList<LongArrayList> linkPos = new ObjectArrayList<>();
+        final ObjectArrayList<long[]> exits = new ObjectArrayList<>();
+        final ByteArrayList sinkFaces = new ByteArrayList();
+        final LongArrayList exitScratch = new LongArrayList();
+        for (int i = 0; i < pos.size(); i++) {
+            final CableBlockEntity cable = cables.get(i);
+            final BlockPos p = BlockPos.of(pos.getLong(i));
+            final LongArrayList links = new LongArrayList(2);
+            exitScratch.clear();
+            byte faces = 0;
+            for (Direction dir : Direction.values()) {
+                if (!cable.isConnected(dir)) continue;
+                final BlockPos nextPos = p.relative(dir);
+                final BlockEntity neighbour = level.getBlockEntity(nextPos);
+                if (neighbour instanceof CableBlockEntity next) {
+                    if (!next.isConnected(dir.getOpposite()) || !nodes.containsKey(nextPos)) continue;
+                    final long nextLong = nextPos.asLong();
+                    if (SectionPos.asLong(nextPos) != section) {
+                        exitScratch.add(nextLong);
+                        continue;
+                    }
+                    links.add(nextLong);
+                    if (index.get(nextLong) < 0) {
+                        index.put(nextLong, pos.size());
+                        pos.add(nextLong);
+                        cables.add(next);
+                    }
+                    continue;
+                }
+                if (neighbour != null && LazyRouteList.isSink(neighbour, dir.getOpposite())) {
+                    faces |= (byte) (1 << dir.ordinal());
+                }
+            }
+            linkPos.add(links);
+            exits.add(exitScratch.toLongArray());
+            sinkFaces.add(faces);
+        }
+
+        final int n = pos.size();
+        final int[][] links = new int[n][];
+        final long[] loss = new long[n];
+        for (int i = 0; i < n; i++) {
+            final LongArrayList l = linkPos.get(i);
+            links[i] = new int[l.size()];
+            for (int k = 0; k < l.size(); k++) links[i][k] = index.get(l.getLong(k));
+            final WireProperties props = (WireProperties) cables.get(i).getNodeData();
+            loss[i] = (props == null) ? 0L : props.getLossPerBlock();
+        }
+        return new Region(section, pos.toLongArray(), cables.toArray(new CableBlockEntity[0]), loss, links,
+                exits.toArray(new long[0][]), sinkFaces.toByteArray(), index);
+    }
+}
@@ -0,0 +1,145 @@
+package your.mod.energy;
+
+import com.gregtechceu.gtceu.common.blockentity.CableBlockEntity;
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyRoutePath;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectHeapPriorityQueue;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.Level;
+import your.mod.energy.RegionGraph.Region;
+import your.mod.energy.RegionGraph.Table;
+
+import java.util.Comparator;
+
+/**
+ * Loss-ordered route walk of one producer pipe over a {@link RegionGraph}: the search runs between border nodes
+ * (and the producer pipe), using each region's cached shortest-path table to reach the other borders and the
+ * sinks of the region; crossing into a neighbouring section costs the loss of the cable entered. Sinks come out
+ * in the same order as from the cable-by-cable walk in {@link LazyRouteList}, ties included (both break them by
+ * cable position, then face); full cable paths are assembled only for the routes that are emitted.
+ */
+final class RegionWalk {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    // Ties as in LazyRouteList: by cable position, then a node before its sink faces in Direction order.
+    private static final Comparator<Label> ORDER = (a, b) -> {
+        if (a.loss != b.loss) return Long.compare(a.loss, b.loss);
+        if (a.length != b.length) return Integer.compare(a.length, b.length);
+        final long pa = a.region.pos[a.local];
+        final long pb = b.region.pos[b.local];
+        return (pa != pb) ? Long.compare(pa, pb) : Integer.compare(a.face, b.face);
+    };
+
+    /**
+     * A border node (or the producer pipe) reached by the search, or a sink face ({@code face >= 0}) offered at
+     * its cost. {@code exit}: reached by crossing into another section from {@code parent}, otherwise over the
+     * parent's table inside the same region.
+     */
+    private static final class Label {
+        final Region region;
+        final int local;
+        final Label parent;
+        final boolean exit;
+        final long loss;
+        final int length;
+        final int face;
+
+        Label(Region region, int local, Label parent, boolean exit, long loss, int length, int face) {
+            this.region = region;
+            this.local = local;
+            this.parent = parent;
+            this.exit = exit;
+            this.loss = loss;
+            this.length = length;
+            this.face = face;
+        }
+    }
+
+    private final RegionGraph graph;
+    private final ObjectHeapPriorityQueue<Label> queue = new ObjectHeapPriorityQueue<>(ORDER);
+    private final LongOpenHashSet settled = new LongOpenHashSet();
+    private final LongOpenHashSet emitted = new LongOpenHashSet();
+
+    private RegionWalk(RegionGraph graph, Region region, int local) {
+        this.graph = graph;
+        queue.enqueue(new Label(region, local, null, false, region.loss[local], 1, -1));
+    }
+
+    /** @return a walk from the producer pipe, or null if it is not a cable of the graph's net */
+    static RegionWalk start(RegionGraph graph, Level level, BlockPos pipePos) {
+        final Region region = graph.regionOf(level, pipePos.asLong());
+        if (region == null) return null;
+        return new RegionWalk(graph, region, region.index.get(pipePos.asLong()));
+    }
+
+    /**
+     * Take one step: emit a sink route into {@code out} or settle one node.
+     *
+     * @return false once the walk is exhausted
+     */
+    boolean step(Level level, LazyRouteList out) {
+        if (queue.isEmpty()) return false;
+        final Label label = queue.dequeue();
+        final Region region = label.region;
+
+        if (label.face >= 0) {
+            final long key = KeyUtil.packPosSide(BlockPos.of(region.pos[label.local]), DIRECTIONS[label.face]);
+            if (emitted.add(key)) out.emit(route(label), level);
+            return true;
+        }
+
+        if (!settled.add(region.pos[label.local])) return true;
+
+        // Sinks of this region and its other borders, over the region's table from this node.
+        final Table table = region.table(label.local);
+        for (final int c : table.order) {
+            final long loss = label.loss + table.cost[c];
+            final int length = label.length + table.depth[c];
+            int faces = region.sinkFaces[c];
+            while (faces != 0) {
+                final int face = Integer.numberOfTrailingZeros(faces);
+                faces &= faces - 1;
+                queue.enqueue(new Label(region, c, label, false, loss, length, face));
+            }
+            if (c != label.local && region.isBorder(c) && !settled.contains(region.pos[c])) {
+                queue.enqueue(new Label(region, c, label, false, loss, length, -1));
+            }
+        }
+
+        // Crossings into the neighbouring sections.
+        for (final long exit : region.exits[label.local]) {
+            if (settled.contains(exit)) continue;
+            final Region next = graph.regionOf(level, exit);
+            if (next == null) continue;
+            final int local = next.index.get(exit);
+            queue.enqueue(new Label(next, local, label, true, label.loss + next.loss[local], label.length + 1, -1));
+        }
+        return true;
+    }
+
+    /** Assemble the full cable path of a sink label (producer pipe first). */
+    private static EnergyRoutePath route(Label sink) {
+        final CableBlockEntity[] path = new CableBlockEntity[sink.length];
+        int end = sink.length;
+        for (Label cur = sink; cur != null; cur = cur.parent) {
+            final Region region = cur.region;
+            if (cur.parent == null) {
+                path[0] = region.cables[cur.local];
+            } else if (cur.exit) {
+                path[--end] = region.cables[cur.local];
+            } else {
+                final Table table = region.table(cur.parent.local);
+                for (int c = cur.local; c != cur.parent.local; c = table.parent[c]) {
+                    path[--end] = region.cables[c];
+                }
+            }
+        }
+        final Region region = sink.region;
+        final EnergyRoutePath route = new EnergyRoutePath(BlockPos.of(region.pos[sink.local]), DIRECTIONS[sink.face],
+                path, sink.length, sink.loss);
+        NetDeliveryAdapter.populate(route);
+        return route;
+    }
+}
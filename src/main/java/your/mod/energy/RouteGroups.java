@@ -0,0 +1,172 @@
+package your.mod.energy;
+
+import com.gregtechceu.gtceu.api.capability.IEnergyContainer;
+import com.gregtechceu.gtceu.common.blockentity.CableBlockEntity;
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyNet;
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyRoutePath;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import net.minecraft.world.level.Level;
+import your.mod.config.HotfixConfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Collapses routes that end at the same sink: a machine touching the net on several faces shows up once per
+ * face, and each route would cost its own probe, sink state and active-ring slot. Routes to one endpoint
+ * position that resolve to the same energy container, and accept input on their side, form a group; only the
+ * best route ({@link #BEST}: lowest loss, then highest clamp, then shortest) stays in the route list, the others
+ * are kept on it as alternates ({@link IRouteSegmentData#gtceuHotfix$getAlternates()}).
+ *
+ * An offer is delivered over the first member that carries its voltage ({@link #select}): an under-rated
+ * lossless primary would overvolt or burn a cable that a better-rated face avoids. While a net serves stale
+ * routes, members that cross a burnt, removed or cut cable are skipped until the routes are rebuilt ({@link #intact}).
+ * Input-side checks are made when the list is built and, like {@link HandlerCache}, treated as static per
+ * block entity. The walker's uncollapsed list is kept for the vanilla loop
+ * ({@link IRouteSegmentData#gtceuHotfix$getWalkerOrder()}). Build time only; disabled with
+ * {@link HotfixConfig#collapseEndpoints}.
+ */
+public final class RouteGroups {
+
+    private RouteGroups() {}
+
+    /** Lowest loss first, then highest clamp (weakest segment rating), then shortest path. */
+    public static final Comparator<EnergyRoutePath> BEST = Comparator
+            .comparingLong(EnergyRoutePath::getMaxLoss)
+            .thenComparing(Comparator.comparingLong(RouteGroups::clamp).reversed())
+            .thenComparingInt(EnergyRoutePath::getDistance);
+
+    /**
+     * Collapse a freshly built route list in place (relative order of the remaining routes is kept). The list
+     * as walked is stored on its new first route.
+     */
+    public static void collapse(List<EnergyRoutePath> routes, Level level) {
+        if (!HotfixConfig.collapseEndpoints || level == null || routes.size() < 2) return;
+        final List<EnergyRoutePath> out = new ArrayList<>(routes.size());
+        final Long2IntOpenHashMap index = newIndex();
+        for (int i = 0, n = routes.size(); i < n; i++) {
+            add(out, index, routes.get(i), level);
+        }
+        if (out.size() == routes.size()) return;
+        final List<EnergyRoutePath> walked = new ArrayList<>(routes);
+        routes.clear();
+        routes.addAll(out);
+        ((IRouteSegmentData) routes.get(0)).gtceuHotfix$setWalkerOrder(walked);
+    }
+
+    public static Long2IntOpenHashMap newIndex() {
+        final Long2IntOpenHashMap index = new Long2IntOpenHashMap();
+        index.defaultReturnValue(-1);
+        return index;
+    }
+
+    /**
+     * Append {@code route} to {@code routes}, or fold it into the group of an earlier route to the same sink.
+     *
+     * @param index endpoint position -> list index of the group's primary (see {@link #newIndex})
+     * @return true if the route was appended to the list
+     */
+    public static boolean add(List<EnergyRoutePath> routes, Long2IntOpenHashMap index, EnergyRoutePath route,
+                              Level level) {
+        if (!HotfixConfig.collapseEndpoints || level == null) {
+            routes.add(route);
+            return true;
+        }
+        final IRouteSegmentData data = (IRouteSegmentData) route;
+        final IEnergyContainer handler = inputHandler(route, level);
+        final long pos = data.gtceuHotfix$getEndpointPos().asLong();
+        final int slot = (handler == null) ? -1 : index.get(pos);
+        if (slot >= 0) {
+            final EnergyRoutePath primary = routes.get(slot);
+            if (inputHandler(primary, level) == handler) {
+                routes.set(slot, merge(primary, route));
+                return false;
+            }
+        }
+        routes.add(route);
+        // First route to a sink heads its group; routes that do not feed anything stay on their own.
+        if (handler != null && slot < 0) index.put(pos, routes.size() - 1);
+        return true;
+    }
+
+    /**
+     * Group member to deliver an offer of {@code voltage} over: the first one, best first, whose weakest segment
+     * is rated for {@code voltage} and, with {@code stale}, that does not cross a removed or cut cable of
+     * {@code net}. Otherwise the group's {@link #intact} route (its primary unless stale).
+     */
+    public static EnergyRoutePath select(EnergyNet net, EnergyRoutePath primary, long voltage, boolean stale) {
+        final EnergyRoutePath[] alternates = ((IRouteSegmentData) primary).gtceuHotfix$getAlternates();
+        if (alternates == null || carries(net, primary, voltage, stale)) return primary;
+        for (EnergyRoutePath alternate : alternates) {
+            if (carries(net, alternate, voltage, stale)) return alternate;
+        }
+        return stale ? intact(net, primary) : primary;
+    }
+
+    private static boolean carries(EnergyNet net, EnergyRoutePath route, long voltage, boolean stale) {
+        return clamp(route) >= voltage && (!stale || isIntact(net, route));
+    }
+
+    /** @return the group's route that does not cross a removed or cut cable (the primary if none or all do) */
+    public static EnergyRoutePath intact(EnergyNet net, EnergyRoutePath primary) {
+        final EnergyRoutePath[] alternates = ((IRouteSegmentData) primary).gtceuHotfix$getAlternates();
+        if (alternates == null || isIntact(net, primary)) return primary;
+        for (EnergyRoutePath alternate : alternates) {
+            if (isIntact(net, alternate)) return alternate;
+        }
+        return primary;
+    }
+
+    private static boolean isIntact(EnergyNet net, EnergyRoutePath route) {
+        final CableBlockEntity[] path = route.getPath();
+        if (path == null) return true;
+        for (int i = 0; i < path.length; i++) {
+            if (NetDeliveryAdapter.isCut(net, route, i)) return false;
+        }
+        return true;
+    }
+
+    /** Merge two routes to one sink: the better one heads the group, all others become sorted alternates. */
+    private static EnergyRoutePath merge(EnergyRoutePath primary, EnergyRoutePath route) {
+        final EnergyRoutePath[] old = ((IRouteSegmentData) primary).gtceuHotfix$getAlternates();
+        final int n = (old == null) ? 0 : old.length;
+        final EnergyRoutePath[] members = new EnergyRoutePath[n + 2];
+        members[0] = primary;
+        members[1] = route;
+        if (n > 0) System.arraycopy(old, 0, members, 2, n);
+        Arrays.sort(members, BEST);
+
+        ((IRouteSegmentData) primary).gtceuHotfix$setAlternates(null);
+        final EnergyRoutePath head = members[0];
+        // Keep the list's uniform classification on whichever route heads the slot.
+        ((IRouteSegmentData) head).gtceuHotfix$setListUniformVoltage(
+                ((IRouteSegmentData) primary).gtceuHotfix$getListUniformVoltage());
+        ((IRouteSegmentData) head).gtceuHotfix$setAlternates(Arrays.copyOfRange(members, 1, members.length));
+        return head;
+    }
+
+    /** @return the sink's energy container if it accepts input on the route's side, else null */
+    private static IEnergyContainer inputHandler(EnergyRoutePath route, Level level) {
+        final IEnergyContainer handler = route.getHandler(level);
+        if (handler == null) return null;
+        try {
+            return handler.inputsEnergy(((IRouteSegmentData) route).gtceuHotfix$getInsertSide()) ? handler : null;
+        } catch (Throwable t) {
+            // Treat as non-input if a handler misbehaves (as HandlerCache does).
+            return null;
+        }
+    }
+
+    /** Weakest segment rating of a route (the voltage vanilla clamps delivery to). */
+    private static long clamp(EnergyRoutePath route) {
+        final long[] maxV = ((IRouteSegmentData) route).gtceuHotfix$getMaxVoltage();
+        long min = Long.MAX_VALUE;
+        if (maxV == null) return min;
+        for (long v : maxV) {
+            if (v > 0 && v < min) min = v;
+        }
+        return min;
+    }
+}
@@ -1,24 +1,56 @@
 package your.mod.energy;
 
+import com.gregtechceu.gtceu.api.capability.IEnergyContainer;
+import com.gregtechceu.gtceu.api.machine.trait.NotifiableEnergyContainer;
 import com.gregtechceu.gtceu.common.pipelike.cable.EnergyNet;
 import com.gregtechceu.gtceu.common.pipelike.cable.EnergyRoutePath;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.Level;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import your.mod.config.HotfixConfig;
+import your.mod.energy.core.RouteSchedule;
 
 import java.util.List;
-import java.util.BitSet;
-import java.util.Arrays;
+import java.util.Map;
 
 /**
  * Per-net, per-tick sink state cache.
  *
  * Values include remaining per-tick budgets for sinks (EU-space + input amps).
  * Uses HandlerCache for multi-tick handler resolution.
+ *
+ * The per-tick distribution context (cursor, exhaustion, active routes, probe budget) is the
+ * Minecraft-free {@link RouteSchedule}; this class adds the net-bound parts: sink states, route
+ * lookup and sleep mode.
+ *
+ * Warm start: when a net's cache is dropped for a rebuild ({@link #clear}) or a replacement net takes over
+ * its cables ({@link #handoff}), the sinks fed in the last tick are remembered. The first route lists the
+ * new cache prepares mark the routes to those sinks active ({@link RouteSchedule#seedActive}), so they are
+ * served by the active pass instead of being rediscovered through the probe budget.
+ *
+ * Unmet demand (offers left short by the probe budget) is reported to {@link EnergyNetDebugStats} at the end of
+ * the server tick it happened in.
+ *
+ * Sink states not recomputed for {@link #SINK_IDLE_TICKS} (endpoints removed, or no longer reached by any offer)
+ * are evicted in a sweep every {@link #SINK_IDLE_TICKS}, so the map stays bounded by the sinks the net actually
+ * serves. An evicted sink that is fed again starts without a last-fed tick, so gaps longer than that window are
+ * not recorded.
+ *
+ * Caches and warm sets of an unloaded level's nets are dropped, and all of them when the server stops, so a
+ * sleeping or idle net does not pin its level across world switches.
  */
-public final class SinkCache {
+@Mod.EventBusSubscriber(modid = "gtceuenergynethotfix", bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class SinkCache extends RouteSchedule {
 
     /**
      * Hot path: called from {@code EnergyNetHandler.acceptEnergyFromNetwork()} for every output hatch tick.
@@ -32,134 +64,88 @@ public final class SinkCache {
     private static final Reference2ObjectOpenHashMap<EnergyNet, SinkCache> NET_CACHE =
             new Reference2ObjectOpenHashMap<>();
 
+    // Warm sink keys for nets whose cache was dropped (or that have none yet), taken by the next cache.
+    private static final Reference2ObjectOpenHashMap<EnergyNet, LongOpenHashSet> WARM =
+            new Reference2ObjectOpenHashMap<>();
+
+    /** Sink states idle for this many ticks are evicted; the sweep runs at the same interval. */
+    public static final int SINK_IDLE_TICKS = 1200;
+
     // Tiny single-entry hot cache to avoid hashing on repeated calls within the same tick.
     private static EnergyNet LAST_NET;
     private static long LAST_TICK;
     private static SinkCache LAST_CACHE;
 
+    private final EnergyNet net;
     private final Long2ObjectOpenHashMap<SinkState> sinks = new Long2ObjectOpenHashMap<>();
-    private long tick;
 
-    // Per-net, per-tick distribution context: shared route cursor and exhaustion tracking.
-    private Object routesRef;
-    private int routesSize;
-    private int cursor;
+    // ---------------------------------------------------------------------
+    // Producer coalescing (per tick): multi-amp generators / hatch arrays on
+    // one cable repeat the same offer many times per tick.
+    // ---------------------------------------------------------------------
 
+    // Single-entry route lookup memo: pipePosLong -> routes (skips getNetData for repeated offers).
+    private long memoPipePos;
+    private List<EnergyRoutePath> memoRoutes;
 
-// Cached per-route endpoint data (stable until the routes list changes).
-private BlockPos[] endpointPosCache;
-private byte[] insertSideOrdinalCache; // Direction.ordinal()
+    // ---------------------------------------------------------------------
+    // Sleep mode (cross-tick): a net that stays saturated / demand-free for
+    // HotfixConfig.sleepAfterTicks consecutive ticks stops probing entirely.
+    // Nets with an endpoint that cannot report draining (not a NotifiableEnergyContainer) stay awake.
+    // ---------------------------------------------------------------------
 
-// Fast-path: set true when we have proven there is no demand on this net for the current tick.
-private boolean noDemandThisTick;
-    private boolean[] exhaustedRoutes;
-    private boolean[] visitedRoutes;
-    private int visitedCount;
+    private int idleStreak;
+    private boolean sleeping;
+    private long recheckTick;
+    private Level sleepLevel;
+    private long[] watchedEndpoints;
+    private int watchedCount;
 
-    // Tick-level saturation: once all routes (i.e., all sinks) are known to be dead/exhausted
-    // for this tick, later producer calls can immediately return O(1).
-    private boolean saturatedThisTick;
+    private int sinkComputes;
 
-    // ---------------------------------------------------------------------
-    // Active-routes + probe budget (hard cap expensive discovery work)
-    // ---------------------------------------------------------------------
+    // Tick of the next idle sink state sweep.
+    private long nextSinkSweep;
 
-    /**
-     * Max number of "new" routes we are allowed to probe (compute SinkState + try accept)
-     * per-net, per-tick, when active routes don't satisfy demand.
-     *
-     * This intentionally trades a small delay in discovering newly-consuming sinks
-     * for a hard upper bound on worst-case CPU.
-     */
-    private static final int PROBE_BUDGET_PER_TICK = 128;
-
-    private int probeBudgetRemaining;
-    private int probeCursor;
-    private int exhaustedCount;
-    // Active routes (persist across ticks): indices of routes that actually accepted energy last tick.
-    private int[] activeA;
-    private int activeASize;
-    private int[] activeB;
-    private int activeBSize;
-    private boolean writeIsA;
-
-    private int[] activeRead;
-    private int activeReadSize;
-    private int[] activeWrite;
-    private int activeWriteSize;
-
-    private BitSet activeReadMark;
-    private BitSet activeWriteMark;
-
-
-    private SinkCache(long tick) {
-        this.tick = tick;
-
-        // Per-tick state
-        this.cursor = 0;
-        this.visitedCount = 0;
-        this.exhaustedCount = 0;
-        this.saturatedThisTick = false;
-        noDemandThisTick = false;
-
-        // Active-route hint buffers (double-buffered across ticks).
-        // We intentionally keep these across ticks to avoid rescanning hundreds of endpoints
-        // when only a small subset are actually consuming.
-        this.activeA = new int[64];
-        this.activeB = new int[64];
-        this.activeASize = 0;
-        this.activeBSize = 0;
-        this.writeIsA = true;
+    // Warm start: sink keys fed before the rebuild / handoff, and the last route list seeded from them.
+    private LongOpenHashSet warmSinks;
+    private Object warmSeeded;
+
+    SinkCache(EnergyNet net, long tick) {
+        super(tick);
+        this.net = net;
+        this.nextSinkSweep = tick + SINK_IDLE_TICKS;
     }
 
     /**
-     * Reset per-tick state while keeping cross-tick hint buffers.
-     * Called from {@link #get(EnergyNet, long)}.
+     * Sleep bookkeeping uses the previous tick's proof before {@link RouteSchedule#beginTick} resets it.
+     * SinkState instances are kept and recomputed in place (stamped with the tick); see getOrCompute.
      */
-    public void beginTick(long tick) {
-        if (this.tick == tick) return;
-
-        this.tick = tick;
-        this.sinks.clear();
-
-        // Force per-tick route bookkeeping to be re-prepared.
-        this.routesRef = null;
-        this.routesSize = 0;
-        this.visitedRoutes = null;
-        this.exhaustedRoutes = null;
-        this.visitedCount = 0;
-        this.exhaustedCount = 0;
-        this.saturatedThisTick = false;
-        noDemandThisTick = false;
-
-        // Reset discovery/probing budget for this net for the tick.
-        this.probeBudgetRemaining = PROBE_BUDGET_PER_TICK;
-        this.probeCursor = 0;
-
-        // Rotate active buffers: last tick's write buffer becomes this tick's read buffer.
-        this.writeIsA = !this.writeIsA;
-
-        // After flipping, select the new write/read buffers.
-        // Write buffer is cleared each tick; read buffer retains the previous tick's active routes.
-        if (this.writeIsA) {
-            // Writing into A this tick, reading from previous tick's B.
-            this.activeWrite = this.activeA;
-            this.activeASize = 0;
-            this.activeWriteSize = 0;
-
-            this.activeRead = this.activeB;
-            this.activeReadSize = this.activeBSize;
-        } else {
-            // Writing into B this tick, reading from previous tick's A.
-            this.activeWrite = this.activeB;
-            this.activeBSize = 0;
-            this.activeWriteSize = 0;
+    @Override
+    protected void onTickRollover(long nextTick) {
+        updateSleep(nextTick);
+        this.memoRoutes = null;
+        // Seeding served one tick; from now on the active ring holds real deliveries.
+        if (warmSeeded != null) {
+            warmSinks = null;
+            warmSeeded = null;
+        }
+        if (nextTick >= nextSinkSweep) {
+            nextSinkSweep = nextTick + SINK_IDLE_TICKS;
+            final long idleBefore = nextTick - SINK_IDLE_TICKS;
+            sinks.values().removeIf(state -> state.tick < idleBefore);
+        }
+    }
 
-            this.activeRead = this.activeA;
-            this.activeReadSize = this.activeASize;
+    /** Seeds the active ring of a freshly prepared list while a warm start is pending. */
+    @Override
+    public void prepareRoutes(Object routesRef, int size, boolean complete) {
+        super.prepareRoutes(routesRef, size, complete);
+        if (warmSinks == null || routesRef == warmSeeded || !(routesRef instanceof List<?> routes)) return;
+        warmSeeded = routesRef;
+        final int n = Math.min(size, routes.size());
+        for (int i = 0; i < n; i++) {
+            if (warmSinks.contains(((IRouteSegmentData) routes.get(i)).gtceuHotfix$getSinkKey())) seedActive(i);
         }
-        if (this.activeWriteMark != null) this.activeWriteMark.clear();
-        // activeReadMark will be rebuilt lazily in prepareRoutes once we know routesSize.
     }
 
     public static SinkCache get(EnergyNet net, long tick) {
@@ -170,7 +156,8 @@ private boolean noDemandThisTick;
 
         SinkCache cache = NET_CACHE.get(net);
         if (cache == null) {
-            cache = new SinkCache(tick);
+            cache = new SinkCache(net, tick);
+            cache.warmSinks = WARM.remove(net);
             NET_CACHE.put(net, cache);
         }
         cache.beginTick(tick);
@@ -181,294 +168,279 @@ private boolean noDemandThisTick;
         return cache;
     }
 
-    /**
-     * Prepare distribution context for the given routes list.
-     * Must be called before iterating routes so multiple producers share a cursor.
-     */
-    public void prepareRoutes(List<?> routes) {
-        if (routes == null) {
-            this.routesRef = null;
-            this.routesSize = 0;
-            this.cursor = 0;
-            this.exhaustedRoutes = null;
-            this.visitedRoutes = null;
-            this.visitedCount = 0;
-            this.saturatedThisTick = false;
-        noDemandThisTick = false;
-            this.exhaustedCount = 0;
-            return;
-        }
-
-        // Only reset when the routes instance or size changes, or at tick start (new SinkCache instance).
-        if (this.routesRef != routes || this.routesSize != routes.size()) {
-            this.routesRef = routes;
-            this.routesSize = routes.size();
-            this.cursor = 0;
-
-            final int n = this.routesSize;
-            if (n > 0) {
-                if (this.exhaustedRoutes == null || this.exhaustedRoutes.length != n) {
-                    this.exhaustedRoutes = new boolean[n];
-            this.endpointPosCache = new BlockPos[n];
-            this.insertSideOrdinalCache = new byte[n];
-                } else {
-                    java.util.Arrays.fill(this.exhaustedRoutes, false);
-                }
-
-                this.exhaustedCount = 0;
-                this.saturatedThisTick = false;
-        noDemandThisTick = false;
-
-                if (this.visitedRoutes == null || this.visitedRoutes.length != n) {
-                    this.visitedRoutes = new boolean[n];
-                } else {
-                    java.util.Arrays.fill(this.visitedRoutes, false);
-                }
-                this.visitedCount = 0;
-
-                // Active-route hint bookkeeping.
-                // BitSet is used so we can cheaply check if a route was active recently.
-                if (this.activeReadMark == null || this.activeReadMark.size() < n) {
-                    this.activeReadMark = new BitSet(n);
-                } else {
-                    this.activeReadMark.clear();
-                }
-                if (this.activeWriteMark == null || this.activeWriteMark.size() < n) {
-                    this.activeWriteMark = new BitSet(n);
-                } else {
-                    this.activeWriteMark.clear();
-                }
-
-                // Ensure ring buffers can hold at least all routes (worst-case).
-                if (this.activeA == null || this.activeA.length < n) {
-                    this.activeA = new int[Math.max(n, this.activeA == null ? 64 : this.activeA.length * 2)];
-                }
-                if (this.activeB == null || this.activeB.length < n) {
-                    this.activeB = new int[Math.max(n, this.activeB == null ? 64 : this.activeB.length * 2)];
-                }
-
-                // Rebuild the read-mark from the previous tick's active buffer.
-                this.activeReadMark.clear();
-                final int[] read = this.writeIsA ? this.activeB : this.activeA;
-                final int readSize = this.writeIsA ? this.activeBSize : this.activeASize;
-                for (int i = 0; i < readSize; i++) {
-                    int idx = read[i];
-                    if (idx >= 0 && idx < n) this.activeReadMark.set(idx);
-                }
-            } else {
-                this.exhaustedRoutes = null;
-                this.visitedRoutes = null;
-                this.visitedCount = 0;
-                this.saturatedThisTick = false;
-        noDemandThisTick = false;
-                this.exhaustedCount = 0;
-            }
-        } else {
-            // Same route list instance for the same tick.
-            // IMPORTANT: do NOT clear exhaustedRoutes / saturation here.
-            // Those are exactly the per-tick state we want to preserve across
-            // multiple producer calls within the same net+tick.
+    /** Report each net's unmet demand of the tick that is ending (caches of idle nets have none). */
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || NET_CACHE.isEmpty()) return;
+        for (SinkCache cache : NET_CACHE.values()) {
+            if (cache.getStarvedOffersThisTick() == 0) continue;
+            EnergyNetDebugStats.recordUnmetDemand(cache.net, cache.getUnmetAmpsThisTick());
+            cache.clearUnmetDemand();
         }
+    }
 
-        // Rotate start index for fairness (cursor will be advanced as producers deliver).
-        if (this.routesSize > 0) {
-            // A simple deterministic rotation: tick mod N is applied by caller via setCursor().
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            NET_CACHE.keySet().removeIf(net -> net.getLevel() == level);
+            WARM.keySet().removeIf(net -> net.getLevel() == level);
+            forgetLast();
         }
     }
 
-    /** Get the current shared route cursor (start index). */
-    public int getCursor() {
-        return cursor;
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        NET_CACHE.clear();
+        WARM.clear();
+        forgetLast();
     }
 
-    /** Advance the shared cursor to the given next index (mod routesSize). */
-    public void setCursor(int next) {
-        if (routesSize <= 0) {
-            this.cursor = 0;
-            return;
-        }
-        int n = routesSize;
-        int v = next % n;
-        if (v < 0) v += n;
-        this.cursor = v;
+    private static void forgetLast() {
+        LAST_NET = null;
+        LAST_TICK = 0L;
+        LAST_CACHE = null;
     }
 
-    public int[] getActiveRoutesRead() {
-        return activeRead;
+    /**
+     * Route lookup for a producer pipe, memoized for repeated offers from the same pipe within the tick.
+     */
+    public List<EnergyRoutePath> getRoutes(BlockPos pipePos) {
+        final long key = pipePos.asLong();
+        if (memoRoutes != null && memoPipePos == key) {
+            return memoRoutes;
+        }
+        final List<EnergyRoutePath> routes = net.getNetData(pipePos);
+        memoPipePos = key;
+        memoRoutes = routes;
+        return routes;
     }
 
-    public int getActiveRoutesReadSize() {
-        return activeReadSize;
+    /** Forget per-tick lookups that depend on topology (routes may have been invalidated). */
+    private void forgetRoutes() {
+        this.memoRoutes = null;
+        forgetOffers();
     }
 
-    public boolean isRouteActiveFromLastTick(int routeIndex) {
-        return activeReadMark.get(routeIndex);
+    /** @return true while the net is asleep: producer calls should return 0 in O(1). */
+    public boolean isSleeping() {
+        return sleeping;
     }
 
-    public void markRouteActiveThisTick(int routeIndex) {
-        if (routeIndex < 0 || routeIndex >= routesSize) return;
-        if (activeWriteMark.get(routeIndex)) return;
-        activeWriteMark.set(routeIndex);
-
-        // append to activeWrite buffer
-        if (activeWriteSize >= activeWrite.length) {
-            activeWrite = Arrays.copyOf(activeWrite, activeWrite.length * 2);
-            if (writeIsA) {
-                // write buffer is A
-                activeA = activeWrite;
-            } else {
-                activeB = activeWrite;
+    private void updateSleep(long tick) {
+        final int sleepAfter = HotfixConfig.sleepAfterTicks;
+        if (sleeping) {
+            // Periodic re-check: wake up, and fall back asleep after one more proven idle tick.
+            if (sleepAfter <= 0 || tick >= recheckTick) {
+                wake();
+                idleStreak = Math.max(0, sleepAfter - 1);
             }
+            return;
+        }
+        if (sleepAfter <= 0) {
+            idleStreak = 0;
+            return;
         }
-        activeWrite[activeWriteSize++] = routeIndex;
 
-        if (writeIsA) {
-            activeASize = activeWriteSize;
-        } else {
-            activeBSize = activeWriteSize;
+        final boolean provenIdle = (isSaturatedThisTick() || isNoDemandThisTick()) && !hasAcceptedThisTick();
+        idleStreak = provenIdle ? idleStreak + 1 : 0;
+        if (idleStreak >= sleepAfter) {
+            enterSleep(tick);
         }
     }
 
-
-    /** Mark a route index as exhausted for this tick (skip it for other producers). */
-    public void exhaustRoute(int idx) {
-        if (exhaustedRoutes == null) return;
-        if (idx < 0 || idx >= exhaustedRoutes.length) return;
-        if (!exhaustedRoutes[idx]) {
-            exhaustedRoutes[idx] = true;
-            exhaustedCount++;
-            if (routesSize > 0 && exhaustedCount >= routesSize) {
-                saturatedThisTick = true;
+    private void enterSleep(long tick) {
+        final Level level = net.getLevel();
+        if (level == null) return;
+
+        // Watch every endpoint of every cached route list so a draining sink wakes this net.
+        final Map<BlockPos, List<EnergyRoutePath>> netData = ((IEnergyNetHotfix) net).gtceuHotfix$getNetData();
+        final LongOpenHashSet endpoints = new LongOpenHashSet();
+        for (List<EnergyRoutePath> routes : netData.values()) {
+            for (int i = 0, n = routes.size(); i < n; i++) {
+                final EnergyRoutePath route = routes.get(i);
+                // Only NotifiableEnergyContainer reports draining (NotifiableEnergyContainerMixin): a net feeding
+                // an FE or other container would not wake when it opens up space, so it stays awake.
+                final IEnergyContainer handler = route.getHandler(level);
+                if (handler != null && !(handler instanceof NotifiableEnergyContainer)) {
+                    idleStreak = 0;
+                    return;
+                }
+                endpoints.add(((IRouteSegmentData) route).gtceuHotfix$getEndpointPos().asLong());
             }
         }
-    }
 
-    /** Check whether a route index is exhausted for this tick. */
-    public boolean isRouteExhausted(int idx) {
-        if (exhaustedRoutes == null) return false;
-        return idx >= 0 && idx < exhaustedRoutes.length && exhaustedRoutes[idx];
+        this.watchedEndpoints = endpoints.toLongArray();
+        this.watchedCount = this.watchedEndpoints.length;
+        this.sleepLevel = level;
+        for (int i = 0; i < watchedCount; i++) {
+            NetSleep.watch(level, watchedEndpoints[i], this);
+        }
+
+        this.sleeping = true;
+        this.recheckTick = tick + Math.max(1, HotfixConfig.sleepRecheckTicks);
     }
 
     /**
-     * Mark a route index as visited for this tick.
-     * @return true if this is the first visit this tick; false if it was already visited.
+     * Leave sleep mode (sink-side energy change, endpoint/topology change or periodic re-check).
      */
-    public boolean visitRoute(int idx) {
-        if (visitedRoutes == null) return true; // treat as visitable when no tracking
-        if (idx < 0 || idx >= visitedRoutes.length) return true;
-        if (visitedRoutes[idx]) return false;
-        visitedRoutes[idx] = true;
-        visitedCount++;
-        return true;
+    public void wake() {
+        this.idleStreak = 0;
+        if (!sleeping) return;
+        this.sleeping = false;
+        if (sleepLevel != null) {
+            for (int i = 0; i < watchedCount; i++) {
+                NetSleep.unwatch(sleepLevel, watchedEndpoints[i], this);
+            }
+        }
+        this.watchedEndpoints = null;
+        this.watchedCount = 0;
+        this.sleepLevel = null;
     }
 
-    /** @return true if all routes have been visited at least once this tick. */
-    public boolean allRoutesVisited() {
-        return routesSize > 0 && visitedCount >= routesSize;
+    /**
+     * Endpoint or topology change next to the net: wake it if asleep and drop per-tick route lookups.
+     */
+    public static void wake(EnergyNet net) {
+        final SinkCache cache = NET_CACHE.get(net);
+        if (cache != null) {
+            cache.forgetRoutes();
+            cache.wake();
+        }
     }
 
-    public boolean isSaturatedThisTick() {
-        return saturatedThisTick;
+    /**
+     * The net's route lists are about to be dropped (connection update): forget the memoized lookup even when
+     * the net is not marked dirty, so the memo never serves a list vanilla just cleared.
+     */
+    public static void forgetRoutes(EnergyNet net) {
+        final SinkCache cache = NET_CACHE.get(net);
+        if (cache != null) cache.forgetRoutes();
     }
 
-    public void setSaturatedThisTick(boolean saturated) {
-        this.saturatedThisTick = saturated;
+    /** Number of per-tick sink states held for a net (0 if none). */
+    public static int sinkStateCount(EnergyNet net) {
+        final SinkCache cache = NET_CACHE.get(net);
+        return cache == null ? 0 : cache.sinks.size();
     }
 
-public boolean isNoDemandThisTick() {
-    return noDemandThisTick;
-}
-
-public void setNoDemandThisTick(boolean noDemand) {
-    this.noDemandThisTick = noDemand;
-}
-
-public BlockPos getEndpointPosCached(int routeIndex, EnergyRoutePath path) {
-    if (endpointPosCache == null || routeIndex < 0 || routeIndex >= endpointPosCache.length) {
-        return path.getTargetPipePos().relative(path.getTargetFacing());
-    }
-    BlockPos cached = endpointPosCache[routeIndex];
-    if (cached == null) {
-        cached = path.getTargetPipePos().relative(path.getTargetFacing());
-        endpointPosCache[routeIndex] = cached;
+    /**
+     * Conservative invalidation hook used when the net is marked dirty. The sinks fed last tick are kept
+     * for the warm start of the next cache.
+     */
+    public static void clear(EnergyNet net) {
+        final SinkCache removed = remove(net);
+        if (removed == null) return;
+        final LongOpenHashSet warm = removed.warmKeys(null);
+        if (!warm.isEmpty()) putWarm(net, warm);
     }
-    return cached;
-}
-
 
-public Direction getInsertSideCached(int routeIndex, EnergyRoutePath path) {
-    if (insertSideOrdinalCache == null || routeIndex < 0 || routeIndex >= insertSideOrdinalCache.length) {
-        return path.getTargetFacing().getOpposite();
-    }
-    // If we haven't cached this route yet, cache both pos + side together.
-    if (endpointPosCache == null || endpointPosCache[routeIndex] == null) {
-        endpointPosCache[routeIndex] = path.getTargetPipePos().relative(path.getTargetFacing());
-        Direction side = path.getTargetFacing().getOpposite();
-        insertSideOrdinalCache[routeIndex] = (byte) side.ordinal();
-        return side;
+    /**
+     * {@code to} took over the cable nodes in {@code nodes} from {@code from} (net merge or split): warm-start
+     * it with the sinks {@code from} fed next to those cables.
+     */
+    public static void handoff(EnergyNet from, EnergyNet to, Map<BlockPos, ?> nodes) {
+        final SinkCache src = NET_CACHE.get(from);
+        final LongOpenHashSet pending = WARM.get(from);
+        if (src == null && pending == null) return;
+        final LongOpenHashSet warm = (src != null) ? src.warmKeys(nodes) : new LongOpenHashSet();
+        if (pending != null) {
+            for (long key : pending) {
+                if (NetHandoff.touches(nodes, KeyUtil.unpackPos(key))) warm.add(key);
+            }
+        }
+        if (warm.isEmpty()) return;
+        final SinkCache dst = NET_CACHE.get(to);
+        if (dst == null) {
+            putWarm(to, warm);
+        } else if (dst.warmSinks == null) {
+            dst.warmSinks = warm;
+        } else {
+            dst.warmSinks.addAll(warm);
+            dst.warmSeeded = null;
+        }
     }
-    return Direction.values()[insertSideOrdinalCache[routeIndex] & 0x7F];
-}
 
-    /** Remaining number of "new route" probes allowed this tick for this net. */
-    public int getProbeBudgetRemaining() {
-        return probeBudgetRemaining;
+    /** Drop a net's cache and warm-start state for good (the net was replaced). */
+    public static void discard(EnergyNet net) {
+        remove(net);
+        WARM.remove(net);
     }
 
-    /** Consume one probe budget slot (for an expensive route check). */
-    public boolean tryConsumeProbeBudget() {
-        if (probeBudgetRemaining <= 0) return false;
-        probeBudgetRemaining--;
-        return true;
+    private static SinkCache remove(EnergyNet net) {
+        final SinkCache removed = NET_CACHE.remove(net);
+        if (removed != null) removed.wake();
+        if (net == LAST_NET) forgetLast();
+        return removed;
     }
 
-    /**
-     * Returns the next route index to probe, cycling from 0..routeCount-1.
-     * Callers should still check bounds and skip exhausted routes.
-     */
-    public int nextProbeIndex(int routeCount) {
-        if (routeCount <= 0) return 0;
-        if (probeCursor >= routeCount) {
-            probeCursor = probeCursor % routeCount;
+    private static void putWarm(EnergyNet net, LongOpenHashSet keys) {
+        final LongOpenHashSet old = WARM.get(net);
+        if (old != null) {
+            old.addAll(keys);
+            return;
         }
-        int idx = probeCursor;
-        probeCursor++;
-        if (probeCursor >= routeCount) probeCursor = 0;
-        return idx;
-    }
-
-    /** Sets the probe cursor (will be normalized on nextProbeIndex). */
-    public void setProbeCursor(int probeCursor) {
-        this.probeCursor = Math.max(0, probeCursor);
+        NetHandoff.pruneDeadNets(WARM);
+        WARM.put(net, keys);
     }
 
     /**
-     * Conservative invalidation hook used when the net is marked dirty.
+     * Sink keys fed in the current or previous tick, plus a pending warm set (endpoints next to {@code nodes}
+     * only, if given).
      */
-    public static void clear(EnergyNet net) {
-        NET_CACHE.remove(net);
-        if (net == LAST_NET) {
-            LAST_NET = null;
-            LAST_TICK = 0L;
-            LAST_CACHE = null;
+    private LongOpenHashSet warmKeys(Map<BlockPos, ?> nodes) {
+        final LongOpenHashSet keys = new LongOpenHashSet();
+        final long since = currentTick() - 1;
+        for (Long2ObjectMap.Entry<SinkState> e : sinks.long2ObjectEntrySet()) {
+            if (e.getValue().lastFedTick < since) continue;
+            final long key = e.getLongKey();
+            if (nodes == null || NetHandoff.touches(nodes, KeyUtil.unpackPos(key))) keys.add(key);
+        }
+        if (warmSinks != null) {
+            for (long key : warmSinks) {
+                if (nodes == null || NetHandoff.touches(nodes, KeyUtil.unpackPos(key))) keys.add(key);
+            }
         }
+        return keys;
     }
 
+    /**
+     * Per-tick sink state for a route's endpoint, keyed by the route's precomputed sink key (endpoint + side).
+     * States are reused across ticks and recomputed in place, so this does not allocate in steady state.
+     */
     public SinkState getOrCompute(
             EnergyNet net,
             EnergyRoutePath path,
             Level level,
             BlockPos endpointPos,
             Direction insertSide,
-            long voltage // kept for signature compatibility; key is endpoint+side only
+            long sinkKey
     ) {
-        long posSide = KeyUtil.packPosSide(endpointPos, insertSide);
-        SinkState s = sinks.get(posSide);
-        if (s != null) return s;
+        final SinkState s = slot(sinkKey);
+        final long tick = currentTick();
+        if (s.tick == tick && s.cacheable) {
+            return s;
+        }
 
-        your.mod.energy.EnergyNetDebugStats.recordSinkCompute(net, level);
-        s = SinkState.compute(net, path, level, endpointPos, insertSide);
-        if (s.cacheable) sinks.put(posSide, s);
+        sinkComputes++;
+        SinkState.computeInto(s, net, path, level, endpointPos, insertSide, sinkKey);
+        s.tick = tick;
+        return s;
+    }
+
+    /** Sink recomputes since the last call (counted locally, flushed per producer call by the adapter). */
+    int takeSinkComputes() {
+        final int n = sinkComputes;
+        sinkComputes = 0;
+        return n;
+    }
+
+    /** Reusable sink state instance for a sink key (may be stale; check {@code tick}/{@code cacheable}). */
+    SinkState slot(long sinkKey) {
+        SinkState s = sinks.get(sinkKey);
+        if (s == null) {
+            s = new SinkState();
+            sinks.put(sinkKey, s);
+        }
         return s;
     }
 }
@@ -6,6 +6,7 @@ import com.gregtechceu.gtceu.common.pipelike.cable.EnergyRoutePath;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.world.level.Level;
+import your.mod.energy.core.SinkBudget;
 
 /**
  * Per-tick sink state for a specific endpoint (pos + insert side) on a specific {@link EnergyNet}.
@@ -18,30 +19,24 @@ import net.minecraft.world.level.Level;
  * After a successful transfer of A amps at voltage V, remainingEuSpace -= A*V.
  *
  * This avoids creating separate cache entries per voltage and dramatically reduces sink recomputation.
+ * The budget math itself lives in {@link SinkBudget}; this class binds it to the resolved GTCEu handler.
  */
-public final class SinkState {
+public final class SinkState extends SinkBudget {
 
-    public final IEnergyContainer handler;
+    public IEnergyContainer handler;
 
-    /** Whether this endpoint is a valid energy sink (direction + basic capability checks). */
-    public final boolean valid;
-
-    /** Whether this result should be cached for the remainder of the tick. */
-    public final boolean cacheable;
-
-    /** Remaining input amps budget for this tick (decremented after accepts). */
-    public long remainingInputAmps;
-
-    /** Remaining storage space in EU units for this tick (decremented by acceptedAmps * voltage). */
-    public long remainingEuSpace;
+    /**
+     * Tick this state was computed for. Instances are owned by {@link SinkCache} and recomputed in place
+     * each tick, so steady-state delivery does not allocate.
+     */
+    long tick = Long.MIN_VALUE;
 
-    /** Endpoint's nominal input voltage (used for over-voltage attempt logic). */
-    public final long inputVoltage;
+    /** Last tick energy was delivered to this endpoint (starvation telemetry); survives recomputes. */
+    long lastFedTick = Long.MIN_VALUE;
 
-    /** True if this handler is an FE wrapper (no GTCEu explosion semantics). */
-    public final boolean isFeWrapper;
+    SinkState() {}
 
-    private SinkState(
+    private SinkState set(
             IEnergyContainer handler,
             boolean valid,
             boolean cacheable,
@@ -51,48 +46,64 @@ public final class SinkState {
             boolean isFeWrapper
     ) {
         this.handler = handler;
-        this.valid = valid;
-        this.cacheable = cacheable;
-        this.remainingInputAmps = remainingInputAmps;
-        this.remainingEuSpace = remainingEuSpace;
-        this.inputVoltage = inputVoltage;
-        this.isFeWrapper = isFeWrapper;
+        setBudget(valid, cacheable, remainingInputAmps, remainingEuSpace, inputVoltage, isFeWrapper);
+        return this;
     }
 
-    public static SinkState compute(
+    /**
+     * Recompute {@code into} for the endpoint (pos + insert side) of the given route.
+     */
+    public static SinkState computeInto(
+            SinkState into,
             EnergyNet net,
             EnergyRoutePath path,
             Level level,
             BlockPos endpointPos,
-            Direction insertSide
+            Direction insertSide,
+            long sinkKey
+    ) {
+        HandlerCache.Entry entry = HandlerCache.get(net, level, endpointPos, insertSide, sinkKey, path);
+        return computeFrom(into, entry.handler, entry.inputsEnergy, entry.inputAmps, entry.inputVoltage,
+                entry.isFeWrapper);
+    }
+
+    /**
+     * Recompute {@code into} from an already resolved handler and its static input properties.
+     * Split from {@link #computeInto} so the budget logic can also be driven without a live Level.
+     */
+    static SinkState computeFrom(
+            SinkState into,
+            IEnergyContainer handler,
+            boolean inputsEnergy,
+            long inputAmps,
+            long inputVoltage,
+            boolean fe
     ) {
-        HandlerCache.Entry entry = HandlerCache.get(net, level, endpointPos, insertSide, path);
-        IEnergyContainer handler = entry.handler;
         if (handler == null) {
-            return new SinkState(null, false, true, 0, 0, 0, false);
+            return into.set(null, false, true, 0, 0, 0, false);
         }
 
-        if (!entry.inputsEnergy) {
-            return new SinkState(handler, false, true, 0, 0, 0, isFeWrapper(handler));
+        if (!inputsEnergy) {
+            return into.set(handler, false, true, 0, 0, 0, fe);
         }
 
-        long maxAmps = entry.inputAmps;
+        long maxAmps = inputAmps;
         if (maxAmps <= 0) {
-            return new SinkState(handler, false, true, 0, 0, 0, isFeWrapper(handler));
+            return into.set(handler, false, true, 0, 0, 0, fe);
         }
 
         // Cache input voltage once; used to decide whether to force an over-voltage attempt.
-        long inV = entry.inputVoltage;
+        long inV = inputVoltage;
 
         // FE wrappers (GTCEu EUToFEProvider$GTEnergyWrapper) do not provide meaningful capacity/stored values.
         // Use getEnergyCanBeInserted() instead (patched by our EUToFEGTEnergyWrapperMixin) to estimate remaining space.
-        if (isFeWrapper(handler)) {
+        if (fe) {
             long canInsertEu = handler.getEnergyCanBeInserted();
             if (canInsertEu <= 0) {
                 // Don't cache a "full" state; FE sinks may open space later in the tick.
-                return new SinkState(handler, false, false, 0, 0, inV, true);
+                return into.set(handler, false, false, 0, 0, inV, true);
             }
-            return new SinkState(handler, true, true, maxAmps, canInsertEu, inV, true);
+            return into.set(handler, true, true, maxAmps, canInsertEu, inV, true);
         }
 
         // Avoid getEnergyCanBeInserted() (it often calls getEnergyStored/getEnergyCapacity anyway).
@@ -104,56 +115,15 @@ public final class SinkState {
         if (euSpace <= 0) {
             // Storage is full *right now*; space can open later in the same tick after the machine consumes energy.
             // Do not cache a "full" negative state, or we can under-supply and cause machines to pause.
-            return new SinkState(handler, false, false, 0, 0, inV, isFeWrapper(handler));
+            return into.set(handler, false, false, 0, 0, inV, false);
         }
 
-        return new SinkState(handler, true, true, maxAmps, euSpace, inV, isFeWrapper(handler));
+        return into.set(handler, true, true, maxAmps, euSpace, inV, false);
     }
 
-    private static boolean isFeWrapper(IEnergyContainer handler) {
+    static boolean isFeWrapper(IEnergyContainer handler) {
         // Avoid hard dependency on compat classes; string check is stable and cheap.
         return handler != null && (handler.getClass().getName().contains("EUToFEProvider$GTEnergyWrapper")
                 || handler.getClass().getName().contains("FeEnergyContainerWrapper"));
     }
-
-    /**
-     * Compute how many amps we can attempt to send at the given voltage, based on remaining input amps and EU space.
-     * Includes the "force 1 attempt under over-voltage" rule to preserve GTCEu explosion semantics.
-     */
-    public long computeSendableAmps(long voltage) {
-        if (!valid || remainingInputAmps <= 0 || voltage <= 0) return 0;
-
-        long byStorage = remainingEuSpace / voltage;
-        if (byStorage <= 0) {
-            // Under over-voltage, EU endpoints must still receive at least one attempt to trigger GTCEu failure logic.
-            boolean overVoltage = inputVoltage > 0 && voltage > inputVoltage;
-            if (overVoltage && !isFeWrapper) {
-                return 1;
-            }
-            return 0;
-        }
-
-        long max = remainingInputAmps;
-        if (byStorage < max) max = byStorage;
-        return max;
-    }
-
-    public void onAccepted(long acceptedAmps, long voltage) {
-        if (acceptedAmps <= 0) return;
-
-        remainingInputAmps -= acceptedAmps;
-        if (remainingInputAmps < 0) remainingInputAmps = 0;
-
-        if (voltage > 0 && remainingEuSpace > 0) {
-            // Saturating subtract to avoid overflow edge cases.
-            long delta;
-            try {
-                delta = Math.multiplyExact(acceptedAmps, voltage);
-            } catch (ArithmeticException ex) {
-                delta = Long.MAX_VALUE;
-            }
-            remainingEuSpace -= delta;
-            if (remainingEuSpace < 0) remainingEuSpace = 0;
-        }
-    }
 }
@@ -0,0 +1,363 @@
+package your.mod.energy;
+
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyNet;
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyRoutePath;
+import com.mojang.logging.LogUtils;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.slf4j.Logger;
+import your.mod.energy.core.SinkBudget;
+import your.mod.energy.core.TraceFormat;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * {@code /energynet trace <ticks> <net ids>}: records every producer call that reaches the delivery engine on
+ * the chosen nets (by stable id, see {@link EnergyNetDebugStats#identify}) to
+ * {@code energynet-traces/trace-<time>.bin.gz}, in {@link TraceFormat}, for offline replay with
+ * {@code TraceReplayer} (src/tools, {@code ./gradlew replayTrace}).
+ *
+ * Records are encoded on the server thread into an in-memory chunk and compressed / written by a single
+ * background thread. Calls answered before the engine (sleeping net, no routes) are not recorded.
+ * While no trace runs, the hot path pays one static flag check per call.
+ */
+@Mod.EventBusSubscriber(modid = "gtceuenergynethotfix", bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class TraceRecorder {
+
+    private TraceRecorder() {}
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static final int CHUNK_BYTES = 1 << 20;
+    private static final int UNRESOLVED = -2;
+    private static final int NOT_TRACED = -1;
+
+    /**
+     * Per-call record buffer. One per {@link NetDeliveryAdapter}, so a delivery nested in a sink's accept
+     * (another net's handler) cannot clobber the call in progress.
+     */
+    public static final class Call {
+        int net;
+        int list;
+        long tick;
+        byte side;
+        long voltage;
+        long amperage;
+        // Route list of the call in progress (a lazy list may grow during the call).
+        List<EnergyRoutePath> routeList;
+        BlockPos pipePos;
+
+        int size;
+        int[] routes = new int[16];
+        byte[] flags = new byte[16];
+        long[] budgets = new long[16 * 3];
+        long[] accepted = new long[16];
+
+        /** Route {@code route} is being examined. */
+        public void routeChecked(int route) {
+            if (size == routes.length) {
+                final int cap = size * 2;
+                routes = Arrays.copyOf(routes, cap);
+                flags = Arrays.copyOf(flags, cap);
+                budgets = Arrays.copyOf(budgets, cap * 3);
+                accepted = Arrays.copyOf(accepted, cap);
+            }
+            routes[size] = route;
+            flags[size] = 0;
+            accepted[size] = 0L;
+            size++;
+        }
+
+        /** The examined route reached its sink; budget before this examination's accept. */
+        public void sink(SinkBudget sink) {
+            if (size == 0) return;
+            final int e = size - 1;
+            flags[e] = (byte) TraceFormat.flags(sink);
+            budgets[e * 3] = sink.remainingInputAmps;
+            budgets[e * 3 + 1] = sink.remainingEuSpace;
+            budgets[e * 3 + 2] = sink.inputVoltage;
+        }
+
+        public void accepted(long amps) {
+            if (size > 0) accepted[size - 1] = amps;
+        }
+    }
+
+    private static boolean active;
+    private static int ticksLeft;
+    private static Path file;
+    private static long recordedCalls;
+
+    private static final ObjectOpenHashSet<String> WANTED = new ObjectOpenHashSet<>();
+    private static final Reference2IntOpenHashMap<EnergyNet> NET_INDEX = new Reference2IntOpenHashMap<>();
+    private static final Reference2IntOpenHashMap<Object> LIST_IDS = new Reference2IntOpenHashMap<>();
+    // Route count of each list's last written table.
+    private static final Reference2IntOpenHashMap<Object> LIST_SIZES = new Reference2IntOpenHashMap<>();
+    private static int nextNet;
+    private static int nextList;
+
+    private static ByteArrayOutputStream chunk;
+    private static DataOutputStream out;
+    private static ExecutorService writer;
+    private static OutputStream sink;
+    private static volatile boolean writeFailed;
+
+    static {
+        NET_INDEX.defaultReturnValue(UNRESOLVED);
+        LIST_IDS.defaultReturnValue(-1);
+    }
+
+    public static boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Start recording the nets with the given stable ids for {@code ticks} server ticks.
+     *
+     * @return the trace file, or null if a trace is already running or the file cannot be created
+     */
+    public static Path start(MinecraftServer server, int ticks, Collection<String> netIds) {
+        if (active) return null;
+        final String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss", Locale.ROOT));
+        final Path path = server.getServerDirectory().toPath().resolve("energynet-traces")
+                .resolve("trace-" + stamp + ".bin.gz");
+        try {
+            Files.createDirectories(path.getParent());
+            sink = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16), 1 << 16);
+        } catch (IOException e) {
+            LOGGER.warn("[energynet] could not create trace {}", path, e);
+            return null;
+        }
+        writer = Executors.newSingleThreadExecutor(r -> {
+            final Thread t = new Thread(r, "energynet-trace-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        writeFailed = false;
+        chunk = new ByteArrayOutputStream(CHUNK_BYTES + (CHUNK_BYTES >> 2));
+        out = new DataOutputStream(chunk);
+        WANTED.clear();
+        WANTED.addAll(netIds);
+        NET_INDEX.clear();
+        LIST_IDS.clear();
+        LIST_SIZES.clear();
+        nextNet = 0;
+        nextList = 0;
+        recordedCalls = 0;
+        file = path;
+        ticksLeft = ticks;
+        try {
+            out.writeInt(TraceFormat.MAGIC);
+            out.writeInt(TraceFormat.VERSION);
+            out.writeLong(server.getTickCount());
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // in-memory stream
+        }
+        active = true;
+        return path;
+    }
+
+    /** @return the finished trace file, or null if no trace was running */
+    public static Path stop() {
+        if (!active) return null;
+        active = false;
+        try {
+            out.writeByte(TraceFormat.REC_END);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        flushChunk();
+        final OutputStream s = sink;
+        final Path path = file;
+        final long calls = recordedCalls;
+        writer.execute(() -> {
+            try {
+                s.close();
+                LOGGER.info("[energynet] trace {} written ({} calls)", path, calls);
+            } catch (IOException e) {
+                LOGGER.warn("[energynet] could not finish trace {}", path, e);
+            }
+        });
+        writer.shutdown();
+        writer = null;
+        sink = null;
+        out = null;
+        chunk = null;
+        NET_INDEX.clear();
+        LIST_IDS.clear();
+        LIST_SIZES.clear();
+        return path;
+    }
+
+    public static long recordedCalls() {
+        return recordedCalls;
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (!active || event.phase != TickEvent.Phase.END) return;
+        if (--ticksLeft <= 0 || writeFailed) stop();
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        stop();
+    }
+
+    /**
+     * Start recording a producer call if its net is traced (writes the route table on first use). A lazily
+     * walked list is recorded as far as it is materialized, and written again whenever it has grown.
+     *
+     * @return true if {@code call} now records this offer; finish with {@link #end}
+     */
+    static boolean begin(Call call, EnergyNet net, Level level, List<EnergyRoutePath> routes, BlockPos pipePos,
+                         long tick, Direction side, long voltage, long amperage) {
+        final int netIndex = netIndex(net, level);
+        if (netIndex < 0) return false;
+        try {
+            int list = LIST_IDS.getInt(routes);
+            if (list < 0) {
+                list = nextList++;
+                LIST_IDS.put(routes, list);
+                writeRoutes(netIndex, list, pipePos, routes);
+            } else if (routes.size() != LIST_SIZES.getInt(routes)) {
+                writeRoutes(netIndex, list, pipePos, routes);
+            }
+            call.net = netIndex;
+            call.list = list;
+            call.routeList = routes;
+            call.pipePos = pipePos;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        call.tick = tick;
+        call.side = (byte) side.ordinal();
+        call.voltage = voltage;
+        call.amperage = amperage;
+        call.size = 0;
+        return true;
+    }
+
+    static void end(Call call, long acceptedTotal) {
+        final List<EnergyRoutePath> routes = call.routeList;
+        call.routeList = null;
+        if (!active) return; // stopped by a nested call's tick hook; cannot happen mid-tick, but be safe
+        try {
+            // The engine walked a lazy list further: rewrite its table before the call that refers to it.
+            if (routes.size() != LIST_SIZES.getInt(routes)) writeRoutes(call.net, call.list, call.pipePos, routes);
+            out.writeByte(TraceFormat.REC_CALL);
+            out.writeInt(call.net);
+            out.writeInt(call.list);
+            out.writeLong(call.tick);
+            out.writeByte(call.side);
+            out.writeLong(call.voltage);
+            out.writeLong(call.amperage);
+            out.writeInt(call.size);
+            for (int e = 0; e < call.size; e++) {
+                out.writeInt(call.routes[e]);
+                out.writeByte(call.flags[e]);
+                if ((call.flags[e] & TraceFormat.SINK_SEEN) != 0) {
+                    out.writeLong(call.budgets[e * 3]);
+                    out.writeLong(call.budgets[e * 3 + 1]);
+                    out.writeLong(call.budgets[e * 3 + 2]);
+                }
+                out.writeLong(call.accepted[e]);
+            }
+            out.writeLong(acceptedTotal);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        recordedCalls++;
+        if (chunk.size() >= CHUNK_BYTES) flushChunk();
+    }
+
+    private static int netIndex(EnergyNet net, Level level) {
+        int index = NET_INDEX.getInt(net);
+        if (index != UNRESOLVED) return index;
+
+        // Stable ids live on the stats entry; create it even when counters are off or sampled.
+        final EnergyNetDebugStats.NetStats s = EnergyNetDebugStats.track(net, level);
+        EnergyNetDebugStats.identify(net, s);
+        index = NOT_TRACED;
+        if (WANTED.contains(s.id)) {
+            index = nextNet++;
+            try {
+                out.writeByte(TraceFormat.REC_NET);
+                out.writeInt(index);
+                out.writeUTF(s.id);
+                out.writeUTF(s.lastDim == null ? "" : s.lastDim.location().toString());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        NET_INDEX.put(net, index);
+        return index;
+    }
+
+    private static void writeRoutes(int net, int list, BlockPos pipePos, List<EnergyRoutePath> routes) throws IOException {
+        out.writeByte(TraceFormat.REC_ROUTES);
+        out.writeInt(net);
+        out.writeInt(list);
+        out.writeLong(pipePos.asLong());
+        out.writeBoolean(!(routes instanceof LazyRouteList lazy) || lazy.isComplete());
+        out.writeInt(routes.size());
+        LIST_SIZES.put(routes, routes.size());
+        for (EnergyRoutePath route : routes) {
+            final IRouteSegmentData data = (IRouteSegmentData) route;
+            if (data.gtceuHotfix$getMaxVoltage() == null) NetDeliveryAdapter.populate(route);
+            out.writeLong(data.gtceuHotfix$getSinkKey());
+            out.writeLong(route.getTargetPipePos().asLong());
+            out.writeByte(route.getTargetFacing().ordinal());
+            out.writeLong(route.getMaxLoss());
+            final long[] pos = data.gtceuHotfix$getPosLong();
+            final long[] maxV = data.gtceuHotfix$getMaxVoltage();
+            final int[] loss = data.gtceuHotfix$getLossPerBlock();
+            out.writeInt(maxV.length);
+            for (int s = 0; s < maxV.length; s++) {
+                out.writeLong(pos[s]);
+                out.writeLong(maxV[s]);
+                out.writeInt(loss[s]);
+            }
+        }
+    }
+
+    private static void flushChunk() {
+        if (chunk.size() == 0) return;
+        final byte[] bytes = chunk.toByteArray();
+        chunk.reset();
+        final OutputStream s = sink;
+        final Path path = file;
+        writer.execute(() -> {
+            if (writeFailed) return;
+            try {
+                s.write(bytes);
+            } catch (IOException e) {
+                writeFailed = true;
+                LOGGER.warn("[energynet] could not write trace {}", path, e);
+            }
+        });
+    }
+}
@@ -0,0 +1,169 @@
+package your.mod.energy;
+
+import com.gregtechceu.gtceu.api.capability.IEnergyContainer;
+import com.gregtechceu.gtceu.api.data.chemical.material.properties.WireProperties;
+import com.gregtechceu.gtceu.common.blockentity.CableBlockEntity;
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyNet;
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyRoutePath;
+import com.gregtechceu.gtceu.utils.GTUtil;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+
+import java.util.List;
+
+/**
+ * The GTCEu 7.4.0 {@code EnergyNetHandler.acceptEnergyFromNetwork} route loop, kept as the reference side of the
+ * per-net A/B switch ({@link DeliveryModes}): no sink/handler caches, probe budget or tick-end batching;
+ * every route is visited in walker order, one per endpoint face, and heat and amperage are applied to the cables
+ * directly. The loop runs over the walker's list as it was before {@link RouteGroups} collapsed it, and over the
+ * separate full walk of a lazily walked list ({@link LazyRouteList#fullWalk}), which is not grown for this.
+ *
+ * Vanilla drops its routes on every connection change; the debounced rebuild keeps them serving for a few
+ * ticks, so while the net is stale both loops skip routes across a removed or cut cable as the hotfix path does
+ * ({@link NetDeliveryAdapter#isCut}).
+ *
+ * {@link #simulate} runs the same loop without side effects (shadow mode): sinks are asked for their free
+ * space and input amperage instead of being fed, and cables are neither heated nor charged.
+ *
+ * The caller (the handler mixin) holds the handler's {@code transfer} guard for the whole call, which has the
+ * same effect as vanilla setting it around each sink call.
+ */
+public final class VanillaDelivery {
+
+    private VanillaDelivery() {}
+
+    // Routes visited by the last outermost call (nested deliveries finish before their caller writes this).
+    private static int lastRouteChecks;
+
+    // Shadow mode: amps already "given" to each sink (endpoint + side) by simulated calls of the current tick.
+    private static final Long2LongOpenHashMap SIMULATED = new Long2LongOpenHashMap();
+    private static ResourceKey<Level> simulatedDimension;
+    private static long simulatedTick;
+
+    public static int lastRouteChecks() {
+        return lastRouteChecks;
+    }
+
+    /**
+     * The complete, uncollapsed route list in walker order that vanilla walks for a cached route list. Resolve it
+     * (and the cached list, {@code EnergyNet#getNetData}) before timing a call: both may rebuild.
+     */
+    public static List<EnergyRoutePath> fullRoutes(List<EnergyRoutePath> routes) {
+        if (routes instanceof LazyRouteList lazy) return lazy.fullWalk();
+        if (routes.isEmpty()) return routes;
+        final List<EnergyRoutePath> walked = ((IRouteSegmentData) routes.get(0)).gtceuHotfix$getWalkerOrder();
+        return (walked != null) ? walked : routes;
+    }
+
+    /**
+     * @param paths the producer pipe's routes, from {@link #fullRoutes}
+     * @return amps accepted
+     */
+    public static long deliver(EnergyNet net, Level level, CableBlockEntity cable, Direction side, long voltage,
+                               long amperage, List<EnergyRoutePath> paths) {
+        final BlockPos pipePos = cable.getPipePos();
+        final boolean stale = ((IEnergyNetHotfix) net).gtceuHotfix$isServingStale();
+        long amperesUsed = 0L;
+        int checked = 0;
+        for (int i = 0, n = paths.size(); i < n; i++) {
+            final EnergyRoutePath path = paths.get(i);
+            checked++;
+            if (path.getMaxLoss() >= voltage) continue;
+            if (side == path.getTargetFacing() && pipePos.equals(path.getTargetPipePos())) continue;
+            if (stale && isCut(net, path)) continue;
+            final IEnergyContainer dest = path.getHandler(level);
+            if (dest == null) continue;
+            final Direction facing = path.getTargetFacing().getOpposite();
+            if (!dest.inputsEnergy(facing) || dest.getEnergyCanBeInserted() <= 0) continue;
+
+            long pathVoltage = voltage - path.getMaxLoss();
+            boolean cableBroken = false;
+            for (CableBlockEntity seg : path.getPath()) {
+                final long segMax = seg.getMaxVoltage();
+                if (segMax < voltage) {
+                    final int heat = (int) (Math.log(GTUtil.getTierByVoltage(voltage) - GTUtil.getTierByVoltage(segMax))
+                            * 45 + 36.5);
+                    seg.applyHeat(heat);
+                    cableBroken = seg.isInValid();
+                    if (cableBroken) break;
+                }
+                pathVoltage = Math.min(segMax, pathVoltage);
+            }
+            if (cableBroken) continue;
+
+            final long amps = dest.acceptEnergyFromNetwork(facing, pathVoltage, amperage - amperesUsed);
+            if (amps == 0) continue;
+            amperesUsed += amps;
+
+            long voltageTraveled = voltage;
+            for (CableBlockEntity seg : path.getPath()) {
+                voltageTraveled -= ((WireProperties) seg.getNodeData()).getLossPerBlock();
+                if (voltageTraveled <= 0) break;
+                if (!seg.isInValid()) seg.incrementAmperage(amps, voltageTraveled);
+            }
+            if (amperage == amperesUsed) break;
+        }
+        lastRouteChecks = checked;
+        return amperesUsed;
+    }
+
+    /**
+     * What {@link #deliver} would accept right now, without feeding sinks or touching cables. Sinks take
+     * {@code min(offer left, input amperage, free space / path voltage)}, less what earlier routes and earlier
+     * simulated calls of this tick already gave them (vanilla sinks count input amperage per tick, across
+     * producers). Cables that vanilla would burn are assumed to survive.
+     *
+     * @param paths the producer pipe's routes, from {@link #fullRoutes}
+     * @return simulated amps accepted
+     */
+    public static long simulate(EnergyNet net, Level level, CableBlockEntity cable, Direction side, long voltage,
+                                long amperage, List<EnergyRoutePath> paths) {
+        final BlockPos pipePos = cable.getPipePos();
+        final boolean stale = ((IEnergyNetHotfix) net).gtceuHotfix$isServingStale();
+        long amperesUsed = 0L;
+        final long tick = level.getGameTime();
+        if (level.dimension() != simulatedDimension || tick != simulatedTick) {
+            SIMULATED.clear();
+            simulatedDimension = level.dimension();
+            simulatedTick = tick;
+        }
+        for (int i = 0, n = paths.size(); i < n; i++) {
+            final EnergyRoutePath path = paths.get(i);
+            if (path.getMaxLoss() >= voltage) continue;
+            if (side == path.getTargetFacing() && pipePos.equals(path.getTargetPipePos())) continue;
+            if (stale && isCut(net, path)) continue;
+            final IEnergyContainer dest = path.getHandler(level);
+            if (dest == null) continue;
+            final Direction facing = path.getTargetFacing().getOpposite();
+            if (!dest.inputsEnergy(facing)) continue;
+            final long space = dest.getEnergyCanBeInserted();
+            if (space <= 0) continue;
+
+            long pathVoltage = voltage - path.getMaxLoss();
+            for (CableBlockEntity seg : path.getPath()) {
+                pathVoltage = Math.min(seg.getMaxVoltage(), pathVoltage);
+            }
+            if (pathVoltage <= 0) continue;
+
+            final long sinkKey = ((IRouteSegmentData) path).gtceuHotfix$getSinkKey();
+            final long given = SIMULATED.get(sinkKey);
+            final long room = Math.min(dest.getInputAmperage(), space / pathVoltage) - given;
+            final long amps = Math.min(amperage - amperesUsed, room);
+            if (amps <= 0) continue;
+            SIMULATED.put(sinkKey, given + amps);
+            amperesUsed += amps;
+            if (amperage == amperesUsed) break;
+        }
+        return amperesUsed;
+    }
+
+    private static boolean isCut(EnergyNet net, EnergyRoutePath path) {
+        for (int i = 0, n = path.getPath().length; i < n; i++) {
+            if (NetDeliveryAdapter.isCut(net, path, i)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,26 @@
+package your.mod.energy.core;
+
+/**
+ * Side effects of a delivery on the cables it passes through.
+ */
+public interface CableEffects {
+
+    /**
+     * A segment rated below the transfer voltage was crossed (apply overvoltage heat).
+     *
+     * @return true if the cable is gone, i.e. the route can no longer carry energy
+     */
+    boolean overVoltage(int route, int segment, long segmentPos, long segmentMaxVoltage, long voltage);
+
+    /** Amps that flowed through a cable at the voltage still left at that cable. */
+    void amperage(long segmentPos, long amperage, long voltage);
+
+    /**
+     * Amps that flowed through every segment of a route at an unchanged voltage (uniform fast path, see
+     * {@link UniformRoutes}); equivalent to {@link #amperage} for each of the route's segments.
+     */
+    void routeAmperage(int route, long amperage, long voltage);
+
+    /** Route {@code route} is about to be examined (diagnostics, trace recording). */
+    void routeChecked(int route);
+}
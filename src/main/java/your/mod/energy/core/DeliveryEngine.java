@@ -0,0 +1,293 @@
+package your.mod.energy.core;
+
+/**
+ * Energy net delivery algorithm, independent of Minecraft:
+ *  - vanilla GTCEu 7.4.0 semantics for route max-loss filtering, self-skip, overvoltage (via
+ *    {@link CableEffects}), clamping to the weakest surviving segment and per-segment amperage at the
+ *    voltage left after lossPerBlock;
+ *  - hotfix scheduling on top: per-tick saturation / no-demand proofs, producer offer coalescing,
+ *    an active-route pass (routes that accepted last tick) followed by a budgeted probe pass;
+ *  - a fast path for uniform lossless route lists ({@link UniformRoutes}) when the offer does not exceed
+ *    their rating: no per-segment work, amperage reported once per route;
+ *  - lazily materialized route lists ({@link RouteSource#hasMoreRoutes}): once the probe pass has gone
+ *    through every known route with amps left, further routes are materialized and probed;
+ *  - parked routes ({@link RouteSource#isParked}) are exhausted for the tick without a probe.
+ *
+ * The caller supplies the per-net {@link RouteSchedule} (shared by every offer on the net in a tick)
+ * and adapters for routes, sinks and cable side effects. Server-thread only; allocation-free (see
+ * {@code DeliveryLoopBenchmark}'s gc.alloc.rate.norm and the {@code steadyDeliveryAllocation} GameTest).
+ */
+public final class DeliveryEngine {
+
+    private DeliveryEngine() {}
+
+    /**
+     * Distribute one producer offer over the routes.
+     *
+     * @param offerKey  identifies the producer (pipe + side) for offer coalescing
+     * @param voltage   source voltage (already clamped to the producer's own cable)
+     * @param amperage  amps offered
+     * @return amps accepted in total
+     */
+    public static long deliver(
+            RouteSchedule schedule,
+            RouteSource routes,
+            SinkAccess sinks,
+            CableEffects effects,
+            long offerKey,
+            long voltage,
+            long amperage
+    ) {
+        if (amperage <= 0 || voltage <= 0) return 0;
+
+        // Hard O(1) early-outs once the net has been proven saturated / idle this tick.
+        if (schedule.isSaturatedThisTick() || schedule.isNoDemandThisTick()) return 0;
+
+        // An identical offer (same pipe, side, voltage) that already found no taker this tick
+        // cannot be accepted now either.
+        if (schedule.isOfferExhausted(offerKey, voltage)) return 0;
+
+        int routeCount = routes.size();
+        if (routeCount <= 0) return 0;
+
+        schedule.prepareRoutes(routes.identity(), routeCount, !routes.hasMoreRoutes());
+        if (schedule.isSaturatedThisTick() || schedule.isNoDemandThisTick()) return 0;
+
+        // Uniform lossless list and no overvoltage: every route delivers the source voltage unchanged.
+        boolean uniform = !routes.isStale() && routes.uniformVoltage() >= voltage;
+
+        long remaining = amperage;
+        long acceptedTotal = 0;
+
+        // Prime the probe cursor from the fairness cursor.
+        schedule.setProbeCursor(schedule.getCursor());
+
+        // Pass 1: try routes that were known-active last tick (ring buffer from the schedule).
+        // This avoids touching hundreds of endpoints when only a small subset is actually consuming.
+        final int[] activeRead = schedule.getActiveRoutesRead();
+        final int activeReadSize = schedule.getActiveRoutesReadSize();
+        final int activeStart = (activeReadSize > 0) ? (schedule.getCursor() % activeReadSize) : 0;
+        int activeScanned = 0;
+        for (int i = 0; i < activeReadSize && remaining > 0 && !schedule.isSaturatedThisTick(); i++) {
+            int idx = activeRead[(activeStart + i) % activeReadSize];
+            activeScanned++;
+            if (idx < 0 || idx >= routeCount) {
+                // Route list may have changed size; clamp defensively.
+                idx = Math.floorMod(idx, routeCount);
+            }
+            if (schedule.isRouteExhausted(idx)) continue;
+            if (routes.isParked(idx)) {
+                schedule.exhaustRoute(idx);
+                continue;
+            }
+
+            final long accepted = uniform
+                    ? tryUniformRoute(schedule, routes, sinks, effects, idx, routeCount, voltage, remaining)
+                    : tryRoute(schedule, routes, sinks, effects, idx, routeCount, voltage, remaining);
+            remaining -= accepted;
+            acceptedTotal += accepted;
+        }
+        // Share progress through active routes across producers in the same tick.
+        if (activeReadSize > 0) {
+            schedule.setCursor((activeStart + activeScanned) % activeReadSize);
+        }
+
+        // Pass 2: probe/scavenge for additional consumers with a hard per-tick budget.
+        // This bounds worst-case "search" work even on nets with 800+ endpoints.
+        int safety = 0;
+        while (remaining > 0 && !schedule.isSaturatedThisTick() && schedule.getProbeBudgetRemaining() > 0) {
+            if (safety >= routeCount) {
+                // Every known route was looked at: walk further if the list is materialized lazily.
+                if (!routes.hasMoreRoutes()) break;
+                final int grown = routes.expandRoutes();
+                schedule.prepareRoutes(routes.identity(), grown, !routes.hasMoreRoutes());
+                if (grown <= routeCount) break;
+                // Probe the new routes next; their classification may end the uniform fast path.
+                schedule.setProbeCursor(routeCount);
+                routeCount = grown;
+                uniform = uniform && routes.uniformVoltage() >= voltage;
+                continue;
+            }
+            final int idx = schedule.nextProbeIndex(routeCount);
+            safety++;
+
+            if (schedule.isRouteExhausted(idx)) continue;
+            // Only examine each route once per tick in the probe phase.
+            if (!schedule.visitRoute(idx)) continue;
+            // Parked sinks cost no budget and stay out of the active set.
+            if (routes.isParked(idx)) {
+                schedule.exhaustRoute(idx);
+                continue;
+            }
+            // Pay the probe budget when we actually do work.
+            if (!schedule.tryConsumeProbeBudget()) break;
+
+            final long accepted = uniform
+                    ? tryUniformRoute(schedule, routes, sinks, effects, idx, routeCount, voltage, remaining)
+                    : tryRoute(schedule, routes, sinks, effects, idx, routeCount, voltage, remaining);
+            remaining -= accepted;
+            acceptedTotal += accepted;
+        }
+
+        // Routes not materialized yet count as unexamined for every proof below.
+        final boolean complete = !routes.hasMoreRoutes();
+
+        // Amps left over because the probe budget ran out before every route was examined: record it so the
+        // discovery delay of the budget can be measured.
+        if (remaining > 0 && schedule.getProbeBudgetRemaining() <= 0 && (!complete || !schedule.allRoutesVisited())) {
+            schedule.noteUnmetDemand(remaining);
+        }
+
+        // Amps left over although the probe phase was not cut short by its budget: every route was tried,
+        // so identical offers from this pipe can short-circuit for the rest of the tick.
+        if (remaining > 0 && complete && (schedule.getProbeBudgetRemaining() > 0 || safety >= routeCount)) {
+            schedule.markOfferExhausted(offerKey, voltage);
+        }
+
+        // If we have exhaustively demonstrated that nothing on this net can accept this tick,
+        // mark the net as saturated so further producer calls are O(1).
+        if (acceptedTotal <= 0 && complete && schedule.allRoutesVisited()) {
+            schedule.setSaturatedThisTick(true);
+            schedule.setNoDemandThisTick(true);
+        }
+        return acceptedTotal;
+    }
+
+    /**
+     * Examine one route and deliver up to {@code remaining} amps through it.
+     *
+     * @return amps accepted by the route's sink
+     */
+    private static long tryRoute(
+            RouteSchedule schedule,
+            RouteSource routes,
+            SinkAccess sinks,
+            CableEffects effects,
+            int idx,
+            int routeCount,
+            long voltage,
+            long remaining
+    ) {
+        // We are about to actually examine this route.
+        effects.routeChecked(idx);
+
+        // Vanilla: if the route loses all voltage, skip.
+        final long maxLoss = routes.maxLoss(idx);
+        if (maxLoss >= voltage) return 0;
+
+        // Vanilla: skip self.
+        if (routes.isSelf(idx)) return 0;
+
+        // Vanilla: a missing or full sink is skipped before its cables see any overvoltage heat.
+        final SinkBudget sink = sinks.sink(idx);
+        if (!sink.valid || sink.remainingEuSpace <= 0) {
+            schedule.exhaustRoute(idx);
+            return 0;
+        }
+
+        // Vanilla: delivered voltage starts at (source voltage - route max loss).
+        long deliveredVoltage = voltage - maxLoss;
+
+        final long[] segPos = routes.segmentPos(idx);
+        final long[] segMaxV = routes.segmentMaxVoltage(idx);
+        final int[] segLoss = routes.segmentLoss(idx);
+        final int segCount = segMaxV.length;
+        final boolean stale = routes.isStale();
+
+        for (int j = 0; j < segCount; j++) {
+            final long segMax = segMaxV[j];
+            if (segMax <= 0) continue; // no cable data
+            // Debounced topology change in progress: skip routes that cross a removed or cut cable.
+            if (stale && routes.isSegmentRemoved(idx, j)) return 0;
+
+            if (segMax < voltage && effects.overVoltage(idx, j, segPos[j], segMax, voltage)) {
+                return 0;
+            }
+            // Vanilla clamp: weakest surviving segment caps what the endpoint sees.
+            if (segMax < deliveredVoltage) {
+                deliveredVoltage = segMax;
+            }
+        }
+        if (deliveredVoltage <= 0) return 0;
+
+        final long accepted = offerToSink(schedule, sinks, sink, idx, routeCount, deliveredVoltage, remaining);
+        if (accepted <= 0) return 0;
+
+        // Vanilla: apply per-segment amperage tracking using traveled voltage (lossPerBlock each step).
+        long voltageTraveled = voltage;
+        for (int j = 0; j < segCount; j++) {
+            voltageTraveled -= segLoss[j];
+            if (voltageTraveled <= 0) break;
+            if (segMaxV[j] <= 0) continue;
+            effects.amperage(segPos[j], accepted, voltageTraveled);
+        }
+        return accepted;
+    }
+
+    /**
+     * {@link #tryRoute} for a uniform lossless list with {@code voltage} at or below its rating: no loss,
+     * clamp or overvoltage can apply, so only the self check and the sink remain.
+     */
+    private static long tryUniformRoute(
+            RouteSchedule schedule,
+            RouteSource routes,
+            SinkAccess sinks,
+            CableEffects effects,
+            int idx,
+            int routeCount,
+            long voltage,
+            long remaining
+    ) {
+        effects.routeChecked(idx);
+        if (routes.isSelf(idx)) return 0;
+
+        final long accepted = offerToSink(schedule, sinks, sinks.sink(idx), idx, routeCount, voltage, remaining);
+        if (accepted > 0) effects.routeAmperage(idx, accepted, voltage);
+        return accepted;
+    }
+
+    /**
+     * Offer up to {@code remaining} amps at {@code deliveredVoltage} to a route's sink and update the
+     * route's exhaustion / activity and the shared cursor.
+     *
+     * @return amps accepted by the sink
+     */
+    private static long offerToSink(
+            RouteSchedule schedule,
+            SinkAccess sinks,
+            SinkBudget sink,
+            int idx,
+            int routeCount,
+            long deliveredVoltage,
+            long remaining
+    ) {
+        // Per-tick sink budget keyed by endpoint + side (budgets are voltage independent).
+        if (!sink.valid) {
+            schedule.exhaustRoute(idx);
+            return 0;
+        }
+
+        final long sendable = sink.computeSendableAmps(deliveredVoltage);
+        if (sendable <= 0) {
+            // If sink has no remaining budget, mark this route exhausted for the tick.
+            if (sink.isSpent()) schedule.exhaustRoute(idx);
+            return 0;
+        }
+
+        // Route is actively accepting this tick (or can accept) -> keep it in the active set.
+        schedule.markRouteActiveThisTick(idx);
+
+        final long accepted = sinks.accept(idx, sink, deliveredVoltage, Math.min(remaining, sendable));
+        if (accepted <= 0) {
+            // If this route's sink has no remaining capacity/amperage budget, mark route as exhausted for this tick.
+            if (!sink.valid || sink.isSpent()) schedule.exhaustRoute(idx);
+            return 0;
+        }
+
+        sink.onAccepted(accepted, deliveredVoltage);
+        schedule.noteAcceptedThisTick();
+        // Move shared cursor forward after a successful route use to improve fairness across producers.
+        schedule.setCursor((idx + 1) % routeCount);
+        return accepted;
+    }
+}
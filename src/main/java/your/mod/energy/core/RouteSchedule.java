@@ -0,0 +1,519 @@
+package your.mod.energy.core;
+
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Per-net, per-tick distribution context shared by every producer offer on the net in a tick:
+ * route cursor, exhaustion/visit tracking, the active-route ring (routes that accepted last tick),
+ * the probe budget and saturation / no-demand proofs.
+ *
+ * Plain Java: no Minecraft/GTCEu types. {@code SinkCache} extends this with the net-bound parts
+ * (sink states, route lookup, sleep mode).
+ */
+public class RouteSchedule {
+
+    /**
+     * Max number of "new" routes we are allowed to probe (compute SinkState + try accept)
+     * per-net, per-tick, when active routes don't satisfy demand.
+     *
+     * This intentionally trades a small delay in discovering newly-consuming sinks
+     * for a hard upper bound on worst-case CPU.
+     */
+    public static final int PROBE_BUDGET_PER_TICK = 128;
+
+    private long tick;
+
+    private Object routesRef;
+    private int routesSize;
+    // False while the route list is materialized lazily and more routes may follow (see RouteSource#hasMoreRoutes).
+    private boolean routesComplete = true;
+    private int cursor;
+
+    private boolean[] exhaustedRoutes;
+    private boolean[] visitedRoutes;
+    private int visitedCount;
+    private int exhaustedCount;
+
+    // Tick-level saturation: once all routes (i.e., all sinks) are known to be dead/exhausted
+    // for this tick, later producer calls can immediately return O(1).
+    private boolean saturatedThisTick;
+
+    // Fast-path: set true when we have proven there is no demand on this net for the current tick.
+    private boolean noDemandThisTick;
+
+    // Set when any sink accepted energy this tick (a tick with deliveries is never "idle").
+    private boolean acceptedThisTick;
+
+    private int probeBudgetRemaining;
+    private int probeCursor;
+
+    // Unmet demand this tick: amps left over by offers whose probe phase ran out of budget with routes unvisited.
+    private long unmetAmpsThisTick;
+    private int starvedOffersThisTick;
+
+    // Active routes (persist across ticks): indices of routes that actually accepted energy last tick.
+    private int[] activeA;
+    private int activeASize;
+    private int[] activeB;
+    private int activeBSize;
+    private boolean writeIsA;
+
+    private int[] activeRead;
+    private int activeReadSize;
+    private int[] activeWrite;
+    private int activeWriteSize;
+
+    private BitSet activeReadMark;
+    private BitSet activeWriteMark;
+
+    // packPosSide(pipe, side) -> voltage at which an offer from that pipe already found no taker this tick.
+    private final Long2LongOpenHashMap exhaustedOffers = new Long2LongOpenHashMap();
+
+    public RouteSchedule(long tick) {
+        this.tick = tick;
+        this.exhaustedOffers.defaultReturnValue(-1L);
+
+        // Active-route hint buffers (double-buffered across ticks).
+        // We intentionally keep these across ticks to avoid rescanning hundreds of endpoints
+        // when only a small subset are actually consuming.
+        this.activeA = new int[64];
+        this.activeB = new int[64];
+        this.writeIsA = true;
+
+        // A new schedule serves its first tick immediately: start with a full probe budget and
+        // selected ring buffers rather than waiting for the next beginTick.
+        this.probeBudgetRemaining = PROBE_BUDGET_PER_TICK;
+        selectActiveBuffers();
+    }
+
+    /** Tick this schedule currently serves. */
+    public long currentTick() {
+        return tick;
+    }
+
+    /**
+     * Reset per-tick state while keeping cross-tick hint buffers. No-op if already on this tick.
+     */
+    public void beginTick(long tick) {
+        if (this.tick == tick) return;
+
+        onTickRollover(tick);
+
+        this.tick = tick;
+        this.acceptedThisTick = false;
+        this.unmetAmpsThisTick = 0L;
+        this.starvedOffersThisTick = 0;
+        if (!this.exhaustedOffers.isEmpty()) this.exhaustedOffers.clear();
+
+        // Force per-tick route bookkeeping to be re-prepared (arrays are reused and refilled, not reallocated).
+        this.routesRef = null;
+        this.routesSize = 0;
+        this.visitedCount = 0;
+        this.exhaustedCount = 0;
+        this.saturatedThisTick = false;
+        this.noDemandThisTick = false;
+
+        // Reset discovery/probing budget for this net for the tick.
+        this.probeBudgetRemaining = PROBE_BUDGET_PER_TICK;
+        this.probeCursor = 0;
+
+        // Rotate active buffers: last tick's write buffer becomes this tick's read buffer.
+        this.writeIsA = !this.writeIsA;
+        selectActiveBuffers();
+        // activeReadMark will be rebuilt lazily in prepareRoutes once we know routesSize.
+    }
+
+    /**
+     * Hook for subclasses, called by {@link #beginTick} before the previous tick's state is reset
+     * (the saturation / no-demand / accepted proofs still describe the previous tick).
+     */
+    protected void onTickRollover(long nextTick) {
+    }
+
+    private void selectActiveBuffers() {
+        // Write buffer is cleared each tick; read buffer retains the previous tick's active routes.
+        if (this.writeIsA) {
+            // Writing into A this tick, reading from previous tick's B.
+            this.activeWrite = this.activeA;
+            this.activeASize = 0;
+            this.activeWriteSize = 0;
+
+            this.activeRead = this.activeB;
+            this.activeReadSize = this.activeBSize;
+        } else {
+            // Writing into B this tick, reading from previous tick's A.
+            this.activeWrite = this.activeB;
+            this.activeBSize = 0;
+            this.activeWriteSize = 0;
+
+            this.activeRead = this.activeA;
+            this.activeReadSize = this.activeASize;
+        }
+        if (this.activeWriteMark != null) this.activeWriteMark.clear();
+    }
+
+    /**
+     * Prepare distribution context for the given routes list.
+     * Must be called before iterating routes so multiple producers share a cursor.
+     */
+    public void prepareRoutes(List<?> routes) {
+        if (routes == null) {
+            prepareRoutes(null, 0);
+        } else {
+            prepareRoutes(routes, routes.size());
+        }
+    }
+
+    /**
+     * Prepare distribution context for a route list identified by {@code routesRef} with {@code size} routes.
+     */
+    public void prepareRoutes(Object routesRef, int size) {
+        prepareRoutes(routesRef, size, true);
+    }
+
+    /**
+     * Prepare distribution context for a route list that may still grow ({@code complete == false}): exhausting
+     * every known route does not prove saturation then. The same list with a larger size keeps this tick's
+     * exhaustion / visit state for the routes it already had.
+     */
+    public void prepareRoutes(Object routesRef, int size, boolean complete) {
+        this.routesComplete = complete;
+        if (routesRef == null) {
+            this.routesRef = null;
+            this.routesSize = 0;
+            this.cursor = 0;
+            this.exhaustedRoutes = null;
+            this.visitedRoutes = null;
+            this.visitedCount = 0;
+            this.saturatedThisTick = false;
+            this.noDemandThisTick = false;
+            this.exhaustedCount = 0;
+            return;
+        }
+
+        // Same route list instance for the same tick: keep exhaustion / saturation, that is exactly the
+        // per-tick state shared across multiple producer calls within the same net+tick.
+        if (this.routesRef == routesRef && this.routesSize == size) {
+            // A lazy list that just finished materializing: its exhausted routes may now prove saturation.
+            if (complete && size > 0 && exhaustedCount >= size) saturatedThisTick = true;
+            return;
+        }
+        if (this.routesRef == routesRef && this.routesSize > 0 && size > this.routesSize) {
+            growRoutes(size);
+            return;
+        }
+
+        this.routesRef = routesRef;
+        this.routesSize = size;
+        this.cursor = 0;
+
+        final int n = size;
+        if (n <= 0) {
+            this.exhaustedRoutes = null;
+            this.visitedRoutes = null;
+            this.visitedCount = 0;
+            this.saturatedThisTick = false;
+            this.noDemandThisTick = false;
+            this.exhaustedCount = 0;
+            return;
+        }
+
+        if (this.exhaustedRoutes == null || this.exhaustedRoutes.length < n) {
+            this.exhaustedRoutes = new boolean[n];
+        } else {
+            Arrays.fill(this.exhaustedRoutes, false);
+        }
+
+        this.exhaustedCount = 0;
+        this.saturatedThisTick = false;
+        this.noDemandThisTick = false;
+
+        if (this.visitedRoutes == null || this.visitedRoutes.length < n) {
+            this.visitedRoutes = new boolean[n];
+        } else {
+            Arrays.fill(this.visitedRoutes, false);
+        }
+        this.visitedCount = 0;
+
+        // Active-route hint bookkeeping.
+        // BitSet is used so we can cheaply check if a route was active recently.
+        if (this.activeReadMark == null || this.activeReadMark.size() < n) {
+            this.activeReadMark = new BitSet(n);
+        } else {
+            this.activeReadMark.clear();
+        }
+        if (this.activeWriteMark == null || this.activeWriteMark.size() < n) {
+            this.activeWriteMark = new BitSet(n);
+        } else {
+            this.activeWriteMark.clear();
+        }
+
+        ensureActiveCapacity(n);
+
+        // Rebuild the read-mark from the previous tick's active buffer.
+        markActiveRead(0, n);
+    }
+
+    /**
+     * The current list grew (lazy materialization): widen the per-tick arrays, keeping the state of existing routes.
+     */
+    private void growRoutes(int size) {
+        final int old = this.routesSize;
+        if (this.exhaustedRoutes.length < size) {
+            this.exhaustedRoutes = Arrays.copyOf(this.exhaustedRoutes, Math.max(size, this.exhaustedRoutes.length * 2));
+        }
+        if (this.visitedRoutes.length < size) {
+            this.visitedRoutes = Arrays.copyOf(this.visitedRoutes, Math.max(size, this.visitedRoutes.length * 2));
+        }
+        this.routesSize = size;
+        ensureActiveCapacity(size);
+        // Routes active last tick that were not materialized yet when the list was prepared.
+        markActiveRead(old, size);
+    }
+
+    private void ensureActiveCapacity(int n) {
+        // Ensure ring buffers can hold at least all routes (worst-case).
+        if (this.activeA.length < n) {
+            this.activeA = Arrays.copyOf(this.activeA, Math.max(n, this.activeA.length * 2));
+        }
+        if (this.activeB.length < n) {
+            this.activeB = Arrays.copyOf(this.activeB, Math.max(n, this.activeB.length * 2));
+        }
+        if (this.writeIsA) {
+            this.activeWrite = this.activeA;
+            this.activeRead = this.activeB;
+        } else {
+            this.activeWrite = this.activeB;
+            this.activeRead = this.activeA;
+        }
+    }
+
+    private void markActiveRead(int from, int to) {
+        final int[] read = this.activeRead;
+        final int readSize = this.activeReadSize;
+        for (int i = 0; i < readSize; i++) {
+            int idx = read[i];
+            if (idx >= from && idx < to) this.activeReadMark.set(idx);
+        }
+    }
+
+    /** Get the current shared route cursor (start index). */
+    public int getCursor() {
+        return cursor;
+    }
+
+    /** Advance the shared cursor to the given next index (mod routesSize). */
+    public void setCursor(int next) {
+        if (routesSize <= 0) {
+            this.cursor = 0;
+            return;
+        }
+        int n = routesSize;
+        int v = next % n;
+        if (v < 0) v += n;
+        this.cursor = v;
+    }
+
+    public int[] getActiveRoutesRead() {
+        return activeRead;
+    }
+
+    public int getActiveRoutesReadSize() {
+        return activeReadSize;
+    }
+
+    public boolean isRouteActiveFromLastTick(int routeIndex) {
+        return activeReadMark != null && activeReadMark.get(routeIndex);
+    }
+
+    public void markRouteActiveThisTick(int routeIndex) {
+        if (routeIndex < 0 || routeIndex >= routesSize) return;
+        if (activeWriteMark.get(routeIndex)) return;
+        activeWriteMark.set(routeIndex);
+
+        // append to activeWrite buffer
+        if (activeWriteSize >= activeWrite.length) {
+            activeWrite = Arrays.copyOf(activeWrite, activeWrite.length * 2);
+            if (writeIsA) {
+                activeA = activeWrite;
+            } else {
+                activeB = activeWrite;
+            }
+        }
+        activeWrite[activeWriteSize++] = routeIndex;
+
+        if (writeIsA) {
+            activeASize = activeWriteSize;
+        } else {
+            activeBSize = activeWriteSize;
+        }
+    }
+
+    /**
+     * Treat a route of the prepared list as active last tick, so this tick's active pass tries it without
+     * probe budget (warm start after the route list was rebuilt).
+     */
+    public void seedActive(int routeIndex) {
+        if (routeIndex < 0 || routeIndex >= routesSize || activeReadMark == null) return;
+        if (activeReadMark.get(routeIndex)) return;
+        activeReadMark.set(routeIndex);
+
+        if (activeReadSize >= activeRead.length) {
+            activeRead = Arrays.copyOf(activeRead, activeRead.length * 2);
+            if (writeIsA) {
+                activeB = activeRead;
+            } else {
+                activeA = activeRead;
+            }
+        }
+        activeRead[activeReadSize++] = routeIndex;
+
+        if (writeIsA) {
+            activeBSize = activeReadSize;
+        } else {
+            activeASize = activeReadSize;
+        }
+    }
+
+    /** Mark a route index as exhausted for this tick (skip it for other producers). */
+    public void exhaustRoute(int idx) {
+        if (exhaustedRoutes == null) return;
+        if (idx < 0 || idx >= routesSize) return;
+        if (!exhaustedRoutes[idx]) {
+            exhaustedRoutes[idx] = true;
+            exhaustedCount++;
+            if (routesComplete && routesSize > 0 && exhaustedCount >= routesSize) {
+                saturatedThisTick = true;
+            }
+        }
+    }
+
+    /** Check whether a route index is exhausted for this tick. */
+    public boolean isRouteExhausted(int idx) {
+        if (exhaustedRoutes == null) return false;
+        return idx >= 0 && idx < routesSize && exhaustedRoutes[idx];
+    }
+
+    /**
+     * Mark a route index as visited for this tick.
+     * @return true if this is the first visit this tick; false if it was already visited.
+     */
+    public boolean visitRoute(int idx) {
+        if (visitedRoutes == null) return true; // treat as visitable when no tracking
+        if (idx < 0 || idx >= routesSize) return true;
+        if (visitedRoutes[idx]) return false;
+        visitedRoutes[idx] = true;
+        visitedCount++;
+        return true;
+    }
+
+    /** @return true if all routes have been visited at least once this tick. */
+    public boolean allRoutesVisited() {
+        return routesSize > 0 && visitedCount >= routesSize;
+    }
+
+    public boolean isSaturatedThisTick() {
+        return saturatedThisTick;
+    }
+
+    public void setSaturatedThisTick(boolean saturated) {
+        this.saturatedThisTick = saturated;
+    }
+
+    public boolean isNoDemandThisTick() {
+        return noDemandThisTick;
+    }
+
+    public void setNoDemandThisTick(boolean noDemand) {
+        this.noDemandThisTick = noDemand;
+    }
+
+    /**
+     * An offer ended with {@code amps} undelivered while the probe budget was spent and some routes were never
+     * examined this tick, i.e. a sink behind them may have gone without energy because of the budget.
+     */
+    public void noteUnmetDemand(long amps) {
+        unmetAmpsThisTick += amps;
+        starvedOffersThisTick++;
+    }
+
+    /** Amps offered but left undelivered behind an exhausted probe budget this tick. */
+    public long getUnmetAmpsThisTick() {
+        return unmetAmpsThisTick;
+    }
+
+    /** Offers this tick that hit the exhausted probe budget with routes unvisited (0 = budget never limited). */
+    public int getStarvedOffersThisTick() {
+        return starvedOffersThisTick;
+    }
+
+    /** Unmet demand of this tick has been reported: reset it so it is not reported again. */
+    public void clearUnmetDemand() {
+        this.unmetAmpsThisTick = 0L;
+        this.starvedOffersThisTick = 0;
+    }
+
+    /** Remaining number of "new route" probes allowed this tick for this net. */
+    public int getProbeBudgetRemaining() {
+        return probeBudgetRemaining;
+    }
+
+    /** Consume one probe budget slot (for an expensive route check). */
+    public boolean tryConsumeProbeBudget() {
+        if (probeBudgetRemaining <= 0) return false;
+        probeBudgetRemaining--;
+        return true;
+    }
+
+    /**
+     * Returns the next route index to probe, cycling from 0..routeCount-1.
+     * Callers should still check bounds and skip exhausted routes.
+     */
+    public int nextProbeIndex(int routeCount) {
+        if (routeCount <= 0) return 0;
+        if (probeCursor >= routeCount) {
+            probeCursor = probeCursor % routeCount;
+        }
+        int idx = probeCursor;
+        probeCursor++;
+        if (probeCursor >= routeCount) probeCursor = 0;
+        return idx;
+    }
+
+    /** Sets the probe cursor (will be normalized on nextProbeIndex). */
+    public void setProbeCursor(int probeCursor) {
+        this.probeCursor = Math.max(0, probeCursor);
+    }
+
+    /**
+     * @return true if an identical offer (same pipe, side and voltage) already scanned every route this tick
+     *         and still had amps left over, so a repeat cannot be accepted either.
+     */
+    public boolean isOfferExhausted(long pipeSideKey, long voltage) {
+        return !exhaustedOffers.isEmpty() && exhaustedOffers.get(pipeSideKey) == voltage;
+    }
+
+    /** Record that an offer from this pipe/side at this voltage found no further taker this tick. */
+    public void markOfferExhausted(long pipeSideKey, long voltage) {
+        exhaustedOffers.put(pipeSideKey, voltage);
+    }
+
+    /** Forget offer proofs (routes may have changed under them). */
+    protected void forgetOffers() {
+        if (!exhaustedOffers.isEmpty()) exhaustedOffers.clear();
+    }
+
+    /** Record that a sink accepted energy this tick (keeps the net awake). */
+    public void noteAcceptedThisTick() {
+        this.acceptedThisTick = true;
+    }
+
+    /** @return true if any sink accepted energy in the tick currently served. */
+    public boolean hasAcceptedThisTick() {
+        return acceptedThisTick;
+    }
+}
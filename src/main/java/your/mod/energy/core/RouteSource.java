@@ -0,0 +1,60 @@
+package your.mod.energy.core;
+
+/**
+ * The route list a producer offer is distributed over, indexed 0..size()-1.
+ *
+ * Segment arrays are aligned per route (one entry per cable, producer side first) and must not be mutated.
+ * A segment with {@code segmentMaxVoltage <= 0} has no cable data and is ignored.
+ */
+public interface RouteSource {
+
+    int size();
+
+    /** Identity of the underlying list: per-tick route bookkeeping is reset when it changes. */
+    Object identity();
+
+    /** Accumulated loss along the route (vanilla skips routes that lose the whole voltage). */
+    long maxLoss(int route);
+
+    /** @return true for the producer's own cable face (vanilla never delivers back into it). */
+    boolean isSelf(int route);
+
+    long[] segmentPos(int route);
+
+    long[] segmentMaxVoltage(int route);
+
+    int[] segmentLoss(int route);
+
+    /**
+     * @return true while routes may reference cables that have since been removed (debounced rebuild);
+     *         {@link #isSegmentRemoved} is only consulted then.
+     */
+    boolean isStale();
+
+    boolean isSegmentRemoved(int route, int segment);
+
+    /**
+     * Common voltage rating if every route is lossless and all segments share it (see {@link UniformRoutes}),
+     * else 0. Classified once per list, not per call.
+     */
+    long uniformVoltage();
+
+    /**
+     * @return true if the route's sink cannot take part this tick (e.g. its chunk does not tick): the route is
+     *         skipped without a probe, as if exhausted
+     */
+    boolean isParked(int route);
+
+    /**
+     * @return true if the list is materialized lazily and further routes exist beyond {@link #size()};
+     *         saturation and "every route tried" proofs only hold once this is false.
+     */
+    boolean hasMoreRoutes();
+
+    /**
+     * Materialize further routes (appended, existing indices keep their meaning).
+     *
+     * @return the new {@link #size()}; unchanged if nothing was added
+     */
+    int expandRoutes();
+}
@@ -0,0 +1,20 @@
+package your.mod.energy.core;
+
+/**
+ * Sink side of a delivery: per-tick budgets and the actual insert.
+ */
+public interface SinkAccess {
+
+    /**
+     * Budget of the route's sink for the current tick. Shared by all routes ending at the same sink and
+     * updated by the engine after accepts; never null (invalid sinks report {@code valid = false}).
+     */
+    SinkBudget sink(int route);
+
+    /**
+     * Insert into the route's sink.
+     *
+     * @return amps actually accepted
+     */
+    long accept(int route, SinkBudget sink, long voltage, long amperage);
+}
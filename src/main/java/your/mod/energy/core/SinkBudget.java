@@ -0,0 +1,94 @@
+package your.mod.energy.core;
+
+/**
+ * Per-tick budget of one sink (endpoint + insert side), independent of the transfer voltage.
+ *
+ * For a given transfer voltage V, the storage-limited amps are (remainingEuSpace / V).
+ * After a successful transfer of A amps at voltage V, remainingEuSpace -= A*V.
+ *
+ * Plain Java: no Minecraft/GTCEu types, so the budget math can be driven headlessly.
+ */
+public class SinkBudget {
+
+    /** Whether this endpoint is a valid energy sink (direction + basic capability checks). */
+    public boolean valid;
+
+    /** Whether this result should be cached for the remainder of the tick. */
+    public boolean cacheable;
+
+    /** Remaining input amps budget for this tick (decremented after accepts). */
+    public long remainingInputAmps;
+
+    /** Remaining storage space in EU units for this tick (decremented by acceptedAmps * voltage). */
+    public long remainingEuSpace;
+
+    /** Endpoint's nominal input voltage (used for over-voltage attempt logic). */
+    public long inputVoltage;
+
+    /** True if this sink is an FE wrapper (no GTCEu explosion semantics). */
+    public boolean isFeWrapper;
+
+    protected SinkBudget() {}
+
+    protected final void setBudget(
+            boolean valid,
+            boolean cacheable,
+            long remainingInputAmps,
+            long remainingEuSpace,
+            long inputVoltage,
+            boolean isFeWrapper
+    ) {
+        this.valid = valid;
+        this.cacheable = cacheable;
+        this.remainingInputAmps = remainingInputAmps;
+        this.remainingEuSpace = remainingEuSpace;
+        this.inputVoltage = inputVoltage;
+        this.isFeWrapper = isFeWrapper;
+    }
+
+    /** @return true once the sink cannot take anything more this tick (no amps or no space left). */
+    public boolean isSpent() {
+        return remainingInputAmps <= 0 || remainingEuSpace <= 0;
+    }
+
+    /**
+     * Compute how many amps we can attempt to send at the given voltage, based on remaining input amps and EU space.
+     * Includes the "force 1 attempt under over-voltage" rule to preserve GTCEu explosion semantics.
+     */
+    public long computeSendableAmps(long voltage) {
+        if (!valid || remainingInputAmps <= 0 || voltage <= 0) return 0;
+
+        long byStorage = remainingEuSpace / voltage;
+        if (byStorage <= 0) {
+            // Under over-voltage, EU endpoints must still receive at least one attempt to trigger GTCEu failure logic.
+            boolean overVoltage = inputVoltage > 0 && voltage > inputVoltage;
+            if (overVoltage && !isFeWrapper) {
+                return 1;
+            }
+            return 0;
+        }
+
+        long max = remainingInputAmps;
+        if (byStorage < max) max = byStorage;
+        return max;
+    }
+
+    public void onAccepted(long acceptedAmps, long voltage) {
+        if (acceptedAmps <= 0) return;
+
+        remainingInputAmps -= acceptedAmps;
+        if (remainingInputAmps < 0) remainingInputAmps = 0;
+
+        if (voltage > 0 && remainingEuSpace > 0) {
+            // Saturating subtract to avoid overflow edge cases.
+            long delta;
+            try {
+                delta = Math.multiplyExact(acceptedAmps, voltage);
+            } catch (ArithmeticException ex) {
+                delta = Long.MAX_VALUE;
+            }
+            remainingEuSpace -= delta;
+            if (remainingEuSpace < 0) remainingEuSpace = 0;
+        }
+    }
+}
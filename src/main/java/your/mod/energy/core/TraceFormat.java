@@ -0,0 +1,51 @@
+package your.mod.energy.core;
+
+/**
+ * Binary layout of energynet delivery traces ({@code TraceRecorder} writes, {@code TraceReplayer} in src/tools reads).
+ *
+ * The file is a gzip-compressed {@link java.io.DataOutputStream} stream (big-endian):
+ * <pre>
+ * header:  int MAGIC, int VERSION, long startTick
+ * NET:     byte REC_NET, int net, UTF stableId, UTF dimension
+ * ROUTES:  byte REC_ROUTES, int net, int list, long pipePos, boolean complete, int count,
+ *          count x (long sinkKey, long targetPipePos, byte targetFacing, long maxLoss,
+ *                   int segments, segments x (long pos, long maxVoltage, int lossPerBlock))
+ * CALL:    byte REC_CALL, int net, int list, long tick, byte side, long voltage, long amperage,
+ *          int examined, examined x (int route, byte flags,
+ *                                    [long remainingInputAmps, long remainingEuSpace, long inputVoltage]
+ *                                    if flags has SINK_SEEN, long accepted),
+ *          long acceptedTotal
+ * END:     byte REC_END
+ * </pre>
+ * A ROUTES record is written the first time a route list (one producer pipe's routes) is used, so every
+ * CALL refers to a list written before it. A lazily walked list ({@code complete} false) is written again, in
+ * full and under the same list id, before the first CALL that saw it grow; that CALL and later ones use the new
+ * table. Sink budgets are the values seen when the route was examined,
+ * before that examination's accept. Sides and facings are {@code Direction} 3D data values (0..5).
+ */
+public final class TraceFormat {
+
+    private TraceFormat() {}
+
+    public static final int MAGIC = 0x454E5452; // "ENTR"
+    public static final int VERSION = 2;
+
+    public static final byte REC_END = 0;
+    public static final byte REC_NET = 1;
+    public static final byte REC_ROUTES = 2;
+    public static final byte REC_CALL = 3;
+
+    /** The route reached its sink: budget values follow. */
+    public static final int SINK_SEEN = 1;
+    public static final int SINK_VALID = 2;
+    public static final int SINK_CACHEABLE = 4;
+    public static final int SINK_FE = 8;
+
+    public static int flags(SinkBudget sink) {
+        int flags = SINK_SEEN;
+        if (sink.valid) flags |= SINK_VALID;
+        if (sink.cacheable) flags |= SINK_CACHEABLE;
+        if (sink.isFeWrapper) flags |= SINK_FE;
+        return flags;
+    }
+}
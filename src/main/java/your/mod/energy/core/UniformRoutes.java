@@ -0,0 +1,46 @@
+package your.mod.energy.core;
+
+/**
+ * Classification of a route list for the lossless / uniform fast path of {@link DeliveryEngine}.
+ *
+ * A list is uniform when no route loses voltage (maxLoss 0, lossPerBlock 0 on every segment) and every
+ * segment has cable data with one common voltage rating, e.g. a superconductor backbone. For offers at or
+ * below that rating the per-route loss filter, segment clamp, overvoltage checks and traveled-voltage loop
+ * are all constant, so the engine skips them and reports amperage once per route.
+ */
+public final class UniformRoutes {
+
+    private UniformRoutes() {}
+
+    /** Classification in progress: no segment seen yet. */
+    public static final long UNDECIDED = -1L;
+
+    /**
+     * Fold one route into a classification started at {@link #UNDECIDED}.
+     *
+     * @return the common rating so far, {@link #UNDECIDED} if still no segment was seen, or 0 once the list
+     *         is not uniform
+     */
+    public static long merge(long rating, long maxLoss, long[] segMaxVoltage, int[] segLoss) {
+        if (rating == 0L || maxLoss != 0L || segMaxVoltage == null || segLoss == null) return 0L;
+        for (int j = 0; j < segMaxVoltage.length; j++) {
+            final long v = segMaxVoltage[j];
+            if (segLoss[j] != 0 || v <= 0L) return 0L;
+            if (rating == UNDECIDED) {
+                rating = v;
+            } else if (v != rating) {
+                return 0L;
+            }
+        }
+        return rating;
+    }
+
+    /** @return the common voltage rating of a uniform list, 0 otherwise (including empty lists) */
+    public static long classify(RouteSource routes) {
+        long rating = UNDECIDED;
+        for (int i = 0, n = routes.size(); i < n && rating != 0L; i++) {
+            rating = merge(rating, routes.maxLoss(i), routes.segmentMaxVoltage(i), routes.segmentLoss(i));
+        }
+        return rating == UNDECIDED ? 0L : rating;
+    }
+}
@@ -0,0 +1,48 @@
+package your.mod.energy.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One producer call into an energy net ({@code EnergyNetHandler.acceptEnergyFromNetwork}).
+ * High frequency: enable with a threshold, e.g. {@code jcmd <pid> JFR.start settings=...} with
+ * {@code gtceuenergynethotfix.EnergyNetDelivery#threshold=100 us}.
+ */
+@Name("gtceuenergynethotfix.EnergyNetDelivery")
+@Label("EnergyNet Delivery")
+@Category({"GTCEu", "EnergyNet"})
+@Description("One producer offer distributed over an energy net")
+@Enabled(false)
+@StackTrace(false)
+public final class EnergyNetDeliveryEvent extends Event {
+
+    public static final EventType TYPE = EventType.getEventType(EnergyNetDeliveryEvent.class);
+
+    @Label("Dimension")
+    public String dimension;
+
+    @Label("Net Id")
+    @Description("Identity hash of the EnergyNet instance")
+    public int netId;
+
+    @Label("Voltage")
+    public long voltage;
+
+    @Label("Offered Amps")
+    public long offeredAmps;
+
+    @Label("Accepted Amps")
+    public long acceptedAmps;
+
+    @Label("Routes Checked")
+    public int routesChecked;
+
+    @Label("Probe Budget Used")
+    public int probeBudgetUsed;
+}
@@ -0,0 +1,43 @@
+package your.mod.energy.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One route rebuild ({@code EnergyNetWalker.createNetData}) for a producer pipe. Duration = walk time.
+ */
+@Name("gtceuenergynethotfix.EnergyNetRebuild")
+@Label("EnergyNet Rebuild")
+@Category({"GTCEu", "EnergyNet"})
+@Description("Route list rebuilt (EnergyNetWalker.createNetData) for one producer pipe")
+@Enabled(false)
+@StackTrace(false)
+public final class EnergyNetRebuildEvent extends Event {
+
+    public static final EventType TYPE = EventType.getEventType(EnergyNetRebuildEvent.class);
+
+    @Label("Dimension")
+    public String dimension;
+
+    @Label("Net Size")
+    @Description("Pipe nodes in the net")
+    public int netSize;
+
+    @Label("Pipe X")
+    public int pipeX;
+
+    @Label("Pipe Y")
+    public int pipeY;
+
+    @Label("Pipe Z")
+    public int pipeZ;
+
+    @Label("Route Count")
+    public int routeCount;
+}
@@ -0,0 +1,46 @@
+package your.mod.energy.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Global invalidation of a dirty net: NET_DATA and sink cache dropped in one go, handler cache revalidated.
+ */
+@Name("gtceuenergynethotfix.SinkCacheFlush")
+@Label("SinkCache Flush")
+@Category({"GTCEu", "EnergyNet"})
+@Description("Dirty energy net invalidated (route lists and sink cache cleared, handler cache revalidated)")
+@Enabled(false)
+@StackTrace(false)
+public final class SinkCacheFlushEvent extends Event {
+
+    public static final EventType TYPE = EventType.getEventType(SinkCacheFlushEvent.class);
+
+    @Label("Dimension")
+    public String dimension;
+
+    @Label("Net Id")
+    @Description("Identity hash of the EnergyNet instance")
+    public int netId;
+
+    @Label("Route Lists")
+    @Description("Cached NET_DATA entries dropped")
+    public int routeLists;
+
+    @Label("Handler Entries")
+    @Description("Handler cache entries revalidated on next use")
+    public int handlerEntries;
+
+    @Label("Sink States")
+    public int sinkStates;
+
+    @Label("Dirty Ticks")
+    @Description("Ticks between the first topology change and this flush (debounce)")
+    public long dirtyTicks;
+}
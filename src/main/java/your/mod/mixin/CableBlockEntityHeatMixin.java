@@ -0,0 +1,70 @@
+package your.mod.mixin;
+
+import com.gregtechceu.gtceu.common.blockentity.CableBlockEntity;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Overwrite;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+import your.mod.energy.CableBurnoutQueue;
+import your.mod.energy.CableHeatScheduler;
+import your.mod.energy.ICableHeatAccess;
+
+/**
+ * Routes GTCEu cable heat ticking through {@link CableHeatScheduler}.
+ *
+ * Vanilla subscribes a server-tick callback per hot cable; here subscribeHeat() only registers the cable
+ * position with the scheduler, which calls the unchanged vanilla update() once per tick from one batch.
+ * heatSubs stays null, so vanilla unsubscribeHeat() becomes a no-op.
+ *
+ * Melting is queued in {@link CableBurnoutQueue} so all burn-outs of a tick become one batched
+ * topology change per net.
+ */
+@Mixin(value = CableBlockEntity.class, remap = false)
+public abstract class CableBlockEntityHeatMixin implements ICableHeatAccess {
+
+    @Shadow
+    private boolean update() {
+        throw new AssertionError();
+    }
+
+    /**
+     * @author henry
+     * @reason Replace per-cable tick subscriptions with one batched heat scheduler per level.
+     */
+    @Overwrite(remap = false)
+    private void subscribeHeat() {
+        final CableBlockEntity self = (CableBlockEntity) (Object) this;
+        if (self.getLevel() instanceof ServerLevel level) {
+            CableHeatScheduler.track(level, self.getBlockPos().asLong());
+        }
+    }
+
+    @Override
+    public boolean gtceuHotfix$tickHeat() {
+        return update();
+    }
+
+    /**
+     * Queue the melt (cable -> fire) instead of replacing the block immediately.
+     */
+    @Redirect(
+        method = "update",
+        at = @At(
+            value = "INVOKE",
+            target = "Lnet/minecraft/world/level/Level;setBlockAndUpdate(Lnet/minecraft/core/BlockPos;Lnet/minecraft/world/level/block/state/BlockState;)Z",
+            remap = true
+        )
+    )
+    private boolean gtceuHotfix$queueBurnout(Level level, BlockPos pos, BlockState state) {
+        if (level instanceof ServerLevel serverLevel) {
+            CableBurnoutQueue.enqueue(serverLevel, pos.asLong(), state);
+            return true;
+        }
+        return level.setBlockAndUpdate(pos, state);
+    }
+}
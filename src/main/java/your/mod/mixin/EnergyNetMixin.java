@@ -2,6 +2,7 @@ package your.mod.mixin;
 
 import com.gregtechceu.gtceu.common.blockentity.CableBlockEntity;
 import com.gregtechceu.gtceu.common.pipelike.cable.EnergyNet;
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyNetWalker;
 import com.gregtechceu.gtceu.common.pipelike.cable.EnergyRoutePath;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
@@ -13,10 +14,19 @@ import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import your.mod.config.HotfixConfig;
+import your.mod.energy.CableBurnoutQueue;
+import your.mod.energy.DeliveryModes;
 import your.mod.energy.EndpointChangeTracker;
 import your.mod.energy.HandlerCache;
+import your.mod.energy.IEnergyNetHotfix;
+import your.mod.energy.LazyRouteList;
+import your.mod.energy.RegionGraph;
 import your.mod.energy.SinkCache;
+import your.mod.energy.jfr.SinkCacheFlushEvent;
 
 import java.util.List;
 import java.util.Map;
@@ -33,15 +43,26 @@ import java.util.Map;
  *    performs a one-time global invalidation (NET_DATA.clear()), ensuring new machines are discovered even for
  *    distant sources without requiring cable layout changes.
  *  - For noisy/irrelevant neighbor updates, we do cheap local invalidation only (fromPos + 6 neighbors).
+ *  - While batched cable burn-outs are applied ({@link CableBurnoutQueue}), invalidation hooks only collect
+ *    the net; the queue marks it dirty once after the whole batch.
+ *  - Topology debounce: dirties within {@link HotfixConfig#topologyDebounceTicks} of each other are coalesced
+ *    into one rebuild (bounded by {@link HotfixConfig#topologyDebounceMaxTicks}). Until then the existing routes
+ *    keep serving; the handler skips routes through removed or cut cables while {@link #gtceuHotfix$isServingStale()}.
+ *  - With {@link HotfixConfig#lazyRoutes}, route lists are built as {@link LazyRouteList} (walked in loss order
+ *    on demand) instead of by a full EnergyNetWalker pass.
  */
 @Mixin(value = EnergyNet.class, remap = false)
-public abstract class EnergyNetMixin {
+public abstract class EnergyNetMixin implements IEnergyNetHotfix {
 
     @Shadow
     private Map<BlockPos, List<EnergyRoutePath>> NET_DATA;
 
     @Unique private boolean gtceuHotfixDirty = false;
     @Unique private long gtceuHotfixLastGlobalClearTick = Long.MIN_VALUE;
+    @Unique private long gtceuHotfixFirstDirtyTick = Long.MIN_VALUE;
+    @Unique private long gtceuHotfixLastDirtyTick = Long.MIN_VALUE;
+    @Unique private DeliveryModes.Mode gtceuHotfixDeliveryMode;
+    @Unique private int gtceuHotfixDeliveryModeGeneration;
 
     /**
      * (A) Near-cable filter: only consider updates that touch this net.
@@ -57,9 +78,80 @@ public abstract class EnergyNetMixin {
         return false;
     }
 
+    @Override
+    public void gtceuHotfix$markDirty() {
+        final Level level = ((EnergyNet) (Object) this).getLevel();
+        final long tick = (level == null) ? 0L : level.getGameTime();
+        if (!gtceuHotfixDirty) {
+            gtceuHotfixFirstDirtyTick = tick;
+        }
+        gtceuHotfixLastDirtyTick = tick;
+        gtceuHotfixDirty = true;
+        SinkCache.wake((EnergyNet) (Object) this);
+    }
+
+    @Override
+    public boolean gtceuHotfix$isServingStale() {
+        return gtceuHotfixDirty;
+    }
+
+    @Override
+    public Map<BlockPos, List<EnergyRoutePath>> gtceuHotfix$getNetData() {
+        return NET_DATA;
+    }
+
+    @Override
+    public DeliveryModes.Mode gtceuHotfix$getDeliveryMode() {
+        return gtceuHotfixDeliveryMode;
+    }
+
+    @Override
+    public int gtceuHotfix$getDeliveryModeGeneration() {
+        return gtceuHotfixDeliveryModeGeneration;
+    }
+
+    @Override
+    public void gtceuHotfix$setDeliveryMode(DeliveryModes.Mode mode, int generation) {
+        gtceuHotfixDeliveryMode = mode;
+        gtceuHotfixDeliveryModeGeneration = generation;
+    }
+
+    /**
+     * @return true once the edit burst has settled (or the max stale window elapsed) and routes may be rebuilt.
+     */
+    @Unique
+    private boolean gtceuHotfixDebounceSettled(long tick) {
+        final int debounce = HotfixConfig.topologyDebounceTicks;
+        if (debounce <= 0) return true;
+        if (tick - gtceuHotfixLastDirtyTick >= debounce) return true;
+        return tick - gtceuHotfixFirstDirtyTick >= HotfixConfig.topologyDebounceMaxTicks;
+    }
+
+    /**
+     * Connection changes (cable placed/removed) clear NET_DATA in vanilla. During a burn-out batch,
+     * defer that to the single dirty-flag invalidation performed after the batch; with a debounce window,
+     * defer it to the debounced rebuild. Cached regions are dropped around the changed node if the node update
+     * that raised this is known, otherwise for the whole net.
+     */
+    @Inject(method = "onPipeConnectionsUpdate", at = @At("HEAD"), cancellable = true)
+    private void gtceuHotfixOnPipeConnectionsUpdate(CallbackInfo ci) {
+        RegionGraph.onConnectionsUpdate((EnergyNet) (Object) this);
+        // Every path below drops or replaces NET_DATA lists (vanilla clears it without markDirty).
+        SinkCache.forgetRoutes((EnergyNet) (Object) this);
+        if (CableBurnoutQueue.isFlushing()) {
+            CableBurnoutQueue.collect((EnergyNet) (Object) this);
+            ci.cancel();
+            return;
+        }
+        if (HotfixConfig.topologyDebounceTicks > 0) {
+            gtceuHotfix$markDirty();
+            ci.cancel();
+        }
+    }
+
     /**
      * (B) Coalesce global invalidation: if the net is marked dirty due to an endpoint change, clear NET_DATA
-     * at most once per tick on first access via getNetData().
+     * at most once per tick on first access via getNetData(), and only once the debounce window has settled.
      */
     @Inject(method = "getNetData", at = @At("HEAD"))
     private void gtceuHotfixBeforeGetNetData(BlockPos pipePos, CallbackInfoReturnable<List<EnergyRoutePath>> cir) {
@@ -68,16 +160,49 @@ public abstract class EnergyNetMixin {
         if (level == null) return;
 
         long tick = level.getGameTime();
-        if (gtceuHotfixDirty && gtceuHotfixLastGlobalClearTick != tick) {
+        if (gtceuHotfixDirty && gtceuHotfixLastGlobalClearTick != tick && gtceuHotfixDebounceSettled(tick)) {
             // One global invalidation per tick per net, then rebuild lazily per pipePos.
+            if (SinkCacheFlushEvent.TYPE.isEnabled()) gtceuHotfixRecordFlush(self, level, tick);
             NET_DATA.clear();
-            HandlerCache.clear(self);
+            // Handler entries are re-resolved on use; SinkCache keeps last tick's sinks for a warm start.
+            HandlerCache.revalidate(self);
             SinkCache.clear(self);
             gtceuHotfixLastGlobalClearTick = tick;
             gtceuHotfixDirty = false;
         }
     }
 
+    /**
+     * Lazy route lists: materialize only the nearest routes now, the rest when delivery runs out of sinks.
+     */
+    @Redirect(
+        method = "getNetData",
+        at = @At(
+            value = "INVOKE",
+            target = "Lcom/gregtechceu/gtceu/common/pipelike/cable/EnergyNetWalker;createNetData(Lcom/gregtechceu/gtceu/common/pipelike/cable/EnergyNet;Lnet/minecraft/core/BlockPos;)Ljava/util/List;"
+        )
+    )
+    private List<EnergyRoutePath> gtceuHotfixCreateNetData(EnergyNet net, BlockPos pipePos) {
+        if (!HotfixConfig.lazyRoutes) return EnergyNetWalker.createNetData(net, pipePos);
+        return LazyRouteList.create(net, pipePos);
+    }
+
+    /**
+     * JFR: report what the global invalidation is about to drop (sizes must be read before clearing).
+     */
+    @Unique
+    private void gtceuHotfixRecordFlush(EnergyNet self, Level level, long tick) {
+        final SinkCacheFlushEvent event = new SinkCacheFlushEvent();
+        if (!event.shouldCommit()) return;
+        event.dimension = level.dimension().location().toString();
+        event.netId = System.identityHashCode(self);
+        event.routeLists = NET_DATA.size();
+        event.handlerEntries = HandlerCache.size(self);
+        event.sinkStates = SinkCache.sinkStateCount(self);
+        event.dirtyTicks = tick - gtceuHotfixFirstDirtyTick;
+        event.commit();
+    }
+
     /**
      * @author henry
      * @reason Replace global invalidation with local invalidation for noisy neighbor updates, but still guarantee
@@ -91,6 +216,13 @@ public abstract class EnergyNetMixin {
         Level level = self.getLevel();
         if (level == null) return;
 
+        // Burn-out batch in progress: one invalidation for the whole batch instead of one per update.
+        if (CableBurnoutQueue.isFlushing()) {
+            RegionGraph.invalidate(self, fromPos);
+            CableBurnoutQueue.collect(self);
+            return;
+        }
+
         // (A) Near-cable filter: ignore unrelated updates
         if (!gtceuHotfixIsNearCable(level, fromPos)) {
             return;
@@ -105,11 +237,15 @@ public abstract class EnergyNetMixin {
         // Invalidate cached endpoint handlers around this update position.
         HandlerCache.invalidateAround(self, fromPos);
 
+        // Something changed next to the net: a sleeping net must re-check its sinks.
+        SinkCache.wake(self);
+
         // Mark dirty ONLY when the BlockEntity identity at fromPos actually changes.
         // This captures real endpoint add/remove/replace without reacting to noisy neighbor updates.
         BlockEntity be = level.getBlockEntity(fromPos);
         if (EndpointChangeTracker.didBlockEntityChange(self, fromPos, be)) {
-            gtceuHotfixDirty = true;
+            RegionGraph.invalidate(self, fromPos);
+            gtceuHotfix$markDirty();
         }
 
         // Also mark dirty when a cable block entity is the source of the update.
@@ -117,7 +253,8 @@ public abstract class EnergyNetMixin {
         // but routes/sinks must be rebuilt so newly attached endpoints (including FE sinks)
         // are discovered.
         if (be instanceof CableBlockEntity) {
-            gtceuHotfixDirty = true;
+            RegionGraph.invalidate(self, fromPos);
+            gtceuHotfix$markDirty();
         }
     }
 }
@@ -4,6 +4,7 @@ import com.gregtechceu.gtceu.api.capability.IEnergyContainer;
 import com.gregtechceu.gtceu.api.capability.forge.GTCapability;
 import com.gregtechceu.gtceu.api.data.chemical.material.properties.WireProperties;
 import com.gregtechceu.gtceu.common.blockentity.CableBlockEntity;
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyNet;
 import com.gregtechceu.gtceu.common.pipelike.cable.EnergyRoutePath;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
@@ -14,9 +15,15 @@ import net.minecraftforge.energy.IEnergyStorage;
 import net.minecraftforge.common.capabilities.ForgeCapabilities;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 import your.mod.energy.FeEnergyContainerWrapper;
 import your.mod.energy.IRouteSegmentData;
+import your.mod.energy.RouteGroups;
+import your.mod.energy.core.UniformRoutes;
+
+import java.util.List;
 
 /**
  * Surgical hook: keep GTCEu's EnergyNetWalker logic intact (including loss computation),
@@ -64,6 +71,26 @@ public abstract class EnergyNetWalkerMixin {
         return route;
     }
 
+    /**
+     * Collapse routes to the same sink ({@link RouteGroups}), then classify each freshly built route list for the
+     * uniform lossless fast path (stored on its first route).
+     */
+    @Inject(method = "createNetData", at = @At("RETURN"))
+    private static void gtceuHotfix$classifyRoutes(EnergyNet net, BlockPos pipePos,
+                                                  CallbackInfoReturnable<List<EnergyRoutePath>> cir) {
+        final List<EnergyRoutePath> routes = cir.getReturnValue();
+        if (routes == null || routes.isEmpty()) return;
+        RouteGroups.collapse(routes, net.getLevel());
+        long voltage = UniformRoutes.UNDECIDED;
+        for (int i = 0, n = routes.size(); i < n && voltage != 0L; i++) {
+            final EnergyRoutePath route = routes.get(i);
+            final IRouteSegmentData data = (IRouteSegmentData) route;
+            voltage = UniformRoutes.merge(voltage, route.getMaxLoss(), data.gtceuHotfix$getMaxVoltage(),
+                    data.gtceuHotfix$getLossPerBlock());
+        }
+        ((IRouteSegmentData) routes.get(0)).gtceuHotfix$setListUniformVoltage(voltage == UniformRoutes.UNDECIDED ? 0L : voltage);
+    }
+
     @Redirect(
         method = "checkNeighbour",
         at = @At(
@@ -5,17 +5,30 @@ import com.gregtechceu.gtceu.common.pipelike.cable.EnergyNetWalker;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.Level;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import your.mod.energy.AllocationSampler;
 import your.mod.energy.EnergyNetDebugStats;
+import your.mod.energy.PerfProbe;
+import your.mod.energy.jfr.EnergyNetRebuildEvent;
+
+import java.util.List;
 
 /**
- * Counts energynet route rebuilds (createNetData calls).
+ * Counts energynet route rebuilds (createNetData calls), times them for {@link EnergyNetDebugStats} and
+ * {@link PerfProbe}, measures their allocation ({@link AllocationSampler}), and emits
+ * {@link EnergyNetRebuildEvent} while a JFR recording enables it.
  */
 @Mixin(value = EnergyNetWalker.class, remap = false)
 public abstract class EnergyNetWalkerStatsMixin {
 
+    @Unique private static long gtceuHotfix$rebuildPerf;
+    @Unique private static long gtceuHotfix$rebuildTiming;
+    @Unique private static long gtceuHotfix$rebuildAlloc = -1L;
+    @Unique private static EnergyNetRebuildEvent gtceuHotfix$rebuildEvent;
+
     @Inject(method = "createNetData", at = @At("HEAD"))
     private static void gtceuHotfix$countNetRebuild(EnergyNet net, BlockPos pipePos,
                                                    CallbackInfoReturnable<?> cir) {
@@ -24,4 +37,47 @@ public abstract class EnergyNetWalkerStatsMixin {
         if (level == null) return;
         EnergyNetDebugStats.recordNetRebuild(net, level);
     }
+
+    @Inject(method = "createNetData", at = @At("HEAD"))
+    private static void gtceuHotfix$beginRebuildTiming(EnergyNet net, BlockPos pipePos,
+                                                      CallbackInfoReturnable<?> cir) {
+        gtceuHotfix$rebuildPerf = PerfProbe.begin(PerfProbe.Section.REBUILD);
+        gtceuHotfix$rebuildTiming = EnergyNetDebugStats.beginRebuildTiming();
+        gtceuHotfix$rebuildAlloc = AllocationSampler.beginRebuild();
+        if (EnergyNetRebuildEvent.TYPE.isEnabled()) {
+            final EnergyNetRebuildEvent event = new EnergyNetRebuildEvent();
+            event.begin();
+            gtceuHotfix$rebuildEvent = event;
+        }
+    }
+
+    @Inject(method = "createNetData", at = @At("RETURN"))
+    private static void gtceuHotfix$endRebuildTiming(EnergyNet net, BlockPos pipePos,
+                                                    CallbackInfoReturnable<?> cir) {
+        AllocationSampler.endRebuild(net, gtceuHotfix$rebuildAlloc);
+        gtceuHotfix$rebuildAlloc = -1L;
+        EnergyNetDebugStats.endRebuildTiming(net, gtceuHotfix$rebuildTiming);
+        gtceuHotfix$rebuildTiming = 0L;
+        PerfProbe.end(PerfProbe.Section.REBUILD, gtceuHotfix$rebuildPerf);
+        gtceuHotfix$rebuildPerf = 0L;
+
+        final EnergyNetRebuildEvent event = gtceuHotfix$rebuildEvent;
+        if (event != null) {
+            gtceuHotfix$rebuildEvent = null;
+            event.end();
+            if (event.shouldCommit()) {
+                final Level level = (net == null) ? null : net.getLevel();
+                event.dimension = (level == null) ? "" : level.dimension().location().toString();
+                event.netSize = (net == null) ? 0 : net.getAllNodes().size();
+                if (pipePos != null) {
+                    event.pipeX = pipePos.getX();
+                    event.pipeY = pipePos.getY();
+                    event.pipeZ = pipePos.getZ();
+                }
+                final Object routes = cir.getReturnValue();
+                event.routeCount = (routes instanceof List<?> list) ? list.size() : 0;
+                event.commit();
+            }
+        }
+    }
 }
@@ -1,15 +1,22 @@
 package your.mod.mixin;
 
 import com.gregtechceu.gtceu.common.pipelike.cable.EnergyRoutePath;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Unique;
 import your.mod.energy.IRouteSegmentData;
+import your.mod.energy.KeyUtil;
+import your.mod.energy.core.UniformRoutes;
+
+import java.util.List;
 
 /**
  * Stores per-segment cached route data on GTCEu's {@link EnergyRoutePath}.
  *
  * <p>Populated once at route creation time (in {@code EnergyNetWalkerMixin}) to avoid
- * expensive BE/node-data reads in the hot transfer loop.</p>
+ * expensive BE/node-data reads in the hot transfer loop. Endpoint position, insert side and
+ * sink key are computed at the same time, so the delivery loop does not allocate per route check.</p>
  */
 @Mixin(value = EnergyRoutePath.class, remap = false)
 public abstract class EnergyRoutePathSegmentMixin implements IRouteSegmentData {
@@ -18,11 +25,29 @@ public abstract class EnergyRoutePathSegmentMixin implements IRouteSegmentData {
     @Unique private long[] gtceuHotfix$maxVoltage;
     @Unique private int[] gtceuHotfix$lossPerBlock;
 
+    @Unique private BlockPos gtceuHotfix$endpointPos;
+    @Unique private Direction gtceuHotfix$insertSide;
+    @Unique private long gtceuHotfix$sinkKey;
+    @Unique private long gtceuHotfix$listUniformVoltage = UniformRoutes.UNDECIDED;
+    @Unique private EnergyRoutePath[] gtceuHotfix$alternates;
+    @Unique private List<EnergyRoutePath> gtceuHotfix$walkerOrder;
+
     @Override
     public void gtceuHotfix$setSegmentData(long[] posLong, long[] maxVoltage, int[] lossPerBlock) {
         this.gtceuHotfix$posLong = posLong;
         this.gtceuHotfix$maxVoltage = maxVoltage;
         this.gtceuHotfix$lossPerBlock = lossPerBlock;
+        gtceuHotfix$initEndpoint();
+    }
+
+    @Unique
+    private void gtceuHotfix$initEndpoint() {
+        final EnergyRoutePath self = (EnergyRoutePath) (Object) this;
+        final BlockPos endpoint = self.getTargetPipePos().relative(self.getTargetFacing());
+        final Direction insertSide = self.getTargetFacing().getOpposite();
+        this.gtceuHotfix$sinkKey = KeyUtil.packPosSide(endpoint, insertSide);
+        this.gtceuHotfix$insertSide = insertSide;
+        this.gtceuHotfix$endpointPos = endpoint;
     }
 
     @Override
@@ -39,4 +64,53 @@ public abstract class EnergyRoutePathSegmentMixin implements IRouteSegmentData {
     public int[] gtceuHotfix$getLossPerBlock() {
         return gtceuHotfix$lossPerBlock;
     }
+
+    @Override
+    public BlockPos gtceuHotfix$getEndpointPos() {
+        // Routes not created through EnergyNetWalkerMixin: compute once on first use.
+        if (gtceuHotfix$endpointPos == null) gtceuHotfix$initEndpoint();
+        return gtceuHotfix$endpointPos;
+    }
+
+    @Override
+    public Direction gtceuHotfix$getInsertSide() {
+        if (gtceuHotfix$endpointPos == null) gtceuHotfix$initEndpoint();
+        return gtceuHotfix$insertSide;
+    }
+
+    @Override
+    public long gtceuHotfix$getSinkKey() {
+        if (gtceuHotfix$endpointPos == null) gtceuHotfix$initEndpoint();
+        return gtceuHotfix$sinkKey;
+    }
+
+    @Override
+    public long gtceuHotfix$getListUniformVoltage() {
+        return gtceuHotfix$listUniformVoltage;
+    }
+
+    @Override
+    public void gtceuHotfix$setListUniformVoltage(long voltage) {
+        this.gtceuHotfix$listUniformVoltage = voltage;
+    }
+
+    @Override
+    public EnergyRoutePath[] gtceuHotfix$getAlternates() {
+        return gtceuHotfix$alternates;
+    }
+
+    @Override
+    public void gtceuHotfix$setAlternates(EnergyRoutePath[] alternates) {
+        this.gtceuHotfix$alternates = alternates;
+    }
+
+    @Override
+    public List<EnergyRoutePath> gtceuHotfix$getWalkerOrder() {
+        return gtceuHotfix$walkerOrder;
+    }
+
+    @Override
+    public void gtceuHotfix$setWalkerOrder(List<EnergyRoutePath> routes) {
+        this.gtceuHotfix$walkerOrder = routes;
+    }
 }
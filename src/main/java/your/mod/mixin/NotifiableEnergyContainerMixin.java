@@ -0,0 +1,33 @@
+package your.mod.mixin;
+
+import com.gregtechceu.gtceu.api.machine.MetaMachine;
+import com.gregtechceu.gtceu.api.machine.trait.MachineTrait;
+import com.gregtechceu.gtceu.api.machine.trait.NotifiableEnergyContainer;
+import net.minecraft.world.level.Level;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import your.mod.energy.NetSleep;
+
+/**
+ * Sink-side wake-up signal for sleeping energy nets: when a GTCEu energy container loses energy
+ * (the machine consumed it), space opened up and nets feeding this machine must re-check.
+ */
+@Mixin(value = NotifiableEnergyContainer.class, remap = false)
+public abstract class NotifiableEnergyContainerMixin {
+
+    @Shadow protected long energyStored;
+
+    @Inject(method = "setEnergyStored", at = @At("HEAD"))
+    private void gtceuHotfix$wakeSleepingNets(long energyStored, CallbackInfo ci) {
+        if (energyStored >= this.energyStored) return;
+        if (!NetSleep.hasWatchers()) return;
+
+        final MetaMachine machine = ((MachineTrait) (Object) this).getMachine();
+        final Level level = machine.getLevel();
+        if (level == null || level.isClientSide) return;
+        NetSleep.onSinkEnergyDrained(level, machine.getPos().asLong());
+    }
+}
@@ -0,0 +1,65 @@
+package your.mod.mixin;
+
+import com.gregtechceu.gtceu.api.pipenet.PipeNet;
+import com.gregtechceu.gtceu.common.pipelike.cable.EnergyNet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import your.mod.energy.NetHandoff;
+import your.mod.energy.RegionGraph;
+
+import java.util.Map;
+
+/**
+ * Net merges and splits: hand the hotfix caches of the moved cables over to the receiving energy net.
+ *
+ * Node updates (cable placed, removed, connection toggled or recoloured): record the node position for the
+ * connection update they raise, so it invalidates the node's regions only ({@link RegionGraph#onConnectionsUpdate}).
+ */
+@Mixin(value = PipeNet.class, remap = false)
+public abstract class PipeNetMixin {
+
+    @Inject(method = "addNode", at = @At("HEAD"))
+    private void gtceuHotfix$beforeAddNode(BlockPos nodePos, Object nodeData, int mark, int openConnections,
+                                           boolean isActive, CallbackInfo ci) {
+        gtceuHotfix$beginNodeChange(nodePos);
+    }
+
+    @Inject(method = "removeNode", at = @At("HEAD"))
+    private void gtceuHotfix$beforeRemoveNode(BlockPos nodePos, CallbackInfo ci) {
+        gtceuHotfix$beginNodeChange(nodePos);
+    }
+
+    @Inject(method = "updateBlockedConnections", at = @At("HEAD"))
+    private void gtceuHotfix$beforeUpdateBlockedConnections(BlockPos nodePos, Direction facing, boolean isBlocked,
+                                                            CallbackInfo ci) {
+        gtceuHotfix$beginNodeChange(nodePos);
+    }
+
+    @Inject(method = "updateMark", at = @At("HEAD"))
+    private void gtceuHotfix$beforeUpdateMark(BlockPos nodePos, int newMark, CallbackInfo ci) {
+        gtceuHotfix$beginNodeChange(nodePos);
+    }
+
+    @Inject(method = {"addNode", "removeNode", "updateBlockedConnections", "updateMark"}, at = @At("RETURN"))
+    private void gtceuHotfix$afterNodeChange(CallbackInfo ci) {
+        if ((Object) this instanceof EnergyNet) RegionGraph.endNodeChange();
+    }
+
+    @Unique
+    private void gtceuHotfix$beginNodeChange(BlockPos nodePos) {
+        if ((Object) this instanceof EnergyNet net) RegionGraph.beginNodeChange(net, nodePos);
+    }
+
+    @Inject(method = "transferNodeData", at = @At("TAIL"))
+    private void gtceuHotfix$afterTransferNodeData(Map<BlockPos, ?> transferredNodes, PipeNet<?> parentNet,
+                                                   CallbackInfo ci) {
+        if ((Object) this instanceof EnergyNet to && parentNet instanceof EnergyNet from) {
+            NetHandoff.transfer(from, to, transferredNodes);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package your.mod.energy.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link DeliveryEngine} against the GTCEu 7.4.0 route loop ({@link FakeNet#vanilla}) on identical nets: accepted
+ * amps, energy stored per sink and the heat / amperage applied to cables must match for a single offer on a cold
+ * schedule, where the engine probes every route in list order. The probe budget and the saturation / offer
+ * exhaustion proofs are checked on the engine alone.
+ */
+class DeliveryEngineTest {
+
+    private static final long OFFER = 1L;
+
+    private static long[] pos(long... pos) {
+        return pos;
+    }
+
+    private static long[] volts(long... volts) {
+        return volts;
+    }
+
+    private static int[] loss(int... loss) {
+        return loss;
+    }
+
+    /** Build the same net twice, offer once through each side and compare everything observable. */
+    private static FakeNet[] compare(Consumer<FakeNet> layout, long voltage, long amperage) {
+        final FakeNet reference = new FakeNet();
+        final FakeNet engine = new FakeNet();
+        layout.accept(reference);
+        layout.accept(engine);
+        engine.nextTick();
+
+        final long expected = reference.vanilla(voltage, amperage);
+        final long actual = engine.engine(OFFER, voltage, amperage);
+        assertEquals(expected, actual, "accepted amps");
+        for (int i = 0; i < reference.sinks.size(); i++) {
+            assertEquals(reference.sinks.get(i).stored, engine.sinks.get(i).stored, "energy stored in sink " + i);
+            assertEquals(reference.sinks.get(i).lastVoltage, engine.sinks.get(i).lastVoltage, "voltage at sink " + i);
+        }
+        assertEquals(reference.cableLog, engine.cableLog, "cable heat and amperage");
+        assertEquals(reference.burned, engine.burned, "burned cables");
+        return new FakeNet[] {reference, engine};
+    }
+
+    @Test
+    void skipsRoutesThatLoseTheWholeVoltage() {
+        final FakeNet[] nets = compare(net -> {
+            final int far = net.addSink(1_000_000, 4);
+            final int edge = net.addSink(1_000_000, 4);
+            final int near = net.addSink(1_000_000, 4);
+            net.route(far, pos(1, 2), volts(FakeNet.V_LV, FakeNet.V_LV), loss(20, 20));
+            net.route(edge, pos(1, 3), volts(FakeNet.V_LV, FakeNet.V_LV), loss(20, 12));
+            net.route(near, pos(1, 4), volts(FakeNet.V_LV, FakeNet.V_LV), loss(20, 11));
+        }, FakeNet.V_LV, 2);
+        assertEquals(0, nets[1].sinks.get(0).stored);
+        assertEquals(0, nets[1].sinks.get(1).stored, "maxLoss equal to the voltage is skipped");
+        assertEquals(2, nets[1].sinks.get(2).ampsThisTick);
+        assertEquals(1, nets[1].sinks.get(2).lastVoltage);
+    }
+
+    @Test
+    void skipsTheProducersOwnFace() {
+        final FakeNet[] nets = compare(net -> {
+            final int own = net.addSink(1_000_000, 4);
+            final int other = net.addSink(1_000_000, 4);
+            net.self(own, pos(1), volts(FakeNet.V_MV), loss(0));
+            net.route(other, pos(1, 2), volts(FakeNet.V_MV, FakeNet.V_MV), loss(0, 0));
+        }, FakeNet.V_MV, 3);
+        assertEquals(0, nets[1].sinks.get(0).stored);
+        assertEquals(3, nets[1].sinks.get(1).ampsThisTick);
+    }
+
+    @Test
+    void clampsToTheWeakestSegment() {
+        final FakeNet[] nets = compare(net -> {
+            final int sink = net.addSink(1_000_000, 2);
+            net.route(sink, pos(1, 2, 3), volts(FakeNet.V_EV, FakeNet.V_HV, FakeNet.V_EV), loss(1, 1, 1));
+        }, FakeNet.V_EV, 2);
+        assertEquals(FakeNet.V_HV, nets[1].sinks.get(0).lastVoltage);
+        assertTrue(nets[1].cableLog.contains("heat 2"), "the under-rated cable is heated");
+    }
+
+    @Test
+    void overvoltageBurnStopsTheRoute() {
+        final FakeNet[] nets = compare(net -> {
+            final int first = net.addSink(1_000_000, 2);
+            final int second = net.addSink(1_000_000, 2);
+            final int third = net.addSink(1_000_000, 2);
+            net.fragile.add(2L);
+            net.route(first, pos(1, 2), volts(FakeNet.V_EV, FakeNet.V_LV), loss(1, 1));
+            net.route(second, pos(1, 2, 5), volts(FakeNet.V_EV, FakeNet.V_LV, FakeNet.V_EV), loss(1, 1, 1));
+            net.route(third, pos(1, 3), volts(FakeNet.V_EV, FakeNet.V_EV), loss(1, 1));
+        }, FakeNet.V_EV, 4);
+        assertEquals(Long.valueOf(2L), nets[1].burned.iterator().next());
+        assertEquals(0, nets[1].sinks.get(0).stored);
+        assertEquals(0, nets[1].sinks.get(1).stored, "routes over a burned cable stay dead");
+        assertEquals(2, nets[1].sinks.get(2).ampsThisTick);
+    }
+
+    @Test
+    void fullSinksHeatNoCables() {
+        final FakeNet[] nets = compare(net -> {
+            final int full = net.addSink(0, 2);
+            final int open = net.addSink(1_000_000, 2);
+            net.fragile.add(2L);
+            net.route(full, pos(1, 2), volts(FakeNet.V_EV, FakeNet.V_LV), loss(1, 1));
+            net.route(open, pos(1, 3), volts(FakeNet.V_EV, FakeNet.V_EV), loss(1, 1));
+        }, FakeNet.V_EV, 2);
+        assertTrue(nets[1].burned.isEmpty());
+        assertFalse(nets[1].cableLog.contains("heat 2"));
+    }
+
+    @Test
+    void recordsAmperageAtTheVoltageLeftAtEachCable() {
+        final FakeNet[] nets = compare(net -> {
+            final int sink = net.addSink(1_000_000, 2);
+            net.route(sink, pos(1, 2, 3, 4), volts(FakeNet.V_EV, FakeNet.V_EV, FakeNet.V_EV, FakeNet.V_EV),
+                    loss(10, 20, 1000, 1000));
+        }, FakeNet.V_EV, 2);
+        // Each cable sees the source voltage less the loss up to and including itself.
+        assertEquals(List.of("amps 1 2@2038", "amps 2 2@2018", "amps 3 2@1018", "amps 4 2@18"), nets[1].cableLog);
+        assertEquals(2048 - 2030, nets[1].sinks.get(0).lastVoltage);
+    }
+
+    @Test
+    void sharesOneSinkBudgetAcrossItsRoutes() {
+        compare(net -> {
+            final int sink = net.addSink(1_000_000, 3);
+            final int other = net.addSink(1_000_000, 8);
+            net.route(sink, pos(1, 2), volts(FakeNet.V_HV, FakeNet.V_HV), loss(1, 1));
+            net.route(sink, pos(1, 3), volts(FakeNet.V_HV, FakeNet.V_HV), loss(1, 2));
+            net.route(other, pos(1, 4), volts(FakeNet.V_HV, FakeNet.V_HV), loss(1, 3));
+        }, FakeNet.V_HV, 8);
+    }
+
+    @Test
+    void boundsProbesPerTick() {
+        final FakeNet net = new FakeNet();
+        final int full = net.addSink(0, 2);
+        for (int i = 0; i < 2 * RouteSchedule.PROBE_BUDGET_PER_TICK; i++) {
+            net.route(full, pos(1, 100 + i), volts(FakeNet.V_EV, FakeNet.V_EV), loss(1, 1));
+        }
+        final int open = net.addSink(1_000_000, 4);
+        net.route(open, pos(1, 2), volts(FakeNet.V_EV, FakeNet.V_EV), loss(1, 1));
+
+        net.nextTick();
+        assertEquals(0, net.engine(OFFER, FakeNet.V_EV, 4));
+        assertEquals(RouteSchedule.PROBE_BUDGET_PER_TICK, net.routeChecks);
+        assertEquals(0, net.schedule.getProbeBudgetRemaining());
+        assertEquals(4, net.schedule.getUnmetAmpsThisTick(), "amps left behind the spent budget are recorded");
+        assertFalse(net.schedule.isSaturatedThisTick(), "unvisited routes prove nothing");
+
+        // A second offer in the same tick has no budget left to probe with.
+        net.routeChecks = 0;
+        assertEquals(0, net.engine(OFFER + 1, FakeNet.V_EV, 4));
+        assertEquals(0, net.routeChecks);
+
+        // The reference loop reaches the open sink past every full one.
+        final FakeNet reference = new FakeNet();
+        reference.sinks.addAll(net.sinks);
+        reference.routes.addAll(net.routes);
+        assertEquals(4, reference.vanilla(FakeNet.V_EV, 4));
+    }
+
+    @Test
+    void provesSaturationOnceEveryRouteIsSpent() {
+        final FakeNet net = new FakeNet();
+        final int a = net.addSink(0, 2);
+        final int b = net.addSink(1_000_000, 2);
+        net.sinks.get(b).stored = 1_000_000 - (FakeNet.V_EV - 1);
+        net.route(a, pos(1, 2), volts(FakeNet.V_EV, FakeNet.V_EV), loss(0, 0));
+        net.route(b, pos(1, 3), volts(FakeNet.V_EV, FakeNet.V_EV), loss(0, 0));
+
+        net.nextTick();
+        assertEquals(0, net.engine(OFFER, FakeNet.V_EV, 4));
+        assertTrue(net.schedule.isSaturatedThisTick());
+        assertTrue(net.schedule.isNoDemandThisTick());
+
+        // Any further offer this tick is O(1), whatever pipe it comes from.
+        net.routeChecks = 0;
+        assertEquals(0, net.engine(OFFER + 1, FakeNet.V_LV, 4));
+        assertEquals(0, net.routeChecks);
+
+        // Next tick the proof is gone and the drained sink is found again.
+        net.sinks.get(b).stored = 0;
+        net.nextTick();
+        assertFalse(net.schedule.isSaturatedThisTick());
+        assertEquals(2, net.engine(OFFER, FakeNet.V_EV, 4));
+    }
+
+    @Test
+    void exhaustedOfferShortCircuitsForTheRestOfTheTick() {
+        final FakeNet net = new FakeNet();
+        final int sink = net.addSink(1_000_000, 2);
+        net.route(sink, pos(1, 2), volts(FakeNet.V_EV, FakeNet.V_EV), loss(1, 1));
+
+        net.nextTick();
+        assertEquals(2, net.engine(OFFER, FakeNet.V_EV, 4));
+        assertTrue(net.schedule.isOfferExhausted(OFFER, FakeNet.V_EV), "2 amps found no taker after every route");
+
+        net.routeChecks = 0;
+        assertEquals(0, net.engine(OFFER, FakeNet.V_EV, 4));
+        assertEquals(0, net.routeChecks, "the repeat is rejected without examining routes");
+        assertFalse(net.schedule.isOfferExhausted(OFFER, FakeNet.V_HV), "other voltages are separate offers");
+
+        net.nextTick();
+        assertFalse(net.schedule.isOfferExhausted(OFFER, FakeNet.V_EV));
+        assertEquals(2, net.engine(OFFER, FakeNet.V_EV, 4));
+    }
+}
@@ -0,0 +1,283 @@
+package your.mod.energy.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A route list with its sinks and cables for driving {@link DeliveryEngine} headlessly, plus the GTCEu 7.4.0
+ * {@code EnergyNetHandler.acceptEnergyFromNetwork} route loop over the same data ({@link #vanilla}) as reference.
+ *
+ * Sinks behave like GTCEu energy containers (input amperage per tick, storage space, no overvoltage explosion);
+ * cables on the {@link #fragile} list burn on any overvoltage, the others only record the heat. Build two
+ * identical nets to compare the engine against the reference loop.
+ *
+ * The list reports {@link #uniform} as its uniform rating, or classifies itself like the route lists do when
+ * {@link #classified} is set. With {@link #growBy} set it is materialized lazily: {@link #size} starts at that
+ * many routes and each {@link #expandRoutes} adds as many more.
+ */
+final class FakeNet implements RouteSource, SinkAccess, CableEffects {
+
+    static final long V_LV = 32L;
+    static final long V_MV = 128L;
+    static final long V_HV = 512L;
+    static final long V_EV = 2048L;
+
+    /** An endpoint with GTCEu energy container semantics. */
+    static final class Sink {
+        final long capacity;
+        final long inputAmps;
+        long stored;
+        long ampsThisTick;
+        long lastVoltage;
+
+        Sink(long capacity, long inputAmps) {
+            this.capacity = capacity;
+            this.inputAmps = inputAmps;
+        }
+
+        long space() {
+            return capacity - stored;
+        }
+
+        /** {@code NotifiableEnergyContainer.acceptEnergyFromNetwork} without the overvoltage explosion. */
+        long accept(long voltage, long amperage) {
+            if (amperage <= 0 || voltage <= 0) return 0;
+            final long canAccept = capacity - stored;
+            if (canAccept < voltage) return 0;
+            final long amps = Math.min(canAccept / voltage, Math.min(amperage, inputAmps - ampsThisTick));
+            if (amps <= 0) return 0;
+            stored += voltage * amps;
+            ampsThisTick += amps;
+            lastVoltage = voltage;
+            return amps;
+        }
+    }
+
+    /** One route: its sink, loss and cables (producer side first). */
+    static final class Route {
+        final int sink;
+        final long maxLoss;
+        final boolean self;
+        final long[] pos;
+        final long[] maxVoltage;
+        final int[] loss;
+
+        Route(int sink, boolean self, long[] pos, long[] maxVoltage, int[] loss) {
+            this.sink = sink;
+            this.self = self;
+            this.pos = pos;
+            this.maxVoltage = maxVoltage;
+            this.loss = loss;
+            long total = 0;
+            for (int l : loss) total += l;
+            this.maxLoss = total;
+        }
+    }
+
+    /** Per-tick budget of a sink, as the adapter's sink states compute it. */
+    private static final class Budget extends SinkBudget {
+        Budget(Sink sink) {
+            setBudget(true, true, sink.inputAmps - sink.ampsThisTick, sink.space(), Long.MAX_VALUE, false);
+        }
+    }
+
+    final List<Sink> sinks = new ArrayList<>();
+    final List<Route> routes = new ArrayList<>();
+    final Set<Long> fragile = new HashSet<>();
+    final Set<Long> burned = new HashSet<>();
+    /** Heat and amperage applied to cables, in call order ("heat pos", "amps pos amps@voltage"). */
+    final List<String> cableLog = new ArrayList<>();
+
+    final RouteSchedule schedule = new RouteSchedule(0L);
+    private final Map<Integer, Budget> budgets = new HashMap<>();
+    private final Object identity = new Object();
+    private long tick;
+    long uniform;
+    boolean classified;
+    int growBy;
+    private int visible = -1;
+    int routeChecks;
+    int routeAmperageCalls;
+
+    int addSink(long capacity, long inputAmps) {
+        sinks.add(new Sink(capacity, inputAmps));
+        return sinks.size() - 1;
+    }
+
+    /** Add a route to {@code sink} over cables {@code pos} with the given ratings and losses. */
+    FakeNet route(int sink, long[] pos, long[] maxVoltage, int[] loss) {
+        routes.add(new Route(sink, false, pos, maxVoltage, loss));
+        return this;
+    }
+
+    /** Add the producer's own cable face as a route. */
+    FakeNet self(int sink, long[] pos, long[] maxVoltage, int[] loss) {
+        routes.add(new Route(sink, true, pos, maxVoltage, loss));
+        return this;
+    }
+
+    /** Next server tick: sinks take input amperage again, budgets are recomputed. */
+    void nextTick() {
+        tick++;
+        budgets.clear();
+        for (Sink s : sinks) s.ampsThisTick = 0;
+        schedule.beginTick(tick);
+    }
+
+    long engine(long offerKey, long voltage, long amperage) {
+        return DeliveryEngine.deliver(schedule, this, this, this, offerKey, voltage, amperage);
+    }
+
+    /** The GTCEu 7.4.0 route loop over this net (mirrors {@code VanillaDelivery#deliver}). */
+    long vanilla(long voltage, long amperage) {
+        long used = 0;
+        for (Route r : routes) {
+            routeChecks++;
+            if (r.maxLoss >= voltage) continue;
+            if (r.self) continue;
+            final Sink dest = sinks.get(r.sink);
+            if (dest.space() <= 0) continue;
+
+            long pathVoltage = voltage - r.maxLoss;
+            boolean broken = false;
+            for (int j = 0; j < r.pos.length; j++) {
+                if (r.maxVoltage[j] < voltage) {
+                    heat(r.pos[j]);
+                    broken = burned.contains(r.pos[j]);
+                    if (broken) break;
+                }
+                pathVoltage = Math.min(r.maxVoltage[j], pathVoltage);
+            }
+            if (broken) continue;
+
+            final long amps = dest.accept(pathVoltage, amperage - used);
+            if (amps == 0) continue;
+            used += amps;
+
+            long traveled = voltage;
+            for (int j = 0; j < r.pos.length; j++) {
+                traveled -= r.loss[j];
+                if (traveled <= 0) break;
+                if (!burned.contains(r.pos[j])) amperage(r.pos[j], amps, traveled);
+            }
+            if (used == amperage) break;
+        }
+        return used;
+    }
+
+    private void heat(long pos) {
+        cableLog.add("heat " + pos);
+        if (fragile.contains(pos)) burned.add(pos);
+    }
+
+    // RouteSource
+
+    @Override
+    public int size() {
+        if (growBy <= 0) return routes.size();
+        if (visible < 0) visible = Math.min(growBy, routes.size());
+        return visible;
+    }
+
+    @Override
+    public Object identity() {
+        return identity;
+    }
+
+    @Override
+    public long maxLoss(int route) {
+        return routes.get(route).maxLoss;
+    }
+
+    @Override
+    public boolean isSelf(int route) {
+        return routes.get(route).self;
+    }
+
+    @Override
+    public long[] segmentPos(int route) {
+        return routes.get(route).pos;
+    }
+
+    @Override
+    public long[] segmentMaxVoltage(int route) {
+        return routes.get(route).maxVoltage;
+    }
+
+    @Override
+    public int[] segmentLoss(int route) {
+        return routes.get(route).loss;
+    }
+
+    @Override
+    public boolean isStale() {
+        return false;
+    }
+
+    @Override
+    public boolean isSegmentRemoved(int route, int segment) {
+        return false;
+    }
+
+    @Override
+    public long uniformVoltage() {
+        return classified ? UniformRoutes.classify(this) : uniform;
+    }
+
+    @Override
+    public boolean isParked(int route) {
+        return false;
+    }
+
+    @Override
+    public boolean hasMoreRoutes() {
+        return size() < routes.size();
+    }
+
+    @Override
+    public int expandRoutes() {
+        if (growBy > 0) visible = Math.min(size() + growBy, routes.size());
+        return size();
+    }
+
+    // SinkAccess
+
+    @Override
+    public SinkBudget sink(int route) {
+        return budgets.computeIfAbsent(routes.get(route).sink, s -> new Budget(sinks.get(s)));
+    }
+
+    @Override
+    public long accept(int route, SinkBudget sink, long voltage, long amperage) {
+        return sinks.get(routes.get(route).sink).accept(voltage, amperage);
+    }
+
+    // CableEffects
+
+    @Override
+    public boolean overVoltage(int route, int segment, long segmentPos, long segmentMaxVoltage, long voltage) {
+        heat(segmentPos);
+        return burned.contains(segmentPos);
+    }
+
+    @Override
+    public void amperage(long segmentPos, long amperage, long voltage) {
+        cableLog.add("amps " + segmentPos + " " + amperage + "@" + voltage);
+    }
+
+    @Override
+    public void routeAmperage(int route, long amperage, long voltage) {
+        routeAmperageCalls++;
+        final Route r = routes.get(route);
+        for (long pos : r.pos) amperage(pos, amperage, voltage);
+    }
+
+    @Override
+    public void routeChecked(int route) {
+        routeChecks++;
+    }
+}
@@ -0,0 +1,111 @@
+package your.mod.energy.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The uniform fast path of {@link DeliveryEngine} against its per-segment path: the same list is delivered once
+ * classified ({@link UniformRoutes}) and once reported as non-uniform, over several ticks and offers, and must
+ * accept the same amps and put the same amperage on every cable. The first tick is also checked against the
+ * GTCEu 7.4.0 route loop.
+ */
+class UniformRoutesTest {
+
+    private static final long RATING = FakeNet.V_EV;
+
+    /** A lossless superconductor-style list: the producer's own face and six sinks, all cables at {@link #RATING}. */
+    private static void uniformList(FakeNet net) {
+        final int own = net.addSink(1_000_000, 4);
+        net.self(own, new long[] {1}, new long[] {RATING}, new int[] {0});
+        for (int i = 0; i < 6; i++) {
+            final int sink = net.addSink(40_000 + 10_000L * i, 1 + i % 3);
+            net.route(sink, new long[] {1, 10 + i, 20 + i}, new long[] {RATING, RATING, RATING}, new int[] {0, 0, 0});
+        }
+    }
+
+    /** Deliver {@code offers} per tick for a few ticks through both paths of the engine and compare. */
+    private static FakeNet[] compare(Consumer<FakeNet> layout, int growBy, long voltage, long... offers) {
+        final FakeNet reference = new FakeNet();
+        final FakeNet uniform = new FakeNet();
+        final FakeNet perSegment = new FakeNet();
+        layout.accept(reference);
+        layout.accept(uniform);
+        layout.accept(perSegment);
+        uniform.classified = true;
+        uniform.growBy = growBy;
+        perSegment.growBy = growBy;
+
+        for (int tick = 0; tick < 3; tick++) {
+            uniform.nextTick();
+            perSegment.nextTick();
+            for (int i = 0; i < offers.length; i++) {
+                final long a = uniform.engine(i, voltage, offers[i]);
+                final long b = perSegment.engine(i, voltage, offers[i]);
+                assertEquals(b, a, "accepted amps, tick " + tick + " offer " + i);
+                if (tick == 0 && i == 0) {
+                    assertEquals(reference.vanilla(voltage, offers[0]), a, "first offer against the reference loop");
+                    assertEquals(reference.cableLog, uniform.cableLog, "first offer cable log against the reference");
+                }
+            }
+            for (int s = 0; s < uniform.sinks.size(); s++) {
+                assertEquals(perSegment.sinks.get(s).stored, uniform.sinks.get(s).stored,
+                        "energy stored in sink " + s + ", tick " + tick);
+            }
+        }
+        assertEquals(perSegment.cableLog, uniform.cableLog, "cable heat and amperage");
+        assertEquals(0, perSegment.routeAmperageCalls);
+        return new FakeNet[] {uniform, perSegment};
+    }
+
+    @Test
+    void classifiesLosslessListsAtTheirRating() {
+        final FakeNet net = new FakeNet();
+        uniformList(net);
+        assertEquals(RATING, UniformRoutes.classify(net));
+
+        final int sink = net.addSink(1_000, 1);
+        net.route(sink, new long[] {1, 99}, new long[] {RATING, RATING}, new int[] {0, 1});
+        assertEquals(0, UniformRoutes.classify(net), "one lossy cable ends the fast path");
+    }
+
+    @Test
+    void offerAtTheRatingTakesTheFastPath() {
+        final FakeNet[] nets = compare(UniformRoutesTest::uniformList, 0, RATING, 5, 3, 2);
+        assertTrue(nets[0].routeAmperageCalls > 0, "uniform path was used");
+    }
+
+    @Test
+    void offerBelowTheRatingTakesTheFastPath() {
+        final FakeNet[] nets = compare(UniformRoutesTest::uniformList, 0, FakeNet.V_HV, 4, 4);
+        assertTrue(nets[0].routeAmperageCalls > 0, "uniform path was used");
+    }
+
+    @Test
+    void offerOneVoltAboveTheRatingOvervoltsEveryCable() {
+        final FakeNet[] nets = compare(UniformRoutesTest::uniformList, 0, RATING + 1, 5, 3);
+        assertEquals(0, nets[0].routeAmperageCalls, "uniform path must not be used above the rating");
+        assertTrue(nets[0].cableLog.contains("heat 10"), "cables are heated");
+    }
+
+    @Test
+    void lazilyGrowingUniformList() {
+        final FakeNet[] nets = compare(UniformRoutesTest::uniformList, 2, RATING, 9, 4);
+        assertTrue(nets[0].routeAmperageCalls > 0, "uniform path was used");
+    }
+
+    @Test
+    void lazilyGrowingListTurnsNonUniform() {
+        // A lossy route materialized last: the fast path holds for the first batches and ends when it appears.
+        final FakeNet[] nets = compare(net -> {
+            uniformList(net);
+            final int far = net.addSink(1_000_000, 4);
+            net.route(far, new long[] {1, 30, 31}, new long[] {RATING, RATING, FakeNet.V_HV}, new int[] {0, 1, 1});
+        }, 3, RATING, 16);
+        assertTrue(nets[0].routeAmperageCalls > 0, "uniform path was used before the lossy route appeared");
+        assertTrue(nets[0].cableLog.contains("heat 31"), "the lossy route went through the per-segment path");
+    }
+}
@@ -0,0 +1,455 @@
+package your.mod.energy.core;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Offline replay of a recorded energynet trace ({@link TraceFormat}) through {@link DeliveryEngine}.
+ *
+ * Every recorded producer call is fed to the engine again, per net with a fresh {@link RouteSchedule}, over the
+ * recorded route tables. Sinks are modelled from the recorded budgets: a sink starts each tick with the first
+ * budget recorded for it in that tick (or, if the recorded run never reached it that tick, the last budget
+ * recorded before) and accepts whatever its budget allows. Cable heat is not modelled.
+ *
+ * The result compares accepted amps and route checks against the recording, so an algorithm change can be
+ * diffed against production load, and times the engine for benchmarking:
+ * <pre>
+ * ./gradlew replayTrace -Ptrace=run/energynet-traces/trace-...bin.gz -Piterations=20
+ * </pre>
+ * Plain Java (fastutil only), like the rest of this package; kept in the tools source set, out of the mod jar.
+ */
+public final class TraceReplayer {
+
+    private TraceReplayer() {}
+
+    /** Usage: {@code TraceReplayer <trace file> [iterations]}. */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args[0].isEmpty()) {
+            System.err.println("usage: TraceReplayer <trace.bin.gz> [iterations]");
+            System.exit(2);
+            return;
+        }
+        final int iterations = (args.length > 1) ? Math.max(1, Integer.parseInt(args[1])) : 1;
+        final Trace trace = load(Paths.get(args[0]));
+        System.out.println(trace);
+
+        final long[] nanos = new long[iterations];
+        Result result = null;
+        for (int i = 0; i < iterations; i++) {
+            result = replay(trace);
+            nanos[i] = result.engineNanos;
+        }
+        System.out.println(result);
+        if (iterations > 1) {
+            Arrays.sort(nanos);
+            final double median = nanos[iterations / 2];
+            System.out.println(String.format(Locale.ROOT, "engine time over %d iterations: median %.1f ns/call, min %.1f ns/call",
+                    iterations, median / Math.max(1, result.calls), (double) nanos[0] / Math.max(1, result.calls)));
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Trace model
+    // ---------------------------------------------------------------------
+
+    /** A loaded trace: route tables and calls in recording order. */
+    public static final class Trace {
+        public final long startTick;
+        final Int2ObjectOpenHashMap<String> netIds = new Int2ObjectOpenHashMap<>();
+        final Int2ObjectOpenHashMap<RouteTable> lists = new Int2ObjectOpenHashMap<>();
+        final ArrayList<Call> calls = new ArrayList<>();
+
+        Trace(long startTick) {
+            this.startTick = startTick;
+        }
+
+        public int calls() {
+            return calls.size();
+        }
+
+        @Override
+        public String toString() {
+            return "trace from tick " + startTick + ": " + netIds.size() + " nets " + netIds.values()
+                    + ", " + lists.size() + " route lists, " + calls.size() + " calls";
+        }
+    }
+
+    static final class RouteTable {
+        final long pipePos;
+        final boolean complete;
+        // Shared by every version of one lazily walked list, like the live list instance.
+        Object identity = this;
+        final long[] sinkKey;
+        final long[] targetPipePos;
+        final byte[] targetFacing;
+        final long[] maxLoss;
+        final long[][] segPos;
+        final long[][] segMaxVoltage;
+        final int[][] segLoss;
+        long uniformVoltage;
+
+        RouteTable(long pipePos, boolean complete, int count) {
+            this.pipePos = pipePos;
+            this.complete = complete;
+            this.sinkKey = new long[count];
+            this.targetPipePos = new long[count];
+            this.targetFacing = new byte[count];
+            this.maxLoss = new long[count];
+            this.segPos = new long[count][];
+            this.segMaxVoltage = new long[count][];
+            this.segLoss = new int[count][];
+        }
+    }
+
+    static final class Call {
+        int net;
+        int list;
+        // Version of the list's table current when the call was recorded.
+        RouteTable table;
+        long tick;
+        byte side;
+        long voltage;
+        long amperage;
+        int[] routes;
+        byte[] flags;
+        /** Per examined route: {remainingInputAmps, remainingEuSpace, inputVoltage}, or null if not reached. */
+        long[][] budgets;
+        long[] accepted;
+        long acceptedTotal;
+    }
+
+    public static Trace load(Path file) throws IOException {
+        try (InputStream raw = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(raw, 1 << 16)))) {
+            if (in.readInt() != TraceFormat.MAGIC) throw new IOException("not an energynet trace: " + file);
+            final int version = in.readInt();
+            if (version != TraceFormat.VERSION) throw new IOException("unsupported trace version " + version);
+            final Trace trace = new Trace(in.readLong());
+
+            while (true) {
+                final byte type;
+                try {
+                    type = in.readByte();
+                } catch (EOFException e) {
+                    break; // recording cut short (server stopped): keep what was written
+                }
+                switch (type) {
+                    case TraceFormat.REC_END:
+                        return trace;
+                    case TraceFormat.REC_NET: {
+                        final int net = in.readInt();
+                        final String id = in.readUTF();
+                        final String dim = in.readUTF();
+                        trace.netIds.put(net, id + "@" + dim);
+                        break;
+                    }
+                    case TraceFormat.REC_ROUTES: {
+                        in.readInt(); // net
+                        final int list = in.readInt();
+                        final long pipePos = in.readLong();
+                        final boolean complete = in.readBoolean();
+                        final RouteTable t = new RouteTable(pipePos, complete, in.readInt());
+                        long uniform = UniformRoutes.UNDECIDED;
+                        for (int r = 0; r < t.sinkKey.length; r++) {
+                            t.sinkKey[r] = in.readLong();
+                            t.targetPipePos[r] = in.readLong();
+                            t.targetFacing[r] = in.readByte();
+                            t.maxLoss[r] = in.readLong();
+                            final int segs = in.readInt();
+                            t.segPos[r] = new long[segs];
+                            t.segMaxVoltage[r] = new long[segs];
+                            t.segLoss[r] = new int[segs];
+                            for (int s = 0; s < segs; s++) {
+                                t.segPos[r][s] = in.readLong();
+                                t.segMaxVoltage[r][s] = in.readLong();
+                                t.segLoss[r][s] = in.readInt();
+                            }
+                            uniform = UniformRoutes.merge(uniform, t.maxLoss[r], t.segMaxVoltage[r], t.segLoss[r]);
+                        }
+                        t.uniformVoltage = uniform == UniformRoutes.UNDECIDED ? 0L : uniform;
+                        final RouteTable previous = trace.lists.put(list, t);
+                        if (previous != null) t.identity = previous.identity;
+                        break;
+                    }
+                    case TraceFormat.REC_CALL: {
+                        final Call c = new Call();
+                        c.net = in.readInt();
+                        c.list = in.readInt();
+                        c.table = trace.lists.get(c.list);
+                        c.tick = in.readLong();
+                        c.side = in.readByte();
+                        c.voltage = in.readLong();
+                        c.amperage = in.readLong();
+                        final int examined = in.readInt();
+                        c.routes = new int[examined];
+                        c.flags = new byte[examined];
+                        c.budgets = new long[examined][];
+                        c.accepted = new long[examined];
+                        for (int e = 0; e < examined; e++) {
+                            c.routes[e] = in.readInt();
+                            c.flags[e] = in.readByte();
+                            if ((c.flags[e] & TraceFormat.SINK_SEEN) != 0) {
+                                c.budgets[e] = new long[]{in.readLong(), in.readLong(), in.readLong()};
+                            }
+                            c.accepted[e] = in.readLong();
+                        }
+                        c.acceptedTotal = in.readLong();
+                        trace.calls.add(c);
+                        break;
+                    }
+                    default:
+                        throw new IOException("corrupt trace: record type " + type);
+                }
+            }
+            return trace;
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Replay
+    // ---------------------------------------------------------------------
+
+    public static final class Result {
+        public long calls;
+        public long ticks;
+        public long recordedAccepted;
+        public long replayedAccepted;
+        public long recordedRouteChecks;
+        public long replayedRouteChecks;
+        /** Calls whose accepted amps differ from the recording. */
+        public long differingCalls;
+        /** Time spent inside {@link DeliveryEngine#deliver}. */
+        public long engineNanos;
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "replayed %d calls over %d ticks: accepted %d A (recorded %d A), route checks %d (recorded %d),"
+                            + " %d calls differ, %.1f ns/call",
+                    calls, ticks, replayedAccepted, recordedAccepted, replayedRouteChecks, recordedRouteChecks,
+                    differingCalls, (double) engineNanos / Math.max(1, calls));
+        }
+    }
+
+    private static final class ReplaySink extends SinkBudget {
+        long tick = Long.MIN_VALUE;
+
+        /** @param b {flags, remainingInputAmps, remainingEuSpace, inputVoltage}, or null if never seen */
+        void load(long tick, long[] b) {
+            this.tick = tick;
+            if (b == null) {
+                setBudget(false, true, 0, 0, 0, false);
+                return;
+            }
+            final int flags = (int) b[0];
+            setBudget((flags & TraceFormat.SINK_VALID) != 0, (flags & TraceFormat.SINK_CACHEABLE) != 0,
+                    b[1], b[2], b[3], (flags & TraceFormat.SINK_FE) != 0);
+        }
+    }
+
+    private static final class NetState {
+        final RouteSchedule schedule;
+        final Long2ObjectOpenHashMap<ReplaySink> sinks = new Long2ObjectOpenHashMap<>();
+        // sinkKey -> {flags, remainingInputAmps, remainingEuSpace, inputVoltage}
+        final Long2ObjectOpenHashMap<long[]> tickBudgets = new Long2ObjectOpenHashMap<>();
+        final Long2ObjectOpenHashMap<long[]> lastBudgets = new Long2ObjectOpenHashMap<>();
+        long budgetsTick = Long.MIN_VALUE;
+
+        NetState(long tick) {
+            this.schedule = new RouteSchedule(tick);
+        }
+    }
+
+    /** Engine adapters over one recorded route table and the modelled sinks of its net. */
+    private static final class Context implements RouteSource, SinkAccess, CableEffects {
+        RouteTable table;
+        NetState net;
+        long tick;
+        byte side;
+        long routeChecks;
+
+        @Override
+        public int size() {
+            return table.sinkKey.length;
+        }
+
+        @Override
+        public Object identity() {
+            return table.identity;
+        }
+
+        @Override
+        public long maxLoss(int route) {
+            return table.maxLoss[route];
+        }
+
+        @Override
+        public boolean isSelf(int route) {
+            return table.targetFacing[route] == side && table.targetPipePos[route] == table.pipePos;
+        }
+
+        @Override
+        public long[] segmentPos(int route) {
+            return table.segPos[route];
+        }
+
+        @Override
+        public long[] segmentMaxVoltage(int route) {
+            return table.segMaxVoltage[route];
+        }
+
+        @Override
+        public int[] segmentLoss(int route) {
+            return table.segLoss[route];
+        }
+
+        @Override
+        public boolean isStale() {
+            return false;
+        }
+
+        @Override
+        public boolean isSegmentRemoved(int route, int segment) {
+            return false;
+        }
+
+        @Override
+        public long uniformVoltage() {
+            return table.uniformVoltage;
+        }
+
+        @Override
+        public boolean isParked(int route) {
+            return false;
+        }
+
+        @Override
+        public boolean hasMoreRoutes() {
+            // Routes a lazy list had not walked yet at this point of the recording.
+            return !table.complete;
+        }
+
+        @Override
+        public int expandRoutes() {
+            return table.sinkKey.length;
+        }
+
+        @Override
+        public SinkBudget sink(int route) {
+            final long key = table.sinkKey[route];
+            ReplaySink sink = net.sinks.get(key);
+            if (sink == null) {
+                sink = new ReplaySink();
+                net.sinks.put(key, sink);
+            }
+            if (sink.tick != tick) {
+                long[] b = net.tickBudgets.get(key);
+                if (b == null) b = net.lastBudgets.get(key);
+                sink.load(tick, b);
+            }
+            return sink;
+        }
+
+        @Override
+        public long accept(int route, SinkBudget sink, long voltage, long amperage) {
+            // The engine already capped amperage at what the budget allows.
+            return amperage;
+        }
+
+        @Override
+        public boolean overVoltage(int route, int segment, long segmentPos, long segmentMaxVoltage, long voltage) {
+            return false;
+        }
+
+        @Override
+        public void amperage(long segmentPos, long amperage, long voltage) {
+        }
+
+        @Override
+        public void routeAmperage(int route, long amperage, long voltage) {
+        }
+
+        @Override
+        public void routeChecked(int route) {
+            routeChecks++;
+        }
+    }
+
+    public static Result replay(Trace trace) {
+        final Result result = new Result();
+        final Int2ObjectOpenHashMap<NetState> nets = new Int2ObjectOpenHashMap<>();
+        final Context ctx = new Context();
+        final ArrayList<Call> calls = trace.calls;
+        final int n = calls.size();
+
+        int i = 0;
+        while (i < n) {
+            final long tick = calls.get(i).tick;
+            int end = i;
+            while (end < n && calls.get(end).tick == tick) end++;
+
+            // Sink budgets of this tick: the first value recorded per sink, before any replayed accept.
+            for (int k = i; k < end; k++) {
+                final Call c = calls.get(k);
+                NetState ns = nets.get(c.net);
+                if (ns == null) {
+                    ns = new NetState(tick);
+                    nets.put(c.net, ns);
+                }
+                if (ns.budgetsTick != tick) {
+                    ns.lastBudgets.putAll(ns.tickBudgets);
+                    ns.tickBudgets.clear();
+                    ns.budgetsTick = tick;
+                }
+                final RouteTable table = c.table;
+                if (table == null) continue;
+                for (int e = 0; e < c.routes.length; e++) {
+                    final long[] b = c.budgets[e];
+                    if (b == null || c.routes[e] >= table.sinkKey.length) continue;
+                    ns.tickBudgets.putIfAbsent(table.sinkKey[c.routes[e]], new long[]{c.flags[e], b[0], b[1], b[2]});
+                }
+            }
+
+            for (int k = i; k < end; k++) {
+                final Call c = calls.get(k);
+                final RouteTable table = c.table;
+                if (table == null) continue;
+                final NetState ns = nets.get(c.net);
+                ns.schedule.beginTick(tick);
+
+                ctx.table = table;
+                ctx.net = ns;
+                ctx.tick = tick;
+                ctx.side = c.side;
+                final long offerKey = (table.pipePos << 3) | (c.side & 7L);
+
+                final long t0 = System.nanoTime();
+                final long accepted = DeliveryEngine.deliver(ns.schedule, ctx, ctx, ctx, offerKey, c.voltage, c.amperage);
+                result.engineNanos += System.nanoTime() - t0;
+
+                result.calls++;
+                result.replayedAccepted += accepted;
+                result.recordedAccepted += c.acceptedTotal;
+                result.recordedRouteChecks += c.routes.length;
+                if (accepted != c.acceptedTotal) result.differingCalls++;
+            }
+            result.ticks++;
+            i = end;
+        }
+        result.replayedRouteChecks = ctx.routeChecks;
+        return result;
+    }
+}